@@ -9,11 +9,52 @@ import android.content.pm.PackageManager;
 import android.net.Uri;
 import android.os.Build;
 import android.os.Environment;
+import androidx.annotation.RequiresApi;
+import cn.elevendev.io.strategy.Appender;
+import cn.elevendev.io.strategy.Batch;
+import cn.elevendev.io.strategy.CacheStats;
+import cn.elevendev.io.strategy.ChecksumAlgorithm;
+import cn.elevendev.io.strategy.Checksums;
+import cn.elevendev.io.strategy.DelegateStrategy;
+import cn.elevendev.io.strategy.DeltaCopyResult;
+import cn.elevendev.io.strategy.DeleteResult;
+import cn.elevendev.io.strategy.DirectorySync;
+import cn.elevendev.io.strategy.FileEntry;
+import cn.elevendev.io.strategy.FileEntryIterator;
+import cn.elevendev.io.strategy.InstrumentedStrategy;
+import cn.elevendev.io.strategy.LineIterator;
+import cn.elevendev.io.strategy.ListingCacheStrategy;
+import cn.elevendev.io.strategy.ListPage;
+import cn.elevendev.io.strategy.MetadataCacheStrategy;
+import cn.elevendev.io.strategy.MetricsReporter;
+import cn.elevendev.io.strategy.MetricsSnapshot;
+import cn.elevendev.io.strategy.MoveResult;
+import cn.elevendev.io.strategy.ReadCacheStrategy;
 import cn.elevendev.io.strategy.Strategy;
 import cn.elevendev.io.strategy.StrategyFactory;
 import cn.elevendev.io.strategy.StrategyType;
+import cn.elevendev.io.strategy.SyncOptions;
+import cn.elevendev.io.strategy.SyncResult;
+import cn.elevendev.io.strategy.TracingStrategy;
+import cn.elevendev.io.strategy.WalkOptions;
+import cn.elevendev.io.strategy.WriteMode;
+import cn.elevendev.io.utils.BufferPool;
+import cn.elevendev.io.utils.GroupCommitter;
+import cn.elevendev.io.utils.IOExecutors;
+import cn.elevendev.io.utils.ParallelRunner;
 import cn.elevendev.io.utils.PermissionUtil;
+import cn.elevendev.io.utils.SpanSink;
+import cn.elevendev.io.utils.Tracer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 public class IOUtils implements Strategy {
     
@@ -21,7 +62,14 @@ public class IOUtils implements Strategy {
     private static PermissionCallback permissionCallback;
     
     public IOUtils(Activity activity, StrategyType strategyType) {
-        this.strategy = StrategyFactory.createStrategy(activity, strategyType);
+        this.strategy = new TracingStrategy(StrategyFactory.createStrategy(activity, strategyType));
+    }
+    
+    /**
+     * @param instrumented 是否统计每种操作的次数、字节数、失败次数和延迟分布
+     */
+    public IOUtils(Activity activity, StrategyType strategyType, boolean instrumented) {
+        this.strategy = new TracingStrategy(StrategyFactory.createStrategy(activity, strategyType, instrumented));
     }
     
     /**
@@ -35,6 +83,30 @@ public class IOUtils implements Strategy {
         return strategy.readFile(filePath);
     }
 
+    /**
+     * 逐行读取文件，按需读取，不会一次性加载整个文件
+     *
+     * @param filePath 文件路径
+     * @return 行迭代器，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public LineIterator readLines(String filePath) throws IOException {
+        return strategy.readLines(filePath);
+    }
+
+    /**
+     * 逐行读取文件并回调每一行，内存占用与文件大小无关
+     *
+     * @param filePath 文件路径
+     * @param callback 行回调
+     * @return 是否读取成功
+     */
+    @Override
+    public boolean forEachLine(String filePath, LineCallback callback) {
+        return strategy.forEachLine(filePath, callback);
+    }
+
     /**
      * 读取文件内容，返回字节数组
      *
@@ -46,6 +118,67 @@ public class IOUtils implements Strategy {
         return strategy.readFileAsBytes(filePath);
     }
 
+    /**
+     * 打开文件输入流，用于流式读取大文件
+     *
+     * @param filePath 文件路径
+     * @return 输入流，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public InputStream openInputStream(String filePath) throws IOException {
+        return strategy.openInputStream(filePath);
+    }
+
+    /**
+     * 打开文件读取通道
+     *
+     * @param filePath 文件路径
+     * @return 读取通道，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public ReadableByteChannel openReadableChannel(String filePath) throws IOException {
+        return strategy.openReadableChannel(filePath);
+    }
+
+    /**
+     * 以只读方式将文件映射到内存，不占用 Java 堆，文件不能超过 2GB
+     *
+     * @param filePath 文件路径
+     * @return 只读的映射缓冲区
+     * @throws IOException
+     */
+    @Override
+    public MappedByteBuffer mapFile(String filePath) throws IOException {
+        return strategy.mapFile(filePath);
+    }
+
+    /**
+     * 以只读方式将文件分段映射到内存，适用于超过 2GB 的文件
+     *
+     * @param filePath 文件路径
+     * @return 按文件顺序排列的只读映射缓冲区
+     * @throws IOException
+     */
+    @Override
+    public List<MappedByteBuffer> mapFileSegments(String filePath) throws IOException {
+        return strategy.mapFileSegments(filePath);
+    }
+
+    /**
+     * 读取文件中指定范围的数据，不读取范围以外的内容
+     *
+     * @param filePath 文件路径
+     * @param offset 起始位置
+     * @param length 读取的字节数
+     * @return 读取的数据，到达文件末尾时可能少于 length，失败时返回 null
+     */
+    @Override
+    public byte[] readRange(String filePath, long offset, int length) {
+        return strategy.readRange(filePath, offset, length);
+    }
+
     /**
      * 写入字符内容到文件
      *
@@ -70,6 +203,95 @@ public class IOUtils implements Strategy {
         return strategy.writeFile(filePath, data);
     }
 
+    /**
+     * 按指定模式写入字符内容到文件
+     *
+     * @param filePath 文件路径
+     * @param content 要写入的内容
+     * @param mode 写入模式，DURABLE 在返回前保证数据已同步到磁盘
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeFile(String filePath, String content, WriteMode mode) {
+        return strategy.writeFile(filePath, content, mode);
+    }
+
+    /**
+     * 按指定模式写入字节数组到文件
+     *
+     * @param filePath 文件路径
+     * @param data 要写入的字节数组
+     * @param mode 写入模式，DURABLE 在返回前保证数据已同步到磁盘
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeFile(String filePath, byte[] data, WriteMode mode) {
+        return strategy.writeFile(filePath, data, mode);
+    }
+
+    /**
+     * 从指定位置写入数据，覆盖该范围内的原有内容，不截断文件，文件不存在时创建
+     *
+     * @param filePath 文件路径
+     * @param offset 起始位置，超过文件末尾时中间以 0 填充
+     * @param data 要写入的数据
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeRange(String filePath, long offset, byte[] data) {
+        return strategy.writeRange(filePath, offset, data);
+    }
+
+    /**
+     * 打开文件输出流，用于流式写入大文件
+     *
+     * @param filePath 文件路径
+     * @param append 如果为 true 追加到文件末尾，如果为 false 清空文件后写入
+     * @return 输出流，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public OutputStream openOutputStream(String filePath, boolean append) throws IOException {
+        return strategy.openOutputStream(filePath, append);
+    }
+
+    /**
+     * 打开文件写入通道
+     *
+     * @param filePath 文件路径
+     * @param append 如果为 true 追加到文件末尾，如果为 false 清空文件后写入
+     * @return 写入通道，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public WritableByteChannel openWritableChannel(String filePath, boolean append) throws IOException {
+        return strategy.openWritableChannel(filePath, append);
+    }
+
+    /**
+     * 追加字节数组到文件末尾，数据先进入共享缓冲区，最迟在刷新间隔后写入文件
+     *
+     * @param filePath 文件路径
+     * @param data 要追加的数据
+     * @return 是否写入缓冲区成功
+     */
+    @Override
+    public boolean append(String filePath, byte[] data) {
+        return strategy.append(filePath, data);
+    }
+
+    /**
+     * 打开追加写入器，同一路径的写入器共享一个打开的输出流，适用于频繁追加小块数据
+     *
+     * @param filePath 文件路径
+     * @return 写入器，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public Appender openAppender(String filePath) throws IOException {
+        return strategy.openAppender(filePath);
+    }
+
     /**
      * 删除文件或文件夹
      *
@@ -81,6 +303,18 @@ public class IOUtils implements Strategy {
         return strategy.delete(filePath);
     }
 
+    /**
+     * 删除文件或文件夹，并返回统计结果
+     *
+     * @param filePath 文件或文件夹的路径
+     * @param parallel 是否将文件夹内的条目分发到线程池并行删除
+     * @return 删除结果
+     */
+    @Override
+    public DeleteResult delete(String filePath, boolean parallel) {
+        return strategy.delete(filePath, parallel);
+    }
+
     /**
      * 判断文件或文件夹是否存在
      *
@@ -92,6 +326,17 @@ public class IOUtils implements Strategy {
         return strategy.exists(filePath);
     }
 
+    /**
+     * 获取文件或文件夹的类型、大小和修改时间，符号链接不跟随
+     *
+     * @param filePath 文件或文件夹的路径
+     * @return 不存在时返回 null
+     */
+    @Override
+    public FileEntry stat(String filePath) {
+        return strategy.stat(filePath);
+    }
+
     /**
      * 复制文件或文件夹
      *
@@ -116,6 +361,30 @@ public class IOUtils implements Strategy {
         return strategy.move(sourcePath, destPath);
     }
 
+    /**
+     * 移动文件或文件夹，同一存储卷内优先直接重命名
+     *
+     * @param sourcePath 源文件或文件夹的路径
+     * @param destPath 目标文件或文件夹的路径
+     * @return 实际采用的移动方式
+     */
+    @Override
+    public MoveResult moveWithResult(String sourcePath, String destPath) {
+        return strategy.moveWithResult(sourcePath, destPath);
+    }
+
+    /**
+     * 增量复制文件，按块比较源文件与已有的目标文件，只写入内容不同的块，适用于只有少量改动的大文件
+     *
+     * @param sourcePath 源文件的路径
+     * @param destPath 目标文件的路径，不存在时等同于完整复制
+     * @return 复制结果，失败时返回 null
+     */
+    @Override
+    public DeltaCopyResult copyDelta(String sourcePath, String destPath) {
+        return strategy.copyDelta(sourcePath, destPath);
+    }
+
     /**
      * 获取目录下的所有内容（文件和文件夹）
      *
@@ -139,6 +408,218 @@ public class IOUtils implements Strategy {
         return strategy.getList(dirPath, listDirectories);
     }
 
+    /**
+     * 获取目录下的所有内容及其类型、大小和修改时间，只遍历一次目录
+     *
+     * @param dirPath 目录的路径
+     * @return 目录条目列表，符号链接不跟随
+     */
+    @Override
+    public List<FileEntry> list(String dirPath) {
+        return strategy.list(dirPath);
+    }
+
+    /**
+     * 按需遍历目录，条目在遍历时才从目录中读取
+     *
+     * @param dirPath 目录的路径
+     * @return 目录条目迭代器，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public FileEntryIterator iterate(String dirPath) throws IOException {
+        return strategy.iterate(dirPath);
+    }
+
+    /**
+     * 分页获取目录内容
+     *
+     * @param dirPath 目录的路径
+     * @param pageToken 上一页返回的令牌，为 null 时获取第一页
+     * @param pageSize 每页条目数
+     * @param sortByName 是否按名称排序，排序时需要遍历整个目录
+     * @return 一页目录条目
+     */
+    @Override
+    public ListPage listPage(String dirPath, String pageToken, int pageSize, boolean sortByName) {
+        return strategy.listPage(dirPath, pageToken, pageSize, sortByName);
+    }
+
+    /**
+     * 递归遍历目录树
+     *
+     * @param rootPath 根目录的路径
+     * @param options 遍历选项
+     * @return 满足条件的条目，不包含根目录
+     */
+    @Override
+    public List<FileEntry> walk(String rootPath, WalkOptions options) {
+        return strategy.walk(rootPath, options);
+    }
+
+    /**
+     * 流式计算文件的校验和，不会把文件读入内存
+     *
+     * @param filePath 文件路径
+     * @param algorithm 校验算法
+     * @return 小写十六进制字符串，失败时返回 null
+     */
+    public String checksum(String filePath, ChecksumAlgorithm algorithm) {
+        try (ReadableByteChannel channel = strategy.openReadableChannel(filePath)) {
+            return Checksums.compute(channel, algorithm);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * 以树形模式计算文件的校验和，按固定大小分块计算后再合并
+     * 本地文件和文档提供者的文件并行读取各块，Shizuku 的文件顺序读取，结果相同
+     *
+     * @param filePath 文件路径
+     * @param algorithm 校验算法
+     * @return 小写十六进制字符串，与 checksum 的结果不同，只能与树形模式的结果比较，失败时返回 null
+     */
+    public String checksumTree(String filePath, ChecksumAlgorithm algorithm) {
+        try (ReadableByteChannel channel = strategy.openReadableChannel(filePath)) {
+            return Checksums.computeTree(channel, algorithm);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * 增量同步文件夹，只复制新增或大小、修改时间变化的文件，并在目标文件夹中保存清单供下次同步使用
+     *
+     * @param sourcePath 源文件夹的路径
+     * @param destPath 目标文件夹的路径
+     * @param options 同步选项
+     * @return 同步结果，源文件夹不存在或遍历失败时返回 null
+     */
+    public SyncResult sync(String sourcePath, String destPath, SyncOptions options) {
+        try {
+            return new DirectorySync(strategy).sync(sourcePath, destPath, options);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * 获取操作统计快照
+     *
+     * @return 创建时没有开启统计时返回 null
+     */
+    public MetricsSnapshot getMetricsSnapshot() {
+        InstrumentedStrategy instrumented = findDelegate(InstrumentedStrategy.class);
+        return instrumented != null ? instrumented.getSnapshot() : null;
+    }
+
+    /**
+     * 设置定时输出统计的报告器，创建时没有开启统计时不生效
+     *
+     * @param reporter 报告器，为 null 时停止输出
+     * @param intervalMillis 输出间隔
+     */
+    public void setMetricsReporter(MetricsReporter reporter, long intervalMillis) {
+        InstrumentedStrategy instrumented = findDelegate(InstrumentedStrategy.class);
+        if (instrumented != null) {
+            instrumented.setReporter(reporter, intervalMillis);
+        }
+    }
+
+    /**
+     * 开启读取缓存，readFile 和 readFileAsBytes 在文件大小和修改时间没有变化时直接返回缓存的内容
+     * 经由本实例的写入、删除和移动会使相关路径失效，应在开始读写前调用，重复调用不生效
+     *
+     * @param maxBytes 缓存内容的总字节数上限
+     */
+    public void enableReadCache(long maxBytes) {
+        if (findDelegate(ReadCacheStrategy.class) == null) {
+            strategy = new ReadCacheStrategy(strategy, maxBytes);
+        }
+    }
+
+    /**
+     * 获取读取缓存的命中统计
+     *
+     * @return 没有开启读取缓存时返回 null
+     */
+    public CacheStats getReadCacheStats() {
+        ReadCacheStrategy readCache = findDelegate(ReadCacheStrategy.class);
+        return readCache != null ? readCache.getStats() : null;
+    }
+
+    /**
+     * 开启元数据缓存，exists 和 stat 的结果在有效期内直接返回，包括不存在的结果
+     * 经由本实例的修改操作会使相关路径失效，应在开始读写前调用，重复调用不生效
+     *
+     * @param ttlMillis 结果有效期，毫秒，期间其他应用对文件的修改不可见
+     */
+    public void enableMetadataCache(long ttlMillis) {
+        if (findDelegate(MetadataCacheStrategy.class) == null) {
+            strategy = new MetadataCacheStrategy(strategy, ttlMillis);
+        }
+    }
+
+    /**
+     * 获取元数据缓存的命中统计
+     *
+     * @return 没有开启元数据缓存时返回 null
+     */
+    public CacheStats getMetadataCacheStats() {
+        MetadataCacheStrategy metadataCache = findDelegate(MetadataCacheStrategy.class);
+        return metadataCache != null ? metadataCache.getStats() : null;
+    }
+
+    /**
+     * 开启目录缓存，getList 和 list 在目录修改时间没有变化时直接使用上次遍历的结果
+     * 经由本实例的修改操作会使相关目录失效，应在开始读写前调用，重复调用不生效
+     */
+    public void enableListingCache() {
+        if (findDelegate(ListingCacheStrategy.class) == null) {
+            strategy = new ListingCacheStrategy(strategy);
+        }
+    }
+
+    /**
+     * 获取目录缓存的命中统计
+     *
+     * @return 没有开启目录缓存时返回 null
+     */
+    public CacheStats getListingCacheStats() {
+        ListingCacheStrategy listingCache = findDelegate(ListingCacheStrategy.class);
+        return listingCache != null ? listingCache.getStats() : null;
+    }
+
+    /**
+     * 在装饰器链中查找指定类型的装饰器
+     *
+     * @param type 装饰器类型
+     * @return 没有时返回 null
+     */
+    private <T extends DelegateStrategy> T findDelegate(Class<T> type) {
+        Strategy current = strategy;
+        while (current instanceof DelegateStrategy) {
+            if (type.isInstance(current)) {
+                return type.cast(current);
+            }
+            current = ((DelegateStrategy) current).getDelegate();
+        }
+        return null;
+    }
+
+    /**
+     * 创建批量操作，添加完所有操作后调用 execute 执行
+     *
+     * @return 批量操作构建器
+     */
+    public Batch batch() {
+        return new Batch(strategy);
+    }
+
     /**
      * 创建目录
      *
@@ -217,6 +698,429 @@ public class IOUtils implements Strategy {
         this.requestStoragePermission(activity, dirPath);
     }
     
+    /**
+     * 异步读取文件内容，在 I/O 线程池执行，在 I/O 线程上完成
+     *
+     * @param filePath 文件路径
+     * @return 文件内容的字符串表示，失败时为 null
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<String> readFileAsync(String filePath) {
+        return supplyAsync(() -> strategy.readFile(filePath), null);
+    }
+
+    /**
+     * 异步读取文件内容，在 I/O 线程池执行，在指定的 Executor 上完成
+     *
+     * @param filePath 文件路径
+     * @param callbackExecutor 接收结果的 Executor，例如 IOExecutors.getMainThreadExecutor()
+     * @return 文件内容的字符串表示，失败时为 null
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<String> readFileAsync(String filePath, Executor callbackExecutor) {
+        return supplyAsync(() -> strategy.readFile(filePath), callbackExecutor);
+    }
+
+    /**
+     * 异步读取文件内容，返回字节数组，在 I/O 线程池执行，在 I/O 线程上完成
+     *
+     * @param filePath 文件路径
+     * @return 字节数组
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<byte[]> readFileAsBytesAsync(String filePath) {
+        return supplyAsync(() -> strategy.readFileAsBytes(filePath), null);
+    }
+
+    /**
+     * 异步读取文件内容，返回字节数组，在 I/O 线程池执行，在指定的 Executor 上完成
+     *
+     * @param filePath 文件路径
+     * @param callbackExecutor 接收结果的 Executor，例如 IOExecutors.getMainThreadExecutor()
+     * @return 字节数组
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<byte[]> readFileAsBytesAsync(String filePath, Executor callbackExecutor) {
+        return supplyAsync(() -> strategy.readFileAsBytes(filePath), callbackExecutor);
+    }
+
+    /**
+     * 异步读取文件中指定范围的数据，在 I/O 线程池执行，在 I/O 线程上完成
+     *
+     * @param filePath 文件路径
+     * @param offset 起始位置
+     * @param length 读取的字节数
+     * @return 读取的数据，失败时为 null
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<byte[]> readRangeAsync(String filePath, long offset, int length) {
+        return supplyAsync(() -> strategy.readRange(filePath, offset, length), null);
+    }
+
+    /**
+     * 异步读取文件中指定范围的数据，在 I/O 线程池执行，在指定的 Executor 上完成
+     *
+     * @param filePath 文件路径
+     * @param offset 起始位置
+     * @param length 读取的字节数
+     * @param callbackExecutor 接收结果的 Executor，例如 IOExecutors.getMainThreadExecutor()
+     * @return 读取的数据，失败时为 null
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<byte[]> readRangeAsync(String filePath, long offset, int length, Executor callbackExecutor) {
+        return supplyAsync(() -> strategy.readRange(filePath, offset, length), callbackExecutor);
+    }
+
+    /**
+     * 异步写入字符内容到文件，在 I/O 线程池执行，在 I/O 线程上完成
+     *
+     * @param filePath 文件路径
+     * @param content 要写入的内容
+     * @return 是否写入成功
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<Boolean> writeFileAsync(String filePath, String content) {
+        return supplyAsync(() -> strategy.writeFile(filePath, content), null);
+    }
+
+    /**
+     * 异步写入字符内容到文件，在 I/O 线程池执行，在指定的 Executor 上完成
+     *
+     * @param filePath 文件路径
+     * @param content 要写入的内容
+     * @param callbackExecutor 接收结果的 Executor，例如 IOExecutors.getMainThreadExecutor()
+     * @return 是否写入成功
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<Boolean> writeFileAsync(String filePath, String content, Executor callbackExecutor) {
+        return supplyAsync(() -> strategy.writeFile(filePath, content), callbackExecutor);
+    }
+
+    /**
+     * 异步写入字节数组到文件，在 I/O 线程池执行，在 I/O 线程上完成
+     *
+     * @param filePath 文件路径
+     * @param data 要写入的字节数组
+     * @return 是否写入成功
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<Boolean> writeFileAsync(String filePath, byte[] data) {
+        return supplyAsync(() -> strategy.writeFile(filePath, data), null);
+    }
+
+    /**
+     * 异步写入字节数组到文件，在 I/O 线程池执行，在指定的 Executor 上完成
+     *
+     * @param filePath 文件路径
+     * @param data 要写入的字节数组
+     * @param callbackExecutor 接收结果的 Executor，例如 IOExecutors.getMainThreadExecutor()
+     * @return 是否写入成功
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<Boolean> writeFileAsync(String filePath, byte[] data, Executor callbackExecutor) {
+        return supplyAsync(() -> strategy.writeFile(filePath, data), callbackExecutor);
+    }
+
+    /**
+     * 异步删除文件或文件夹，在 I/O 线程池执行，在 I/O 线程上完成
+     *
+     * @param filePath 文件或文件夹的路径
+     * @return 是否删除成功
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<Boolean> deleteAsync(String filePath) {
+        return supplyAsync(() -> strategy.delete(filePath), null);
+    }
+
+    /**
+     * 异步删除文件或文件夹，在 I/O 线程池执行，在指定的 Executor 上完成
+     *
+     * @param filePath 文件或文件夹的路径
+     * @param callbackExecutor 接收结果的 Executor，例如 IOExecutors.getMainThreadExecutor()
+     * @return 是否删除成功
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<Boolean> deleteAsync(String filePath, Executor callbackExecutor) {
+        return supplyAsync(() -> strategy.delete(filePath), callbackExecutor);
+    }
+
+    /**
+     * 异步判断文件或文件夹是否存在，在 I/O 线程池执行，在 I/O 线程上完成
+     *
+     * @param filePath 文件或文件夹的路径
+     * @return 是否存在
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<Boolean> existsAsync(String filePath) {
+        return supplyAsync(() -> strategy.exists(filePath), null);
+    }
+
+    /**
+     * 异步判断文件或文件夹是否存在，在 I/O 线程池执行，在指定的 Executor 上完成
+     *
+     * @param filePath 文件或文件夹的路径
+     * @param callbackExecutor 接收结果的 Executor，例如 IOExecutors.getMainThreadExecutor()
+     * @return 是否存在
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<Boolean> existsAsync(String filePath, Executor callbackExecutor) {
+        return supplyAsync(() -> strategy.exists(filePath), callbackExecutor);
+    }
+
+    /**
+     * 异步复制文件或文件夹，在 I/O 线程池执行，在 I/O 线程上完成
+     *
+     * @param sourcePath 源文件或文件夹的路径
+     * @param destPath 目标文件或文件夹的路径
+     * @return 是否复制成功
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<Boolean> copyAsync(String sourcePath, String destPath) {
+        return supplyAsync(() -> strategy.copy(sourcePath, destPath), null);
+    }
+
+    /**
+     * 异步复制文件或文件夹，在 I/O 线程池执行，在指定的 Executor 上完成
+     *
+     * @param sourcePath 源文件或文件夹的路径
+     * @param destPath 目标文件或文件夹的路径
+     * @param callbackExecutor 接收结果的 Executor，例如 IOExecutors.getMainThreadExecutor()
+     * @return 是否复制成功
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<Boolean> copyAsync(String sourcePath, String destPath, Executor callbackExecutor) {
+        return supplyAsync(() -> strategy.copy(sourcePath, destPath), callbackExecutor);
+    }
+
+    /**
+     * 异步增量复制文件，在 I/O 线程池执行，在 I/O 线程上完成
+     *
+     * @param sourcePath 源文件的路径
+     * @param destPath 目标文件的路径
+     * @return 复制结果，失败时为 null
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<DeltaCopyResult> copyDeltaAsync(String sourcePath, String destPath) {
+        return supplyAsync(() -> strategy.copyDelta(sourcePath, destPath), null);
+    }
+
+    /**
+     * 异步增量复制文件，在 I/O 线程池执行，在指定的 Executor 上完成
+     *
+     * @param sourcePath 源文件的路径
+     * @param destPath 目标文件的路径
+     * @param callbackExecutor 接收结果的 Executor，例如 IOExecutors.getMainThreadExecutor()
+     * @return 复制结果，失败时为 null
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<DeltaCopyResult> copyDeltaAsync(String sourcePath, String destPath, Executor callbackExecutor) {
+        return supplyAsync(() -> strategy.copyDelta(sourcePath, destPath), callbackExecutor);
+    }
+
+    /**
+     * 异步移动文件或文件夹，在 I/O 线程池执行，在 I/O 线程上完成
+     *
+     * @param sourcePath 源文件或文件夹的路径
+     * @param destPath 目标文件或文件夹的路径
+     * @return 是否移动成功
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<Boolean> moveAsync(String sourcePath, String destPath) {
+        return supplyAsync(() -> strategy.move(sourcePath, destPath), null);
+    }
+
+    /**
+     * 异步移动文件或文件夹，在 I/O 线程池执行，在指定的 Executor 上完成
+     *
+     * @param sourcePath 源文件或文件夹的路径
+     * @param destPath 目标文件或文件夹的路径
+     * @param callbackExecutor 接收结果的 Executor，例如 IOExecutors.getMainThreadExecutor()
+     * @return 是否移动成功
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<Boolean> moveAsync(String sourcePath, String destPath, Executor callbackExecutor) {
+        return supplyAsync(() -> strategy.move(sourcePath, destPath), callbackExecutor);
+    }
+
+    /**
+     * 异步获取目录下的所有内容及其类型、大小和修改时间，在 I/O 线程池执行，在 I/O 线程上完成
+     *
+     * @param dirPath 目录的路径
+     * @return 目录条目列表
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<List<FileEntry>> listAsync(String dirPath) {
+        return supplyAsync(() -> strategy.list(dirPath), null);
+    }
+
+    /**
+     * 异步获取目录下的所有内容及其类型、大小和修改时间，在 I/O 线程池执行，在指定的 Executor 上完成
+     *
+     * @param dirPath 目录的路径
+     * @param callbackExecutor 接收结果的 Executor，例如 IOExecutors.getMainThreadExecutor()
+     * @return 目录条目列表
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<List<FileEntry>> listAsync(String dirPath, Executor callbackExecutor) {
+        return supplyAsync(() -> strategy.list(dirPath), callbackExecutor);
+    }
+
+    /**
+     * 异步递归遍历目录树，在 I/O 线程池执行，在 I/O 线程上完成
+     *
+     * @param rootPath 根目录的路径
+     * @param options 遍历选项
+     * @return 满足条件的条目
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<List<FileEntry>> walkAsync(String rootPath, WalkOptions options) {
+        return supplyAsync(() -> strategy.walk(rootPath, options), null);
+    }
+
+    /**
+     * 异步递归遍历目录树，在 I/O 线程池执行，在指定的 Executor 上完成
+     *
+     * @param rootPath 根目录的路径
+     * @param options 遍历选项
+     * @param callbackExecutor 接收结果的 Executor，例如 IOExecutors.getMainThreadExecutor()
+     * @return 满足条件的条目
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<List<FileEntry>> walkAsync(String rootPath, WalkOptions options, Executor callbackExecutor) {
+        return supplyAsync(() -> strategy.walk(rootPath, options), callbackExecutor);
+    }
+
+    /**
+     * 异步计算文件的校验和，在 I/O 线程池执行，在 I/O 线程上完成
+     *
+     * @param filePath 文件路径
+     * @param algorithm 校验算法
+     * @return 小写十六进制字符串，失败时为 null
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<String> checksumAsync(String filePath, ChecksumAlgorithm algorithm) {
+        return supplyAsync(() -> checksum(filePath, algorithm), null);
+    }
+
+    /**
+     * 异步计算文件的校验和，在 I/O 线程池执行，在指定的 Executor 上完成
+     *
+     * @param filePath 文件路径
+     * @param algorithm 校验算法
+     * @param callbackExecutor 接收结果的 Executor，例如 IOExecutors.getMainThreadExecutor()
+     * @return 小写十六进制字符串，失败时为 null
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<String> checksumAsync(String filePath, ChecksumAlgorithm algorithm, Executor callbackExecutor) {
+        return supplyAsync(() -> checksum(filePath, algorithm), callbackExecutor);
+    }
+
+    /**
+     * 异步增量同步文件夹，在 I/O 线程池执行，在 I/O 线程上完成
+     *
+     * @param sourcePath 源文件夹的路径
+     * @param destPath 目标文件夹的路径
+     * @param options 同步选项
+     * @return 同步结果，源文件夹不存在或遍历失败时为 null
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<SyncResult> syncAsync(String sourcePath, String destPath, SyncOptions options) {
+        return supplyAsync(() -> sync(sourcePath, destPath, options), null);
+    }
+
+    /**
+     * 异步增量同步文件夹，在 I/O 线程池执行，在指定的 Executor 上完成
+     *
+     * @param sourcePath 源文件夹的路径
+     * @param destPath 目标文件夹的路径
+     * @param options 同步选项
+     * @param callbackExecutor 接收结果的 Executor，例如 IOExecutors.getMainThreadExecutor()
+     * @return 同步结果，源文件夹不存在或遍历失败时为 null
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<SyncResult> syncAsync(String sourcePath, String destPath, SyncOptions options, Executor callbackExecutor) {
+        return supplyAsync(() -> sync(sourcePath, destPath, options), callbackExecutor);
+    }
+
+    /**
+     * 在 I/O 线程池执行任务，结果交给指定的 Executor
+     * 无论成功还是异常，返回的 Future 都在 callbackExecutor 上完成，之后同步注册的回调也在该线程上执行
+     *
+     * @param task 文件操作
+     * @param callbackExecutor 为 null 时在 I/O 线程上完成
+     * @return
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    private static <T> CompletableFuture<T> supplyAsync(Supplier<T> task, Executor callbackExecutor) {
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(task, IOExecutors.getIOExecutor());
+        if (callbackExecutor == null) {
+            return future;
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        future.whenCompleteAsync((value, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        }, callbackExecutor);
+        return result;
+    }
+    
+    /**
+     * 设置文件夹复制、移动等批量操作的并行度
+     *
+     * @param parallelism 同时处理的最大文件数，为 1 时顺序执行
+     */
+    public static void setParallelism(int parallelism) {
+        ParallelRunner.setParallelism(parallelism);
+    }
+    
+    /**
+     * 设置 DURABLE 写入批量同步的时间间隔，间隔内的并发写入合并为一次提交
+     *
+     * @param millis 毫秒，为 0 时立即提交
+     */
+    public static void setDurableCommitInterval(long millis) {
+        GroupCommitter.setCommitInterval(millis);
+    }
+    
+    /**
+     * 设置复制和读取共用的缓冲区池最多保留的字节数，命中情况可通过 BufferPool 查询
+     *
+     * @param maxBytes 为 0 时不保留任何缓冲区
+     */
+    public static void setMaxPooledBufferBytes(long maxBytes) {
+        BufferPool.setMaxRetainedBytes(maxBytes);
+    }
+    
+    /**
+     * 设置异步接口使用的 I/O 线程数
+     *
+     * @param count 最大线程数
+     */
+    public static void setIOThreadCount(int count) {
+        IOExecutors.setThreadCount(count);
+    }
+    
+    /**
+     * 添加追踪输出，添加后每个操作及其权限检查、路径解析、数据传输等阶段都会输出嵌套的区间
+     *
+     * @param sink 例如输出到 Perfetto 的 AndroidTraceSink，或用于测试的 InMemorySpanSink
+     */
+    public static void addTraceSink(SpanSink sink) {
+        Tracer.addSink(sink);
+    }
+    
+    /**
+     * 移除追踪输出，没有任何输出时追踪不产生开销
+     *
+     * @param sink 之前添加的输出
+     */
+    public static void removeTraceSink(SpanSink sink) {
+        Tracer.removeSink(sink);
+    }
+    
     /**
      * 处理权限结果回调
      *
@@ -0,0 +1,99 @@
+package cn.elevendev.io.strategy;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 文件追加写入器，同一路径的写入器共享一个打开的输出流和缓冲区
+ * 小块写入先进入缓冲区，缓冲区写满或到达刷新间隔时写入文件，需要立即落盘时调用 flush
+ * 写入器是线程安全的，使用完毕后需要关闭，关闭时释放引用，同一路径没有其他写入器时刷新缓冲区，
+ * 空闲的输出流由写入器池延迟关闭
+ */
+public class Appender implements Closeable, Flushable {
+
+    private final AppenderPool pool;
+    private final AppenderPool.Entry entry;
+    private final List<Runnable> closeActions = new ArrayList<>();
+    private boolean closed;
+
+    Appender(AppenderPool pool, AppenderPool.Entry entry) {
+        this.pool = pool;
+        this.entry = entry;
+    }
+
+    /**
+     * 追加字节数组
+     *
+     * @param data 要追加的数据
+     * @throws IOException
+     */
+    public void write(byte[] data) throws IOException {
+        write(data, 0, data.length);
+    }
+
+    /**
+     * 追加字节数组的一部分
+     *
+     * @param data 要追加的数据
+     * @param off 起始位置
+     * @param len 长度
+     * @throws IOException
+     */
+    public void write(byte[] data, int off, int len) throws IOException {
+        checkOpen();
+        entry.write(data, off, len);
+    }
+
+    /**
+     * 将缓冲区中的数据写入文件
+     *
+     * @throws IOException
+     */
+    @Override
+    public void flush() throws IOException {
+        checkOpen();
+        entry.flush();
+    }
+
+    /**
+     * 释放引用，同一路径没有其他打开的写入器时把缓冲区中的数据写入文件
+     *
+     * @throws IOException 写入失败
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            pool.release(entry);
+        } finally {
+            for (Runnable action : closeActions) {
+                action.run();
+            }
+        }
+    }
+
+    /**
+     * 添加关闭后执行的操作，写入失败时同样执行，已关闭时立即执行
+     *
+     * @param action
+     */
+    synchronized void addCloseAction(Runnable action) {
+        if (closed) {
+            action.run();
+        } else {
+            closeActions.add(action);
+        }
+    }
+
+    private synchronized void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("写入器已关闭");
+        }
+    }
+}
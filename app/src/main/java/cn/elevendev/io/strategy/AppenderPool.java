@@ -0,0 +1,243 @@
+package cn.elevendev.io.strategy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按路径复用追加输出流的写入器池，每个策略实例持有一个
+ * 后台任务定时刷新缓冲区，并关闭没有引用且空闲超时的输出流
+ * 最后一个写入器关闭时以及读取或复制该路径前也会刷新缓冲区
+ */
+class AppenderPool {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final long FLUSH_INTERVAL_MILLIS = 1000;
+    private static final long IDLE_TIMEOUT_MILLIS = 30000;
+
+    private static ScheduledExecutorService scheduler;
+
+    private final Strategy strategy;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private ScheduledFuture<?> maintainTask;
+
+    /**
+     * @param strategy 用于以追加模式打开输出流的策略
+     */
+    AppenderPool(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * 获取路径对应的写入器，已有打开的输出流时直接复用
+     *
+     * @param filePath 文件路径
+     * @return
+     * @throws IOException
+     */
+    synchronized Appender acquire(String filePath) throws IOException {
+        Entry entry = entries.get(filePath);
+        if (entry != null && entry.isBroken()) {
+            entries.remove(filePath);
+            entry.closeQuietly();
+            entry = null;
+        }
+        if (entry == null) {
+            entry = new Entry(strategy.openOutputStream(filePath, true));
+            entries.put(filePath, entry);
+            if (maintainTask == null) {
+                maintainTask = getScheduler().scheduleWithFixedDelay(this::maintain,
+                        FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+        entry.refCount++;
+        return new Appender(this, entry);
+    }
+
+    /**
+     * 释放写入器的引用，没有其他引用时刷新缓冲区，避免进程退出时丢失已追加的数据
+     *
+     * @param entry
+     * @throws IOException 刷新失败
+     */
+    synchronized void release(Entry entry) throws IOException {
+        entry.refCount--;
+        entry.lastReleased = System.currentTimeMillis();
+        // 已被移除的条目在移除时已刷新
+        if (entry.refCount == 0 && !entry.isBroken()) {
+            entry.flush();
+        }
+    }
+
+    /**
+     * 把路径及其子路径上缓冲的数据写入文件，读取或复制前调用，保证能读到已追加的内容
+     *
+     * @param path 文件或文件夹路径
+     */
+    synchronized void flush(String path) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        String dirPrefix = path.endsWith("/") ? path : path + "/";
+        for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+            String key = mapEntry.getKey();
+            if (key.equals(path) || key.startsWith(dirPrefix)) {
+                try {
+                    mapEntry.getValue().flush();
+                } catch (IOException e) {
+                    // 写入失败的条目已记录错误，下次写入时抛出
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * 刷新并关闭路径及其子路径上的输出流，文件被替换、移动或删除前调用，
+     * 避免后续追加写入到已经不在原路径上的文件，仍持有这些写入器的调用方会在下次写入时收到异常
+     *
+     * @param path 文件或文件夹路径
+     */
+    synchronized void evict(String path) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        String dirPrefix = path.endsWith("/") ? path : path + "/";
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Entry> mapEntry = iterator.next();
+            String key = mapEntry.getKey();
+            if (key.equals(path) || key.startsWith(dirPrefix)) {
+                iterator.remove();
+                mapEntry.getValue().closeQuietly();
+                mapEntry.getValue().invalidate();
+            }
+        }
+    }
+
+    /**
+     * 刷新所有缓冲区，关闭空闲的输出流，池为空时停止后台任务
+     */
+    private synchronized void maintain() {
+        long now = System.currentTimeMillis();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            try {
+                entry.flush();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            if (entry.isBroken() || (entry.refCount == 0 && now - entry.lastReleased >= IDLE_TIMEOUT_MILLIS)) {
+                iterator.remove();
+                entry.closeQuietly();
+            }
+        }
+        if (entries.isEmpty()) {
+            maintainTask.cancel(false);
+            maintainTask = null;
+        }
+    }
+
+    private static synchronized ScheduledExecutorService getScheduler() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "IOUtils-Appender");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return scheduler;
+    }
+
+    /**
+     * 同一路径共享的输出流和缓冲区，写入失败后不再可用
+     */
+    static class Entry {
+
+        private final OutputStream out;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int count;
+        private IOException error;
+        int refCount;
+        long lastReleased;
+
+        Entry(OutputStream out) {
+            this.out = out;
+        }
+
+        synchronized void write(byte[] data, int off, int len) throws IOException {
+            checkError();
+            try {
+                if (len > buffer.length - count) {
+                    flushBuffer();
+                }
+                if (len >= buffer.length) {
+                    // 大块数据不经过缓冲区
+                    out.write(data, off, len);
+                    return;
+                }
+                System.arraycopy(data, off, buffer, count, len);
+                count += len;
+            } catch (IOException e) {
+                error = e;
+                throw e;
+            }
+        }
+
+        synchronized void flush() throws IOException {
+            checkError();
+            try {
+                flushBuffer();
+                out.flush();
+            } catch (IOException e) {
+                error = e;
+                throw e;
+            }
+        }
+
+        synchronized void invalidate() {
+            if (error == null) {
+                error = new IOException("文件已被替换、移动或删除");
+            }
+        }
+
+        synchronized boolean isBroken() {
+            return error != null;
+        }
+
+        synchronized void closeQuietly() {
+            try {
+                if (error == null) {
+                    flushBuffer();
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            try {
+                out.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        private void flushBuffer() throws IOException {
+            if (count > 0) {
+                out.write(buffer, 0, count);
+                count = 0;
+            }
+        }
+
+        private void checkError() throws IOException {
+            if (error != null) {
+                throw new IOException("写入器已失效", error);
+            }
+        }
+    }
+}
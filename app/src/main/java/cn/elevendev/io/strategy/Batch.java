@@ -0,0 +1,239 @@
+package cn.elevendev.io.strategy;
+
+import cn.elevendev.io.utils.BufferPool;
+import cn.elevendev.io.utils.IOExecutors;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 批量文件操作，添加完所有操作后调用 execute 以有限的并发数执行
+ * 策略实现 BatchAware 时，执行期间共享权限检查和已解析的根目录
+ */
+public class Batch {
+
+    public enum OperationType {
+        READ, WRITE, COPY, MOVE, DELETE
+    }
+
+    private final Strategy strategy;
+    private final List<Operation> operations = new ArrayList<>();
+    private int concurrency = 4;
+
+    public Batch(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * 设置同时执行的最大操作数
+     *
+     * @param concurrency 为 1 时在调用线程上顺序执行
+     * @return
+     */
+    public Batch setConcurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("并发数必须大于 0: " + concurrency);
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * 读取文件内容，结果通过 OperationResult.getData 获取
+     *
+     * @param filePath 文件路径
+     * @return
+     */
+    public Batch read(String filePath) {
+        operations.add(new Operation(OperationType.READ, filePath, null, null));
+        return this;
+    }
+
+    /**
+     * 写入字节数组到文件
+     *
+     * @param filePath 文件路径
+     * @param data 要写入的字节数组
+     * @return
+     */
+    public Batch write(String filePath, byte[] data) {
+        operations.add(new Operation(OperationType.WRITE, filePath, null, data));
+        return this;
+    }
+
+    /**
+     * 复制文件或文件夹
+     *
+     * @param sourcePath 源文件或文件夹的路径
+     * @param destPath 目标文件或文件夹的路径
+     * @return
+     */
+    public Batch copy(String sourcePath, String destPath) {
+        operations.add(new Operation(OperationType.COPY, sourcePath, destPath, null));
+        return this;
+    }
+
+    /**
+     * 移动文件或文件夹
+     *
+     * @param sourcePath 源文件或文件夹的路径
+     * @param destPath 目标文件或文件夹的路径
+     * @return
+     */
+    public Batch move(String sourcePath, String destPath) {
+        operations.add(new Operation(OperationType.MOVE, sourcePath, destPath, null));
+        return this;
+    }
+
+    /**
+     * 删除文件或文件夹
+     *
+     * @param filePath 文件或文件夹的路径
+     * @return
+     */
+    public Batch delete(String filePath) {
+        operations.add(new Operation(OperationType.DELETE, filePath, null, null));
+        return this;
+    }
+
+    /**
+     * 执行所有操作，全部完成后返回
+     * 操作之间互不依赖，执行顺序不确定；调用线程也参与执行，I/O 线程池繁忙时不会死锁
+     *
+     * @return 每个操作的结果和总体耗时
+     */
+    public BatchResult execute() {
+        long start = System.nanoTime();
+        int size = operations.size();
+        BatchResult.OperationResult[] results = new BatchResult.OperationResult[size];
+        AtomicInteger nextIndex = new AtomicInteger();
+
+        BatchAware batchAware = strategy instanceof BatchAware ? (BatchAware) strategy : null;
+        if (batchAware != null) {
+            batchAware.beginBatch();
+        }
+        try {
+            int helpers = Math.min(concurrency, size) - 1;
+            CountDownLatch latch = new CountDownLatch(helpers);
+            for (int i = 0; i < helpers; i++) {
+                try {
+                    IOExecutors.getIOExecutor().execute(() -> {
+                        try {
+                            runOperations(nextIndex, results);
+                        } finally {
+                            latch.countDown();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    latch.countDown();
+                }
+            }
+            runOperations(nextIndex, results);
+            awaitUninterruptibly(latch);
+        } finally {
+            if (batchAware != null) {
+                batchAware.endBatch();
+            }
+        }
+        return new BatchResult(Arrays.asList(results), (System.nanoTime() - start) / 1000000);
+    }
+
+    private void runOperations(AtomicInteger nextIndex, BatchResult.OperationResult[] results) {
+        int index;
+        while ((index = nextIndex.getAndIncrement()) < results.length) {
+            results[index] = run(operations.get(index));
+        }
+    }
+
+    private BatchResult.OperationResult run(Operation operation) {
+        long start = System.nanoTime();
+        boolean success = false;
+        byte[] data = null;
+        IOException error = null;
+        try {
+            switch (operation.type) {
+                case READ:
+                    data = readFully(operation.path);
+                    success = true;
+                    break;
+                case WRITE:
+                    success = strategy.writeFile(operation.path, operation.data);
+                    break;
+                case COPY:
+                    success = strategy.copy(operation.path, operation.destPath);
+                    break;
+                case MOVE:
+                    success = strategy.move(operation.path, operation.destPath);
+                    break;
+                case DELETE:
+                    success = strategy.delete(operation.path);
+                    break;
+            }
+        } catch (IOException e) {
+            error = e;
+        } catch (RuntimeException e) {
+            error = new IOException(e);
+        }
+        return new BatchResult.OperationResult(operation.type, operation.path, operation.destPath,
+                success, data, error, System.nanoTime() - start);
+    }
+
+    /**
+     * 通过输入流读取文件，失败时可以得到具体的异常
+     *
+     * @param filePath
+     * @return
+     * @throws IOException
+     */
+    private byte[] readFully(String filePath) throws IOException {
+        ByteBuffer pooled = BufferPool.acquire(BufferPool.DEFAULT_BUFFER_SIZE);
+        try (InputStream is = strategy.openInputStream(filePath);
+             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+            byte[] buffer = pooled.array();
+            int bytesRead;
+            while ((bytesRead = is.read(buffer)) != -1) {
+                baos.write(buffer, 0, bytesRead);
+            }
+            return baos.toByteArray();
+        } finally {
+            BufferPool.release(pooled);
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class Operation {
+
+        final OperationType type;
+        final String path;
+        final String destPath;
+        final byte[] data;
+
+        Operation(OperationType type, String path, String destPath, byte[] data) {
+            this.type = type;
+            this.path = path;
+            this.destPath = destPath;
+            this.data = data;
+        }
+    }
+}
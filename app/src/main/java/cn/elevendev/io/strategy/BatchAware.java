@@ -0,0 +1,18 @@
+package cn.elevendev.io.strategy;
+
+/**
+ * 支持批量操作共享状态的策略，批量执行期间可以缓存权限检查和已解析的根目录
+ * 批量操作可能嵌套或并发，实现需要按调用次数配对 begin 和 end
+ */
+public interface BatchAware {
+
+    /**
+     * 批量操作开始
+     */
+    void beginBatch();
+
+    /**
+     * 批量操作结束，释放批量期间缓存的状态
+     */
+    void endBatch();
+}
@@ -0,0 +1,182 @@
+package cn.elevendev.io.strategy;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 批量操作的结果，包含每个操作的结果和总体耗时
+ */
+public class BatchResult {
+
+    private final List<OperationResult> results;
+    private final long elapsedMillis;
+
+    public BatchResult(List<OperationResult> results, long elapsedMillis) {
+        this.results = Collections.unmodifiableList(results);
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * 是否全部操作成功
+     *
+     * @return
+     */
+    public boolean isSuccess() {
+        return getFailedCount() == 0;
+    }
+
+    /**
+     * 获取每个操作的结果，顺序与添加顺序一致
+     *
+     * @return
+     */
+    public List<OperationResult> getResults() {
+        return results;
+    }
+
+    /**
+     * 获取成功的操作数量
+     *
+     * @return
+     */
+    public int getSuccessCount() {
+        return results.size() - getFailedCount();
+    }
+
+    /**
+     * 获取失败的操作数量
+     *
+     * @return
+     */
+    public int getFailedCount() {
+        int count = 0;
+        for (OperationResult result : results) {
+            if (!result.isSuccess()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 获取整个批量操作的耗时
+     *
+     * @return 毫秒
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * 获取所有操作耗时之和，与 getElapsedMillis 的比值即实际并发程度
+     *
+     * @return 毫秒
+     */
+    public long getTotalOperationMillis() {
+        long nanos = 0;
+        for (OperationResult result : results) {
+            nanos += result.getElapsedNanos();
+        }
+        return nanos / 1000000;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{operations=" + results.size() + ", failed=" + getFailedCount()
+                + ", elapsed=" + elapsedMillis + "ms, total=" + getTotalOperationMillis() + "ms}";
+    }
+
+    /**
+     * 单个操作的结果
+     */
+    public static class OperationResult {
+
+        private final Batch.OperationType type;
+        private final String path;
+        private final String destPath;
+        private final boolean success;
+        private final byte[] data;
+        private final IOException error;
+        private final long elapsedNanos;
+
+        public OperationResult(Batch.OperationType type, String path, String destPath, boolean success,
+                               byte[] data, IOException error, long elapsedNanos) {
+            this.type = type;
+            this.path = path;
+            this.destPath = destPath;
+            this.success = success;
+            this.data = data;
+            this.error = error;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public Batch.OperationType getType() {
+            return type;
+        }
+
+        /**
+         * 获取操作的路径，复制和移动时为源路径
+         *
+         * @return
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * 获取复制和移动的目标路径
+         *
+         * @return 其他操作返回 null
+         */
+        public String getDestPath() {
+            return destPath;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        /**
+         * 获取读取操作的文件内容
+         *
+         * @return 其他操作或读取失败时返回 null
+         */
+        public byte[] getData() {
+            return data;
+        }
+
+        /**
+         * 获取失败原因
+         *
+         * @return 成功或策略没有提供异常时返回 null
+         */
+        public IOException getError() {
+            return error;
+        }
+
+        /**
+         * 获取耗时
+         *
+         * @return 毫秒
+         */
+        public long getElapsedMillis() {
+            return elapsedNanos / 1000000;
+        }
+
+        /**
+         * 获取耗时
+         *
+         * @return 纳秒
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "OperationResult{" + type + " " + path + (destPath != null ? " -> " + destPath : "")
+                    + ", success=" + success + ", elapsed=" + getElapsedMillis() + "ms}";
+        }
+    }
+}
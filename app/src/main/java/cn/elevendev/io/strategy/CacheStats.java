@@ -0,0 +1,82 @@
+package cn.elevendev.io.strategy;
+
+/**
+ * 缓存在某一时刻的命中统计
+ */
+public class CacheStats {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final int entryCount;
+    private final long size;
+
+    public CacheStats(long hitCount, long missCount, long evictionCount, int entryCount, long size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.entryCount = entryCount;
+        this.size = size;
+    }
+
+    /**
+     * 获取命中次数
+     *
+     * @return
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * 获取未命中次数，包括缓存内容已过期的情况
+     *
+     * @return
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * 获取因超出容量被淘汰的条目数，不包括失效的条目
+     *
+     * @return
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * 获取当前缓存的条目数
+     *
+     * @return
+     */
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * 获取当前缓存的大小，单位由具体缓存决定，例如内容缓存为字节数
+     *
+     * @return
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * 获取命中率
+     *
+     * @return 0 到 1 之间，没有任何请求时返回 0
+     */
+    public double getHitRatio() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d misses=%d hitRatio=%.3f evictions=%d entries=%d size=%d",
+                hitCount, missCount, getHitRatio(), evictionCount, entryCount, size);
+    }
+}
@@ -0,0 +1,515 @@
+package cn.elevendev.io.strategy;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.channels.spi.AbstractInterruptibleChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 缓存装饰器的基类，经由本实例的每个修改操作返回后，调用 invalidate 使受影响的路径失效
+ * 修改操作可能作用于文件夹，子类需要同时使该路径下的所有缓存失效
+ * 通过流、通道或追加写入器写入时在打开和关闭时各失效一次，写入期间读取到的结果可能是旧的
+ */
+public abstract class CachingStrategy extends DelegateStrategy {
+
+    private final AtomicLong generation = new AtomicLong();
+
+    protected CachingStrategy(Strategy strategy) {
+        super(strategy);
+    }
+
+    /**
+     * 使路径及其下的所有缓存失效
+     *
+     * @param path 被修改的文件或文件夹的路径
+     */
+    protected abstract void invalidate(String path);
+
+    /**
+     * 获取失效计数，每次修改操作后递增
+     * 读取前记录，写入缓存前在持有缓存锁时比较，不一致说明读取期间发生了修改，结果不应缓存
+     *
+     * @return
+     */
+    protected long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * 判断路径是否为指定路径本身或位于其下
+     *
+     * @param path 被检查的路径
+     * @param root 文件或文件夹的路径
+     * @return
+     */
+    protected static boolean isSameOrDescendant(String path, String root) {
+        root = trimEnd(root);
+        if (root.endsWith("/")) {
+            return path.startsWith(root);
+        }
+        return path.startsWith(root) && (path.length() == root.length() || path.charAt(root.length()) == '/');
+    }
+
+    /**
+     * 去掉路径末尾的 /，作为缓存的键
+     *
+     * @param path
+     * @return
+     */
+    protected static String trimEnd(String path) {
+        while (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        return path;
+    }
+
+    /**
+     * 递增失效计数后使路径失效
+     *
+     * @param paths
+     */
+    private void invalidatePaths(String... paths) {
+        generation.incrementAndGet();
+        for (String path : paths) {
+            invalidate(path);
+        }
+    }
+
+    /**
+     * 写入字符内容到文件
+     *
+     * @param filePath 文件路径
+     * @param content 要写入的内容
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeFile(String filePath, String content) {
+        try {
+            return strategy.writeFile(filePath, content);
+        } finally {
+            invalidatePaths(filePath);
+        }
+    }
+
+    /**
+     * 写入字节数组到文件
+     *
+     * @param filePath 文件路径
+     * @param data 要写入的字节数组
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeFile(String filePath, byte[] data) {
+        try {
+            return strategy.writeFile(filePath, data);
+        } finally {
+            invalidatePaths(filePath);
+        }
+    }
+
+    /**
+     * 按指定模式写入字符内容到文件
+     *
+     * @param filePath 文件路径
+     * @param content 要写入的内容
+     * @param mode 写入模式，DURABLE 在返回前保证数据已同步到磁盘
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeFile(String filePath, String content, WriteMode mode) {
+        try {
+            return strategy.writeFile(filePath, content, mode);
+        } finally {
+            invalidatePaths(filePath);
+        }
+    }
+
+    /**
+     * 按指定模式写入字节数组到文件
+     *
+     * @param filePath 文件路径
+     * @param data 要写入的字节数组
+     * @param mode 写入模式，DURABLE 在返回前保证数据已同步到磁盘
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeFile(String filePath, byte[] data, WriteMode mode) {
+        try {
+            return strategy.writeFile(filePath, data, mode);
+        } finally {
+            invalidatePaths(filePath);
+        }
+    }
+
+    /**
+     * 从指定位置写入数据，覆盖该范围内的原有内容，不截断文件，文件不存在时创建
+     *
+     * @param filePath 文件路径
+     * @param offset 起始位置，超过文件末尾时中间以 0 填充
+     * @param data 要写入的数据
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeRange(String filePath, long offset, byte[] data) {
+        try {
+            return strategy.writeRange(filePath, offset, data);
+        } finally {
+            invalidatePaths(filePath);
+        }
+    }
+
+    /**
+     * 打开文件输出流，用于流式写入大文件
+     *
+     * @param filePath 文件路径
+     * @param append 如果为 true 追加到文件末尾，如果为 false 清空文件后写入
+     * @return 输出流，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public OutputStream openOutputStream(String filePath, boolean append) throws IOException {
+        try {
+            OutputStream out = strategy.openOutputStream(filePath, append);
+            return out == null ? null : new InvalidatingOutputStream(out, filePath);
+        } finally {
+            invalidatePaths(filePath);
+        }
+    }
+
+    /**
+     * 打开文件写入通道
+     *
+     * @param filePath 文件路径
+     * @param append 如果为 true 追加到文件末尾，如果为 false 清空文件后写入
+     * @return 写入通道，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public WritableByteChannel openWritableChannel(String filePath, boolean append) throws IOException {
+        try {
+            WritableByteChannel channel = strategy.openWritableChannel(filePath, append);
+            if (channel == null) {
+                return null;
+            }
+            // 保留 FileChannel 类型，调用方仍可按位置写入或使用 transferFrom
+            return channel instanceof FileChannel
+                    ? new InvalidatingFileChannel((FileChannel) channel, filePath)
+                    : new InvalidatingChannel(channel, filePath);
+        } finally {
+            invalidatePaths(filePath);
+        }
+    }
+
+    /**
+     * 追加字节数组到文件末尾，数据先进入共享缓冲区，最迟在刷新间隔后写入文件
+     *
+     * @param filePath 文件路径
+     * @param data 要追加的数据
+     * @return 是否写入缓冲区成功
+     */
+    @Override
+    public boolean append(String filePath, byte[] data) {
+        try {
+            return strategy.append(filePath, data);
+        } finally {
+            invalidatePaths(filePath);
+        }
+    }
+
+    /**
+     * 打开追加写入器，同一路径的写入器共享一个打开的输出流，适用于频繁追加小块数据
+     *
+     * @param filePath 文件路径
+     * @return 写入器，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public Appender openAppender(String filePath) throws IOException {
+        try {
+            Appender appender = strategy.openAppender(filePath);
+            if (appender != null) {
+                appender.addCloseAction(() -> invalidatePaths(filePath));
+            }
+            return appender;
+        } finally {
+            invalidatePaths(filePath);
+        }
+    }
+
+    /**
+     * 删除文件或文件夹
+     *
+     * @param filePath 文件或文件夹的路径
+     * @return 是否删除成功
+     */
+    @Override
+    public boolean delete(String filePath) {
+        try {
+            return strategy.delete(filePath);
+        } finally {
+            invalidatePaths(filePath);
+        }
+    }
+
+    /**
+     * 删除文件或文件夹，并返回统计结果
+     *
+     * @param filePath 文件或文件夹的路径
+     * @param parallel 是否将文件夹内的条目分发到线程池并行删除
+     * @return 删除结果
+     */
+    @Override
+    public DeleteResult delete(String filePath, boolean parallel) {
+        try {
+            return strategy.delete(filePath, parallel);
+        } finally {
+            invalidatePaths(filePath);
+        }
+    }
+
+    /**
+     * 复制文件或文件夹
+     *
+     * @param sourcePath 源文件或文件夹的路径
+     * @param destPath 目标文件或文件夹的路径
+     * @return 是否复制成功
+     */
+    @Override
+    public boolean copy(String sourcePath, String destPath) {
+        try {
+            return strategy.copy(sourcePath, destPath);
+        } finally {
+            invalidatePaths(destPath);
+        }
+    }
+
+    /**
+     * 移动文件或文件夹
+     *
+     * @param sourcePath 源文件或文件夹的路径
+     * @param destPath 目标文件或文件夹的路径
+     * @return 是否移动成功
+     */
+    @Override
+    public boolean move(String sourcePath, String destPath) {
+        try {
+            return strategy.move(sourcePath, destPath);
+        } finally {
+            invalidatePaths(sourcePath, destPath);
+        }
+    }
+
+    /**
+     * 移动文件或文件夹，同一存储卷内优先直接重命名
+     *
+     * @param sourcePath 源文件或文件夹的路径
+     * @param destPath 目标文件或文件夹的路径
+     * @return 实际采用的移动方式
+     */
+    @Override
+    public MoveResult moveWithResult(String sourcePath, String destPath) {
+        try {
+            return strategy.moveWithResult(sourcePath, destPath);
+        } finally {
+            invalidatePaths(sourcePath, destPath);
+        }
+    }
+
+    /**
+     * 增量复制文件，按块比较源文件与已有的目标文件，只写入内容不同的块，适用于只有少量改动的大文件
+     *
+     * @param sourcePath 源文件的路径
+     * @param destPath 目标文件的路径，不存在时等同于完整复制
+     * @return 复制结果，失败时返回 null
+     */
+    @Override
+    public DeltaCopyResult copyDelta(String sourcePath, String destPath) {
+        try {
+            return strategy.copyDelta(sourcePath, destPath);
+        } finally {
+            invalidatePaths(destPath);
+        }
+    }
+
+    /**
+     * 创建目录
+     *
+     * @param dirPath 目录的路径
+     * @return 是否创建成功
+     */
+    @Override
+    public boolean createDirectory(String dirPath) {
+        try {
+            return strategy.createDirectory(dirPath);
+        } finally {
+            invalidatePaths(dirPath);
+        }
+    }
+
+    /**
+     * 关闭时使路径失效的输出流
+     */
+    private class InvalidatingOutputStream extends FilterOutputStream {
+
+        private final String path;
+
+        InvalidatingOutputStream(OutputStream out, String path) {
+            super(out);
+            this.path = path;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                invalidatePaths(path);
+            }
+        }
+    }
+
+    /**
+     * 关闭时使路径失效的通道
+     */
+    private class InvalidatingChannel extends AbstractInterruptibleChannel implements WritableByteChannel {
+
+        private final WritableByteChannel channel;
+        private final String path;
+
+        InvalidatingChannel(WritableByteChannel channel, String path) {
+            this.channel = channel;
+            this.path = path;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return channel.write(src);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            try {
+                channel.close();
+            } finally {
+                invalidatePaths(path);
+            }
+        }
+    }
+
+    /**
+     * 关闭时使路径失效的文件通道
+     */
+    private class InvalidatingFileChannel extends FileChannel {
+
+        private final FileChannel channel;
+        private final String path;
+
+        InvalidatingFileChannel(FileChannel channel, String path) {
+            this.channel = channel;
+            this.path = path;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return channel.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return channel.read(dsts, offset, length);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return channel.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return channel.write(src);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return channel.write(srcs, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return channel.write(src, position);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return channel.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return channel.transferFrom(src, position, count);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return channel.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            channel.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return channel.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            channel.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            channel.force(metaData);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return channel.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return channel.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return channel.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            try {
+                channel.close();
+            } finally {
+                invalidatePaths(path);
+            }
+        }
+    }
+}
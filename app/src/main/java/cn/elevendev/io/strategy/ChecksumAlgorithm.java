@@ -0,0 +1,19 @@
+package cn.elevendev.io.strategy;
+
+public enum ChecksumAlgorithm {
+    
+    /**
+     * CRC-32C，结果为 8 位十六进制，适合检测传输和存储错误
+     */
+    CRC32C,
+    
+    /**
+     * SHA-256，结果为 64 位十六进制，适合校验来源不可信的文件
+     */
+    SHA256,
+    
+    /**
+     * xxHash64，结果为 16 位十六进制，速度最快，适合判断文件是否变化
+     */
+    XXH64;
+}
@@ -0,0 +1,257 @@
+package cn.elevendev.io.strategy;
+
+import cn.elevendev.io.utils.BufferPool;
+import cn.elevendev.io.utils.CRC32C;
+import cn.elevendev.io.utils.ParallelRunner;
+import cn.elevendev.io.utils.XXHash64;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Checksum;
+
+/**
+ * 从读取通道流式计算校验和，使用缓冲区池中的缓冲区，内存占用与文件大小无关
+ * 树形模式按 TREE_CHUNK_SIZE 分块计算校验和，再对各块的校验和按顺序计算一次作为结果，
+ * 通道为 FileChannel 时各块由多个线程按位置并行读取，否则顺序读取，两种方式结果相同
+ */
+public class Checksums {
+
+    /**
+     * 树形模式的分块大小，改变后结果也会改变
+     */
+    public static final int TREE_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * 计算通道中全部数据的校验和
+     *
+     * @param channel 读取通道，不会被关闭
+     * @param algorithm 校验算法
+     * @return 小写十六进制字符串
+     * @throws IOException
+     */
+    public static String compute(ReadableByteChannel channel, ChecksumAlgorithm algorithm) throws IOException {
+        Hasher hasher = newHasher(algorithm);
+        ByteBuffer buffer = BufferPool.acquire(BufferPool.DEFAULT_BUFFER_SIZE);
+        try {
+            while (channel.read(buffer) != -1) {
+                hasher.update(buffer.array(), buffer.arrayOffset(), buffer.position());
+                buffer.clear();
+            }
+        } finally {
+            BufferPool.release(buffer);
+        }
+        return toHex(hasher.digest());
+    }
+
+    /**
+     * 以树形模式计算通道中全部数据的校验和
+     *
+     * @param channel 读取通道，不会被关闭
+     * @param algorithm 校验算法
+     * @return 小写十六进制字符串，与 compute 的结果不同
+     * @throws IOException
+     */
+    public static String computeTree(ReadableByteChannel channel, ChecksumAlgorithm algorithm) throws IOException {
+        List<byte[]> leaves = channel instanceof FileChannel
+                ? hashChunksParallel((FileChannel) channel, algorithm)
+                : hashChunksSequential(channel, algorithm);
+        Hasher root = newHasher(algorithm);
+        for (byte[] leaf : leaves) {
+            root.update(leaf, 0, leaf.length);
+        }
+        return toHex(root.digest());
+    }
+
+    /**
+     * 按位置并行读取各块
+     *
+     * @param channel
+     * @param algorithm
+     * @return 按顺序排列的各块校验和，空文件有一个空块
+     * @throws IOException
+     */
+    private static List<byte[]> hashChunksParallel(FileChannel channel, ChecksumAlgorithm algorithm) throws IOException {
+        long size = channel.size();
+        int count = (int) Math.max(1, (size + TREE_CHUNK_SIZE - 1) / TREE_CHUNK_SIZE);
+        byte[][] leaves = new byte[count][];
+        List<Integer> indexes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            indexes.add(i);
+        }
+        ParallelRunner.runAll(indexes, index -> {
+            long start = (long) index * TREE_CHUNK_SIZE;
+            leaves[index] = hashRange(channel, start, Math.min(TREE_CHUNK_SIZE, size - start), algorithm);
+        });
+        List<byte[]> result = new ArrayList<>(count);
+        for (byte[] leaf : leaves) {
+            result.add(leaf);
+        }
+        return result;
+    }
+
+    /**
+     * 顺序读取并在块边界处切分
+     *
+     * @param channel
+     * @param algorithm
+     * @return 按顺序排列的各块校验和，空文件有一个空块
+     * @throws IOException
+     */
+    private static List<byte[]> hashChunksSequential(ReadableByteChannel channel, ChecksumAlgorithm algorithm) throws IOException {
+        List<byte[]> leaves = new ArrayList<>();
+        Hasher hasher = newHasher(algorithm);
+        int chunkLength = 0;
+        ByteBuffer buffer = BufferPool.acquire(BufferPool.DEFAULT_BUFFER_SIZE);
+        try {
+            while (channel.read(buffer) != -1) {
+                byte[] array = buffer.array();
+                int offset = buffer.arrayOffset();
+                int remaining = buffer.position();
+                while (remaining > 0) {
+                    int length = Math.min(remaining, TREE_CHUNK_SIZE - chunkLength);
+                    hasher.update(array, offset, length);
+                    offset += length;
+                    remaining -= length;
+                    chunkLength += length;
+                    if (chunkLength == TREE_CHUNK_SIZE) {
+                        leaves.add(hasher.digest());
+                        hasher = newHasher(algorithm);
+                        chunkLength = 0;
+                    }
+                }
+                buffer.clear();
+            }
+        } finally {
+            BufferPool.release(buffer);
+        }
+        if (chunkLength > 0 || leaves.isEmpty()) {
+            leaves.add(hasher.digest());
+        }
+        return leaves;
+    }
+
+    /**
+     * 按位置读取文件的一段并计算校验和，不改变通道的位置
+     *
+     * @param channel
+     * @param start 起始位置
+     * @param length 字节数
+     * @param algorithm
+     * @return
+     * @throws IOException 文件在读取期间变短
+     */
+    static byte[] hashRange(FileChannel channel, long start, long length, ChecksumAlgorithm algorithm) throws IOException {
+        Hasher hasher = newHasher(algorithm);
+        ByteBuffer buffer = BufferPool.acquire(BufferPool.DEFAULT_BUFFER_SIZE);
+        try {
+            long position = start;
+            long end = start + length;
+            while (position < end) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), end - position));
+                int read = channel.read(buffer, position);
+                if (read == -1) {
+                    throw new IOException("文件在读取期间被截断");
+                }
+                hasher.update(buffer.array(), buffer.arrayOffset(), read);
+                position += read;
+            }
+        } finally {
+            BufferPool.release(buffer);
+        }
+        return hasher.digest();
+    }
+
+    static Hasher newHasher(ChecksumAlgorithm algorithm) {
+        switch (algorithm) {
+            case CRC32C:
+                return new ChecksumHasher(new CRC32C(), 4);
+            case XXH64:
+                return new ChecksumHasher(new XXHash64(), 8);
+            case SHA256:
+                try {
+                    return new DigestHasher(MessageDigest.getInstance("SHA-256"));
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalStateException(e);
+                }
+            default:
+                throw new IllegalArgumentException("不支持的校验算法: " + algorithm);
+        }
+    }
+
+    static String toHex(byte[] bytes) {
+        char[] digits = "0123456789abcdef".toCharArray();
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = digits[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = digits[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 统一 Checksum 和 MessageDigest 的接口
+     */
+    interface Hasher {
+
+        void update(byte[] b, int off, int len);
+
+        /**
+         * 获取结果，之后不能再使用
+         *
+         * @return 大端序的校验和
+         */
+        byte[] digest();
+    }
+
+    private static class ChecksumHasher implements Hasher {
+
+        private final Checksum checksum;
+        private final int length;
+
+        ChecksumHasher(Checksum checksum, int length) {
+            this.checksum = checksum;
+            this.length = length;
+        }
+
+        @Override
+        public void update(byte[] b, int off, int len) {
+            checksum.update(b, off, len);
+        }
+
+        @Override
+        public byte[] digest() {
+            long value = checksum.getValue();
+            byte[] result = new byte[length];
+            for (int i = length - 1; i >= 0; i--) {
+                result[i] = (byte) value;
+                value >>>= 8;
+            }
+            return result;
+        }
+    }
+
+    private static class DigestHasher implements Hasher {
+
+        private final MessageDigest digest;
+
+        DigestHasher(MessageDigest digest) {
+            this.digest = digest;
+        }
+
+        @Override
+        public void update(byte[] b, int off, int len) {
+            digest.update(b, off, len);
+        }
+
+        @Override
+        public byte[] digest() {
+            return digest.digest();
+        }
+    }
+}
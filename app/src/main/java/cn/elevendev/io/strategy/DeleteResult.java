@@ -0,0 +1,70 @@
+package cn.elevendev.io.strategy;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 删除操作的统计结果
+ */
+public class DeleteResult {
+    
+    private final int deletedCount;
+    private final List<String> failedPaths;
+    private final long elapsedMillis;
+    
+    public DeleteResult(int deletedCount, List<String> failedPaths, long elapsedMillis) {
+        this.deletedCount = deletedCount;
+        this.failedPaths = Collections.unmodifiableList(failedPaths);
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    /**
+     * 是否全部删除成功
+     *
+     * @return
+     */
+    public boolean isSuccess() {
+        return failedPaths.isEmpty();
+    }
+    
+    /**
+     * 获取已删除的文件和文件夹数量
+     *
+     * @return
+     */
+    public int getDeletedCount() {
+        return deletedCount;
+    }
+    
+    /**
+     * 获取删除失败的数量
+     *
+     * @return
+     */
+    public int getFailedCount() {
+        return failedPaths.size();
+    }
+    
+    /**
+     * 获取删除失败的路径，按路径排序
+     *
+     * @return
+     */
+    public List<String> getFailedPaths() {
+        return failedPaths;
+    }
+    
+    /**
+     * 获取耗时
+     *
+     * @return 毫秒
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    @Override
+    public String toString() {
+        return "DeleteResult{deleted=" + deletedCount + ", failed=" + failedPaths.size() + ", elapsed=" + elapsedMillis + "ms}";
+    }
+}
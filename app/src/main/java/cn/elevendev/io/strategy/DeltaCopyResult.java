@@ -0,0 +1,47 @@
+package cn.elevendev.io.strategy;
+
+/**
+ * 增量复制文件的结果
+ */
+public class DeltaCopyResult {
+
+    private final long totalBytes;
+    private final long bytesWritten;
+
+    public DeltaCopyResult(long totalBytes, long bytesWritten) {
+        this.totalBytes = totalBytes;
+        this.bytesWritten = bytesWritten;
+    }
+
+    /**
+     * 获取源文件的大小
+     *
+     * @return
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * 获取实际写入目标文件的字节数
+     *
+     * @return
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * 获取内容相同而没有写入的字节数
+     *
+     * @return
+     */
+    public long getBytesSaved() {
+        return totalBytes - bytesWritten;
+    }
+
+    @Override
+    public String toString() {
+        return "DeltaCopyResult{total=" + totalBytes + ", written=" + bytesWritten + ", saved=" + getBytesSaved() + "}";
+    }
+}
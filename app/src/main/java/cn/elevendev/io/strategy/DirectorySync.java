@@ -0,0 +1,373 @@
+package cn.elevendev.io.strategy;
+
+import cn.elevendev.io.utils.ParallelRunner;
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 增量同步目录，只复制新增或变化的文件，可选删除目标文件夹中多余的内容
+ * 同步后在目标文件夹中保存清单，记录每个文件复制时源文件的大小和修改时间，
+ * 下次同步时与清单一致的文件不再检查目标文件，没有清单时遍历目标文件夹比较
+ * 遍历源文件夹出错时不做任何修改；符号链接不同步
+ */
+public class DirectorySync {
+
+    /**
+     * 清单的文件名，保存在目标文件夹中，不参与同步
+     */
+    public static final String MANIFEST_NAME = ".ioutils-sync";
+
+    private static final String MANIFEST_HEADER = "IOUtils-Sync 1";
+
+    private final Strategy strategy;
+
+    public DirectorySync(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * 把源文件夹同步到目标文件夹
+     *
+     * @param sourcePath 源文件夹的路径
+     * @param destPath 目标文件夹的路径，不存在时创建
+     * @param options 同步选项
+     * @return 同步结果，单个文件复制或删除失败不会中断同步
+     * @throws IOException 源文件夹不存在或遍历失败
+     */
+    public SyncResult sync(String sourcePath, String destPath, SyncOptions options) throws IOException {
+        long start = System.nanoTime();
+        String sourceRoot = trimEnd(sourcePath);
+        String destRoot = trimEnd(destPath);
+        FileEntry sourceStat = strategy.stat(sourceRoot);
+        if (sourceStat == null || !sourceStat.isDirectory()) {
+            throw new IOException("源文件夹不存在: " + sourcePath);
+        }
+
+        Map<String, FileEntry> sourceFiles = new TreeMap<>();
+        Set<String> sourceDirs = new TreeSet<>();
+        collect(sourceRoot, "", sourceFiles, sourceDirs);
+
+        Map<String, ManifestEntry> manifest = options.isUseManifest() ? readManifest(destRoot, sourceRoot) : null;
+        Map<String, FileEntry> destFiles = null;
+        Set<String> destDirs = null;
+        // 清单存放在目标文件夹中，能读取到时目标文件夹一定存在
+        boolean destRootExists = manifest != null;
+        if (manifest == null || options.isDeleteExtraneous()) {
+            destFiles = new TreeMap<>();
+            destDirs = new TreeSet<>();
+            FileEntry destStat = strategy.stat(destRoot);
+            destRootExists = destStat != null && destStat.isDirectory();
+            if (destRootExists) {
+                collect(destRoot, "", destFiles, destDirs);
+            }
+        }
+        if (manifest == null) {
+            manifest = new HashMap<>();
+        }
+
+        List<String> failedPaths = Collections.synchronizedList(new ArrayList<>());
+        int deletedCount = 0;
+        if (options.isDeleteExtraneous()) {
+            deletedCount = deleteExtraneous(destRoot, sourceFiles, sourceDirs, destFiles, destDirs, failedPaths);
+        }
+
+        Map<String, ManifestEntry> newManifest = new TreeMap<>();
+        Map<String, String> sourceHashes = new HashMap<>();
+        List<String> pending = new ArrayList<>();
+        int skippedCount = 0;
+        for (Map.Entry<String, FileEntry> item : sourceFiles.entrySet()) {
+            String relativePath = item.getKey();
+            FileEntry source = item.getValue();
+            ManifestEntry recorded = manifest.get(relativePath);
+            boolean destKnown = destFiles == null || destFiles.containsKey(relativePath);
+            if (recorded != null && destKnown && recorded.size == source.getSize() && recorded.lastModified == source.getLastModified()) {
+                newManifest.put(relativePath, recorded);
+                skippedCount++;
+                continue;
+            }
+
+            FileEntry dest = destFiles != null ? destFiles.get(relativePath) : strategy.stat(destRoot + "/" + relativePath);
+            if (dest != null && dest.isFile() && dest.getSize() == source.getSize()) {
+                if (options.isCompareContent()) {
+                    String sourceHash = hash(sourceRoot + "/" + relativePath);
+                    String destHash = recorded != null && recorded.hash != null ? recorded.hash : hash(destRoot + "/" + relativePath);
+                    if (sourceHash != null && sourceHash.equals(destHash)) {
+                        newManifest.put(relativePath, new ManifestEntry(source.getSize(), source.getLastModified(), sourceHash));
+                        skippedCount++;
+                        continue;
+                    }
+                    sourceHashes.put(relativePath, sourceHash);
+                } else if (recorded == null && dest.getLastModified() >= source.getLastModified()) {
+                    // 只在没有同步记录时按修改时间推断；有记录而源文件的大小或修改时间变化时，
+                    // 即使被换成更旧的同样大小的版本也一定需要复制
+                    newManifest.put(relativePath, new ManifestEntry(source.getSize(), source.getLastModified(), null));
+                    skippedCount++;
+                    continue;
+                }
+            }
+            pending.add(relativePath);
+        }
+
+        // 不是所有策略的 copy 都会创建上级目录，复制前为变化的文件创建一次
+        Set<String> parents = new TreeSet<>();
+        for (String relativePath : pending) {
+            int index = relativePath.lastIndexOf('/');
+            parents.add(index < 0 ? "" : relativePath.substring(0, index));
+        }
+        Set<String> failedParents = new HashSet<>();
+        for (String parent : parents) {
+            String path = parent.isEmpty() ? destRoot : destRoot + "/" + parent;
+            boolean exists = parent.isEmpty() ? destRootExists : destDirs != null && destDirs.contains(parent);
+            if (!exists && !strategy.createDirectory(path)) {
+                failedParents.add(parent);
+            }
+        }
+
+        AtomicInteger copiedCount = new AtomicInteger();
+        AtomicLong bytesCopied = new AtomicLong();
+        ParallelRunner.runAll(pending, relativePath -> {
+            FileEntry source = sourceFiles.get(relativePath);
+            int index = relativePath.lastIndexOf('/');
+            if (failedParents.contains(index < 0 ? "" : relativePath.substring(0, index))
+                    || !strategy.copy(sourceRoot + "/" + relativePath, destRoot + "/" + relativePath)) {
+                failedPaths.add(relativePath);
+                return;
+            }
+            copiedCount.incrementAndGet();
+            bytesCopied.addAndGet(source.getSize());
+            synchronized (newManifest) {
+                newManifest.put(relativePath, new ManifestEntry(source.getSize(), source.getLastModified(), sourceHashes.get(relativePath)));
+            }
+        });
+
+        createEmptyDirectories(destRoot, sourceFiles, sourceDirs, destDirs, manifest, newManifest, failedPaths);
+
+        if (options.isUseManifest()) {
+            writeManifest(destRoot, sourceRoot, newManifest);
+        }
+        return new SyncResult(copiedCount.get(), skippedCount, deletedCount, new ArrayList<>(failedPaths),
+                bytesCopied.get(), (System.nanoTime() - start) / 1000000);
+    }
+
+    /**
+     * 递归遍历目录，目录出错时抛出异常而不是返回不完整的结果
+     *
+     * @param root 根目录的路径
+     * @param prefix 当前目录相对于根目录的路径，根目录为空字符串
+     * @param files 相对路径到文件的映射
+     * @param dirs 子目录的相对路径
+     * @throws IOException
+     */
+    private void collect(String root, String prefix, Map<String, FileEntry> files, Set<String> dirs) throws IOException {
+        List<String> children = new ArrayList<>();
+        try (FileEntryIterator iterator = strategy.iterate(prefix.isEmpty() ? root : root + "/" + prefix)) {
+            FileEntry entry;
+            while ((entry = iterator.nextEntry()) != null) {
+                if (prefix.isEmpty() && MANIFEST_NAME.equals(entry.getName())) {
+                    continue;
+                }
+                String relativePath = prefix.isEmpty() ? entry.getName() : prefix + "/" + entry.getName();
+                if (entry.isDirectory()) {
+                    dirs.add(relativePath);
+                    children.add(relativePath);
+                } else if (entry.isFile()) {
+                    files.put(relativePath, entry);
+                }
+            }
+        }
+        // 关闭当前目录后再进入子目录，同时打开的目录数不超过一个
+        for (String child : children) {
+            collect(root, child, files, dirs);
+        }
+    }
+
+    /**
+     * 删除目标文件夹中源文件夹没有的内容，类型不同的同名条目也会被删除
+     *
+     * @return 删除的条目数
+     */
+    private int deleteExtraneous(String destRoot, Map<String, FileEntry> sourceFiles, Set<String> sourceDirs,
+                                 Map<String, FileEntry> destFiles, Set<String> destDirs, List<String> failedPaths) {
+        int deletedCount = 0;
+        Set<String> deletedDirs = new HashSet<>();
+        for (String relativePath : destDirs) {
+            if (sourceDirs.contains(relativePath) || hasAncestor(relativePath, deletedDirs)) {
+                continue;
+            }
+            if (strategy.delete(destRoot + "/" + relativePath)) {
+                deletedDirs.add(relativePath);
+                deletedCount++;
+            } else {
+                failedPaths.add(relativePath);
+            }
+        }
+        for (String relativePath : new ArrayList<>(destFiles.keySet())) {
+            if (hasAncestor(relativePath, deletedDirs)) {
+                destFiles.remove(relativePath);
+                continue;
+            }
+            if (sourceFiles.containsKey(relativePath)) {
+                continue;
+            }
+            if (strategy.delete(destRoot + "/" + relativePath)) {
+                destFiles.remove(relativePath);
+                deletedCount++;
+            } else {
+                failedPaths.add(relativePath);
+            }
+        }
+        destDirs.removeAll(deletedDirs);
+        return deletedCount;
+    }
+
+    /**
+     * 创建没有任何文件的源目录，其他目录在复制文件时创建
+     */
+    private void createEmptyDirectories(String destRoot, Map<String, FileEntry> sourceFiles, Set<String> sourceDirs,
+                                        Set<String> destDirs, Map<String, ManifestEntry> manifest,
+                                        Map<String, ManifestEntry> newManifest, List<String> failedPaths) {
+        Set<String> parents = new HashSet<>();
+        for (String relativePath : sourceFiles.keySet()) {
+            addParents(relativePath, parents);
+        }
+        for (String relativePath : sourceDirs) {
+            addParents(relativePath, parents);
+        }
+        for (String relativePath : sourceDirs) {
+            if (parents.contains(relativePath)) {
+                continue;
+            }
+            String key = relativePath + "/";
+            boolean exists = destDirs != null ? destDirs.contains(relativePath) : manifest.containsKey(key);
+            if (exists || strategy.createDirectory(destRoot + "/" + relativePath)) {
+                newManifest.put(key, new ManifestEntry(0, 0, null));
+            } else {
+                failedPaths.add(relativePath);
+            }
+        }
+    }
+
+    /**
+     * 读取清单，清单不存在、已损坏或属于其他源文件夹时返回 null
+     *
+     * @param destRoot
+     * @param sourceRoot
+     * @return 相对路径到清单条目的映射，目录以 / 结尾
+     */
+    private Map<String, ManifestEntry> readManifest(String destRoot, String sourceRoot) {
+        String manifestPath = destRoot + "/" + MANIFEST_NAME;
+        if (!strategy.exists(manifestPath)) {
+            return null;
+        }
+        Map<String, ManifestEntry> entries = new HashMap<>();
+        try (LineIterator lines = strategy.readLines(manifestPath)) {
+            if (!MANIFEST_HEADER.equals(lines.nextLine()) || !sourceRoot.equals(lines.nextLine())) {
+                return null;
+            }
+            String line;
+            while ((line = lines.nextLine()) != null) {
+                int hashIndex = line.lastIndexOf('\t');
+                int modifiedIndex = line.lastIndexOf('\t', hashIndex - 1);
+                int sizeIndex = line.lastIndexOf('\t', modifiedIndex - 1);
+                if (sizeIndex <= 0) {
+                    return null;
+                }
+                String hash = line.substring(hashIndex + 1);
+                entries.put(line.substring(0, sizeIndex), new ManifestEntry(
+                        Long.parseLong(line.substring(sizeIndex + 1, modifiedIndex)),
+                        Long.parseLong(line.substring(modifiedIndex + 1, hashIndex)),
+                        hash.equals("-") ? null : hash));
+            }
+        } catch (IOException | NumberFormatException e) {
+            e.printStackTrace();
+            return null;
+        }
+        return entries;
+    }
+
+    /**
+     * 写入清单，写入失败时下次同步按目标文件比较
+     *
+     * @param destRoot
+     * @param sourceRoot
+     * @param entries
+     */
+    private void writeManifest(String destRoot, String sourceRoot, Map<String, ManifestEntry> entries) {
+        StringBuilder sb = new StringBuilder(MANIFEST_HEADER).append('\n').append(sourceRoot).append('\n');
+        for (Map.Entry<String, ManifestEntry> item : entries.entrySet()) {
+            if (item.getKey().indexOf('\n') >= 0) {
+                continue;
+            }
+            ManifestEntry entry = item.getValue();
+            sb.append(item.getKey()).append('\t').append(entry.size).append('\t').append(entry.lastModified)
+                    .append('\t').append(entry.hash != null ? entry.hash : "-").append('\n');
+        }
+        strategy.writeFile(destRoot + "/" + MANIFEST_NAME, sb.toString(), WriteMode.DURABLE);
+    }
+
+    /**
+     * 计算文件内容的 xxHash64
+     *
+     * @param path
+     * @return 失败时返回 null
+     */
+    private String hash(String path) {
+        try (ReadableByteChannel channel = strategy.openReadableChannel(path)) {
+            return Checksums.compute(channel, ChecksumAlgorithm.XXH64);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    private static boolean hasAncestor(String relativePath, Set<String> dirs) {
+        for (int index = relativePath.lastIndexOf('/'); index > 0; index = relativePath.lastIndexOf('/', index - 1)) {
+            if (dirs.contains(relativePath.substring(0, index))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void addParents(String relativePath, Set<String> parents) {
+        for (int index = relativePath.lastIndexOf('/'); index > 0; index = relativePath.lastIndexOf('/', index - 1)) {
+            if (!parents.add(relativePath.substring(0, index))) {
+                return;
+            }
+        }
+    }
+
+    private static String trimEnd(String path) {
+        while (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        return path;
+    }
+
+    /**
+     * 清单中的一条记录，size 和 lastModified 为复制时源文件的属性，hash 为其内容的 xxHash64
+     */
+    private static class ManifestEntry {
+
+        final long size;
+        final long lastModified;
+        final String hash;
+
+        ManifestEntry(long size, long lastModified, String hash) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+    }
+}
@@ -1,41 +1,71 @@
 package cn.elevendev.io.strategy;
 
 import android.app.Activity;
+import android.content.ContentResolver;
 import android.content.Context;
 import android.content.Intent;
 import android.content.UriPermission;
+import android.database.Cursor;
 import android.net.Uri;
 import android.os.Build;
 import android.os.Environment;
+import android.os.ParcelFileDescriptor;
 import android.provider.DocumentsContract;
 import androidx.documentfile.provider.DocumentFile;
 import cn.elevendev.io.IOUtils;
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
+import cn.elevendev.io.utils.BufferPool;
+import cn.elevendev.io.utils.ChannelUtil;
+import cn.elevendev.io.utils.ParallelRunner;
 import cn.elevendev.io.utils.PermissionUtil;
+import cn.elevendev.io.utils.Tracer;
 
-public class DocumentStrategy implements Strategy {
+public class DocumentStrategy implements Strategy, BatchAware {
     public static final int REQUEST_CODE_DOCUMENT = 10013;
     private static final int DIR_AD_LENGTH;
     private static final boolean IS_SDK_32, IS_SDK_34;
     private static final String DIR;
     private static final String ANDROID_DATA;
     private static Strategy strategy;
+    private static final String[] CHILD_PROJECTION = {
+        DocumentsContract.Document.COLUMN_DOCUMENT_ID,
+        DocumentsContract.Document.COLUMN_DISPLAY_NAME,
+        DocumentsContract.Document.COLUMN_MIME_TYPE,
+        DocumentsContract.Document.COLUMN_SIZE,
+        DocumentsContract.Document.COLUMN_LAST_MODIFIED
+    };
+    private static final int COLUMN_DOCUMENT_ID = 0;
+    private static final int COLUMN_DISPLAY_NAME = 1;
+    private static final int COLUMN_MIME_TYPE = 2;
+    private static final int COLUMN_SIZE = 3;
+    private static final int COLUMN_LAST_MODIFIED = 4;
+    private final AppenderPool appenders = new AppenderPool(this);
+    private volatile BatchState batchState;
+    private int batchDepth;
     private Activity activity;
 
     static {
@@ -65,6 +95,7 @@ public class DocumentStrategy implements Strategy {
      */
     @Override
     public String readFile(String filePath) {
+        appenders.flush(filePath);
         if (isType(filePath)) {
             return strategy.readFile(filePath);
         }
@@ -76,6 +107,7 @@ public class DocumentStrategy implements Strategy {
         DocumentFile df = getFile(filePath, false);
         if (df != null) {
             try (InputStream is = activity.getContentResolver().openInputStream(df.getUri());
+                 Tracer.Span span = Tracer.begin("DocumentStrategy.transfer");
                  BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
 
                 StringBuilder stringBuilder = new StringBuilder();
@@ -93,6 +125,40 @@ public class DocumentStrategy implements Strategy {
         return null;
     }
 
+    /**
+     * 逐行读取文件，按需读取，不会一次性加载整个文件
+     *
+     * @param filePath 文件路径
+     * @return 行迭代器，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public LineIterator readLines(String filePath) throws IOException {
+        appenders.flush(filePath);
+        return new LineIterator(openInputStream(filePath));
+    }
+
+    /**
+     * 逐行读取文件并回调每一行，内存占用与文件大小无关
+     *
+     * @param filePath 文件路径
+     * @param callback 行回调
+     * @return 是否读取成功
+     */
+    @Override
+    public boolean forEachLine(String filePath, LineCallback callback) {
+        try (LineIterator lines = readLines(filePath)) {
+            String line;
+            while ((line = lines.nextLine()) != null) {
+                callback.onLine(line);
+            }
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
     /**
      * 读取文件内容，返回字节数组
      *
@@ -101,6 +167,7 @@ public class DocumentStrategy implements Strategy {
      */
     @Override
     public byte[] readFileAsBytes(String filePath) {
+        appenders.flush(filePath);
         if (isType(filePath)) {
             return strategy.readFileAsBytes(filePath);
         }
@@ -111,10 +178,12 @@ public class DocumentStrategy implements Strategy {
 
         DocumentFile df = getFile(filePath, false);
         if (df != null) {
+            ByteBuffer pooled = BufferPool.acquire(BufferPool.DEFAULT_BUFFER_SIZE);
             try (InputStream is = activity.getContentResolver().openInputStream(df.getUri());
+                Tracer.Span span = Tracer.begin("DocumentStrategy.transfer");
                 ByteArrayOutputStream byteStream = new ByteArrayOutputStream()) {
 
-                byte[] buffer = new byte[8192];
+                byte[] buffer = pooled.array();
                 int length;
 
                 while ((length = is.read(buffer)) != -1) {
@@ -124,11 +193,127 @@ public class DocumentStrategy implements Strategy {
                 return byteStream.toByteArray();
             } catch (IOException e) {
                 e.printStackTrace();
+            } finally {
+                BufferPool.release(pooled);
             }
         }
         return new byte[0];
     }
 
+    /**
+     * 打开文件输入流，用于流式读取大文件
+     *
+     * @param filePath 文件路径
+     * @return 输入流，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public InputStream openInputStream(String filePath) throws IOException {
+        appenders.flush(filePath);
+        if (isType(filePath)) {
+            return strategy.openInputStream(filePath);
+        }
+        checkDataPermission(filePath);
+        
+        InputStream is = activity.getContentResolver().openInputStream(getDocumentUri(filePath, false));
+        if (is == null) {
+            throw new FileNotFoundException("无法打开文件: " + filePath);
+        }
+        return is;
+    }
+
+    /**
+     * 打开文件读取通道
+     *
+     * @param filePath 文件路径
+     * @return 读取通道，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public ReadableByteChannel openReadableChannel(String filePath) throws IOException {
+        appenders.flush(filePath);
+        if (isType(filePath)) {
+            return strategy.openReadableChannel(filePath);
+        }
+        checkDataPermission(filePath);
+        
+        ParcelFileDescriptor pfd = openFileDescriptor(filePath, "r");
+        ParcelFileDescriptor.AutoCloseInputStream in = new ParcelFileDescriptor.AutoCloseInputStream(pfd);
+        // 提供者可能返回管道，getChannel 仍是 FileChannel 但不能按位置读取，只返回顺序读取的通道
+        if (pfd.getStatSize() < 0) {
+            return Channels.newChannel(in);
+        }
+        return in.getChannel();
+    }
+
+    /**
+     * 以只读方式将文件映射到内存，不占用 Java 堆，文件不能超过 2GB
+     *
+     * @param filePath 文件路径
+     * @return 只读的映射缓冲区
+     * @throws IOException
+     */
+    @Override
+    public MappedByteBuffer mapFile(String filePath) throws IOException {
+        appenders.flush(filePath);
+        if (isType(filePath)) {
+            return strategy.mapFile(filePath);
+        }
+        checkDataPermission(filePath);
+        
+        ParcelFileDescriptor pfd = openFileDescriptor(filePath, "r");
+        try (FileChannel channel = new ParcelFileDescriptor.AutoCloseInputStream(pfd).getChannel()) {
+            return ChannelUtil.map(channel);
+        }
+    }
+
+    /**
+     * 以只读方式将文件分段映射到内存，适用于超过 2GB 的文件
+     *
+     * @param filePath 文件路径
+     * @return 按文件顺序排列的只读映射缓冲区
+     * @throws IOException
+     */
+    @Override
+    public List<MappedByteBuffer> mapFileSegments(String filePath) throws IOException {
+        appenders.flush(filePath);
+        if (isType(filePath)) {
+            return strategy.mapFileSegments(filePath);
+        }
+        checkDataPermission(filePath);
+        
+        ParcelFileDescriptor pfd = openFileDescriptor(filePath, "r");
+        try (FileChannel channel = new ParcelFileDescriptor.AutoCloseInputStream(pfd).getChannel()) {
+            return ChannelUtil.mapSegments(channel);
+        }
+    }
+
+    /**
+     * 读取文件中指定范围的数据，不读取范围以外的内容
+     *
+     * @param filePath 文件路径
+     * @param offset 起始位置
+     * @param length 读取的字节数
+     * @return 读取的数据，到达文件末尾时可能少于 length，失败时返回 null
+     */
+    @Override
+    public byte[] readRange(String filePath, long offset, int length) {
+        appenders.flush(filePath);
+        if (isType(filePath)) {
+            return strategy.readRange(filePath, offset, length);
+        }
+        try {
+            checkDataPermission(filePath);
+            try (FileChannel channel = new ParcelFileDescriptor.AutoCloseInputStream(openFileDescriptor(filePath, "r")).getChannel();
+                 Tracer.Span span = Tracer.begin("DocumentStrategy.transfer")) {
+                return ChannelUtil.readRange(channel, offset, length);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
     /**
      * 写入字符内容到文件
      *
@@ -138,6 +323,7 @@ public class DocumentStrategy implements Strategy {
      */
     @Override
     public boolean writeFile(String filePath, String content) {
+        appenders.evict(filePath);
         if (isType(filePath)) {
             return strategy.writeFile(filePath, content);
         }
@@ -149,6 +335,7 @@ public class DocumentStrategy implements Strategy {
         DocumentFile df = getFile(filePath, true);
         if (df != null) {
             try (OutputStream os = activity.getContentResolver().openOutputStream(df.getUri(), "wt");
+                 Tracer.Span span = Tracer.begin("DocumentStrategy.transfer");
                  BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(os))) {
                 if (writer == null) {
                     return false;
@@ -172,6 +359,7 @@ public class DocumentStrategy implements Strategy {
      */
     @Override
     public boolean writeFile(String filePath, byte[] data) {
+        appenders.evict(filePath);
         if (isType(filePath)) {
             return strategy.writeFile(filePath, data);
         }
@@ -182,7 +370,8 @@ public class DocumentStrategy implements Strategy {
 
         DocumentFile df = getFile(filePath, true);
         if (df != null) {
-            try (OutputStream os = activity.getContentResolver().openOutputStream(df.getUri())) {
+            try (OutputStream os = activity.getContentResolver().openOutputStream(df.getUri());
+                 Tracer.Span span = Tracer.begin("DocumentStrategy.transfer")) {
                 if (os == null) {
                     return false;
                 }
@@ -198,6 +387,159 @@ public class DocumentStrategy implements Strategy {
         return false;
     }
 
+    /**
+     * 按指定模式写入字符内容到文件
+     *
+     * @param filePath 文件路径
+     * @param content 要写入的内容
+     * @param mode 写入模式，DURABLE 在返回前保证数据已同步到磁盘
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeFile(String filePath, String content, WriteMode mode) {
+        if (mode != WriteMode.DURABLE) {
+            return writeFile(filePath, content);
+        }
+        return writeFile(filePath, content.getBytes(), mode);
+    }
+
+    /**
+     * 按指定模式写入字节数组到文件
+     * 文档提供者不支持原子替换，DURABLE 模式直接写入目标文件并在关闭前同步文件描述符
+     *
+     * @param filePath 文件路径
+     * @param data 要写入的字节数组
+     * @param mode 写入模式，DURABLE 在返回前保证数据已同步到磁盘
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeFile(String filePath, byte[] data, WriteMode mode) {
+        appenders.evict(filePath);
+        if (isType(filePath)) {
+            return strategy.writeFile(filePath, data, mode);
+        }
+        if (mode != WriteMode.DURABLE) {
+            return writeFile(filePath, data);
+        }
+        try {
+            checkDataPermission(filePath);
+            try (FileOutputStream fos = new ParcelFileDescriptor.AutoCloseOutputStream(openFileDescriptor(filePath, "wt"));
+                 Tracer.Span span = Tracer.begin("DocumentStrategy.transfer")) {
+                fos.write(data);
+                fos.getFD().sync();
+            }
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * 从指定位置写入数据，覆盖该范围内的原有内容，不截断文件，文件不存在时创建
+     *
+     * @param filePath 文件路径
+     * @param offset 起始位置，超过文件末尾时中间以 0 填充
+     * @param data 要写入的数据
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeRange(String filePath, long offset, byte[] data) {
+        if (isType(filePath)) {
+            return strategy.writeRange(filePath, offset, data);
+        }
+        appenders.evict(filePath);
+        try {
+            checkDataPermission(filePath);
+            // "rw" 模式不截断文件
+            try (FileChannel channel = new ParcelFileDescriptor.AutoCloseOutputStream(openFileDescriptor(filePath, "rw")).getChannel();
+                 Tracer.Span span = Tracer.begin("DocumentStrategy.transfer")) {
+                ChannelUtil.writeRange(channel, offset, data);
+            }
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * 打开文件输出流，用于流式写入大文件
+     *
+     * @param filePath 文件路径
+     * @param append 如果为 true 追加到文件末尾，如果为 false 清空文件后写入
+     * @return 输出流，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public OutputStream openOutputStream(String filePath, boolean append) throws IOException {
+        if (isType(filePath)) {
+            return strategy.openOutputStream(filePath, append);
+        }
+        checkDataPermission(filePath);
+        
+        OutputStream os = activity.getContentResolver().openOutputStream(getDocumentUri(filePath, true), append ? "wa" : "wt");
+        if (os == null) {
+            throw new FileNotFoundException("无法打开文件: " + filePath);
+        }
+        return os;
+    }
+
+    /**
+     * 打开文件写入通道
+     *
+     * @param filePath 文件路径
+     * @param append 如果为 true 追加到文件末尾，如果为 false 清空文件后写入
+     * @return 写入通道，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public WritableByteChannel openWritableChannel(String filePath, boolean append) throws IOException {
+        if (isType(filePath)) {
+            return strategy.openWritableChannel(filePath, append);
+        }
+        checkDataPermission(filePath);
+        
+        ParcelFileDescriptor pfd = openFileDescriptor(filePath, append ? "wa" : "wt");
+        return new ParcelFileDescriptor.AutoCloseOutputStream(pfd).getChannel();
+    }
+
+    /**
+     * 追加字节数组到文件末尾，数据先进入共享缓冲区，最迟在刷新间隔后写入文件
+     *
+     * @param filePath 文件路径
+     * @param data 要追加的数据
+     * @return 是否写入缓冲区成功
+     */
+    @Override
+    public boolean append(String filePath, byte[] data) {
+        if (isType(filePath)) {
+            return strategy.append(filePath, data);
+        }
+        try (Appender appender = openAppender(filePath)) {
+            appender.write(data);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * 打开追加写入器，同一路径的写入器共享一个打开的输出流，适用于频繁追加小块数据
+     *
+     * @param filePath 文件路径
+     * @return 写入器，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public Appender openAppender(String filePath) throws IOException {
+        if (isType(filePath)) {
+            return strategy.openAppender(filePath);
+        }
+        return appenders.acquire(filePath);
+    }
+
     /**
      * 删除文件或文件夹
      *
@@ -206,22 +548,33 @@ public class DocumentStrategy implements Strategy {
      */
     @Override
     public boolean delete(String filePath) {
+        return delete(filePath, false).isSuccess();
+    }
+
+    /**
+     * 删除文件或文件夹，并返回统计结果
+     *
+     * @param filePath 文件或文件夹的路径
+     * @param parallel 是否将文件夹内的条目分发到线程池并行删除
+     * @return 删除结果
+     */
+    @Override
+    public DeleteResult delete(String filePath, boolean parallel) {
+        appenders.evict(filePath);
         if (isType(filePath)) {
-            return strategy.delete(filePath);
+            return strategy.delete(filePath, parallel);
         }
+        filePath = trimEnd(filePath);
         if (PermissionUtil.isStoragePermissionGranted(activity) && !isDataPermission(filePath)) {
             getDataPermission(activity, filePath);
-            return false;
+            return new DeleteResult(0, Collections.singletonList(filePath), 0);
         }
         
         DocumentFile df = getFile(filePath, false);
-        if (df != null) {
-            if (df.isFile()) {
-                return df.delete();
-            }
-            return deleteDir(filePath);
+        if (df == null) {
+            return new DeleteResult(0, Collections.singletonList(filePath), 0);
         }
-        return false;
+        return new DocumentDeleter().delete(new DocumentNode(df.getUri(), filePath, df.isDirectory()), parallel);
     }
 
     /**
@@ -247,6 +600,38 @@ public class DocumentStrategy implements Strategy {
         return false;
     }
 
+    /**
+     * 获取文件或文件夹的类型、大小和修改时间，符号链接不跟随
+     *
+     * @param filePath 文件或文件夹的路径
+     * @return 不存在时返回 null
+     */
+    @Override
+    public FileEntry stat(String filePath) {
+        appenders.flush(filePath);
+        if (isType(filePath)) {
+            return strategy.stat(filePath);
+        }
+        if (PermissionUtil.isStoragePermissionGranted(activity) && !isDataPermission(filePath)) {
+            getDataPermission(activity, filePath);
+            return null;
+        }
+        
+        DocumentFile df = getFile(filePath, false);
+        if (df == null) {
+            return null;
+        }
+        String path = trimEnd(filePath);
+        try (Cursor cursor = queryDocument(df.getUri())) {
+            if (cursor.moveToFirst()) {
+                return toFileEntry(path.substring(0, path.lastIndexOf('/')), cursor);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
     /**
      * 复制文件或文件夹
      *
@@ -256,6 +641,8 @@ public class DocumentStrategy implements Strategy {
      */
     @Override
     public boolean copy(String sourcePath, String destPath) {
+        appenders.flush(sourcePath);
+        appenders.evict(destPath);
         if (isType(sourcePath) && isType(destPath)) {
             return strategy.copy(sourcePath, destPath);
         }
@@ -296,35 +683,95 @@ public class DocumentStrategy implements Strategy {
      */
     @Override
     public boolean move(String sourcePath, String destPath) {
+        return moveWithResult(sourcePath, destPath) != MoveResult.FAILED;
+    }
+
+    /**
+     * 移动文件或文件夹，同一授权目录内优先直接移动文档
+     *
+     * @param sourcePath 源文件或文件夹的路径
+     * @param destPath 目标文件或文件夹的路径
+     * @return 实际采用的移动方式
+     */
+    @Override
+    public MoveResult moveWithResult(String sourcePath, String destPath) {
+        appenders.evict(sourcePath);
+        appenders.evict(destPath);
         if (isType(sourcePath) && isType(destPath)) {
-            return strategy.copy(sourcePath, destPath);
+            return strategy.moveWithResult(sourcePath, destPath);
         }
         if (PermissionUtil.isStoragePermissionGranted(activity)) {
             if (!isDataPermission(sourcePath)) {
                 getDataPermission(activity, sourcePath);
-                return false;
+                return MoveResult.FAILED;
             }
             if (!isDataPermission(destPath)) {
                 getDataPermission(activity, destPath);
-                return false;
+                return MoveResult.FAILED;
             }
         }
         if (isType(sourcePath)) {
             File file = new File(sourcePath);
             if (file.isFile()) {
-                return copyOrMoveFile(sourcePath, destPath, true);
+                return copyOrMoveFile(sourcePath, destPath, true) ? MoveResult.COPIED : MoveResult.FAILED;
             }
-            return copyOrMoveDir(sourcePath, destPath, true);
+            return copyOrMoveDir(sourcePath, destPath, true) ? MoveResult.COPIED : MoveResult.FAILED;
+        }
+        if (!isType(destPath) && moveDocument(sourcePath, destPath)) {
+            return MoveResult.RENAMED;
         }
         
         DocumentFile df = getFile(sourcePath, false);
         if (df == null) {
-            return false;
+            return MoveResult.FAILED;
         }
         if (df.isFile()) {
-            return copyOrMoveFile(sourcePath, destPath, true);
+            return copyOrMoveFile(sourcePath, destPath, true) ? MoveResult.COPIED : MoveResult.FAILED;
         }
-        return copyOrMoveDir(sourcePath, destPath, true);
+        return copyOrMoveDir(sourcePath, destPath, true) ? MoveResult.COPIED : MoveResult.FAILED;
+    }
+
+    /**
+     * 增量复制文件，按块比较源文件与已有的目标文件，只写入内容不同的块，适用于只有少量改动的大文件
+     *
+     * @param sourcePath 源文件的路径
+     * @param destPath 目标文件的路径，不存在时等同于完整复制
+     * @return 复制结果，失败时返回 null
+     */
+    @Override
+    public DeltaCopyResult copyDelta(String sourcePath, String destPath) {
+        appenders.flush(sourcePath);
+        appenders.evict(destPath);
+        if (isType(sourcePath) && isType(destPath)) {
+            return strategy.copyDelta(sourcePath, destPath);
+        }
+        if (PermissionUtil.isStoragePermissionGranted(activity)) {
+            if (!isDataPermission(sourcePath)) {
+                getDataPermission(activity, sourcePath);
+                return null;
+            }
+            if (!isDataPermission(destPath)) {
+                getDataPermission(activity, destPath);
+                return null;
+            }
+        }
+        // 文档的通道只能读或只能写，目标文件先以 "rw" 打开（不存在时创建，不截断），再以 "r" 打开用于比较
+        try (FileChannel in = isType(sourcePath)
+                ? new FileInputStream(sourcePath).getChannel()
+                : new ParcelFileDescriptor.AutoCloseInputStream(openFileDescriptor(sourcePath, "r")).getChannel();
+             FileChannel targetWriter = isType(destPath)
+                ? new RandomAccessFile(destPath, "rw").getChannel()
+                : new ParcelFileDescriptor.AutoCloseOutputStream(openFileDescriptor(destPath, "rw")).getChannel();
+             FileChannel targetReader = isType(destPath)
+                ? targetWriter
+                : new ParcelFileDescriptor.AutoCloseInputStream(openFileDescriptor(destPath, "r")).getChannel();
+             Tracer.Span span = Tracer.begin("DocumentStrategy.transfer")) {
+            long written = ChannelUtil.deltaCopy(in, targetReader, targetWriter, ChannelUtil.DELTA_BLOCK_SIZE);
+            return new DeltaCopyResult(in.size(), written);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return null;
     }
 
     /**
@@ -404,6 +851,119 @@ public class DocumentStrategy implements Strategy {
         return list;
     }
 
+    /**
+     * 获取目录下的所有内容及其类型、大小和修改时间，只遍历一次目录
+     *
+     * @param dirPath 目录的路径
+     * @return 目录条目列表，符号链接不跟随
+     */
+    @Override
+    public List<FileEntry> list(String dirPath) {
+        List<FileEntry> list = new ArrayList<>();
+        try (FileEntryIterator iterator = iterate(dirPath)) {
+            FileEntry entry;
+            while ((entry = iterator.nextEntry()) != null) {
+                list.add(entry);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return list;
+    }
+
+    /**
+     * 按需遍历目录，条目在遍历时才从目录中读取
+     *
+     * @param dirPath 目录的路径
+     * @return 目录条目迭代器，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public FileEntryIterator iterate(String dirPath) throws IOException {
+        if (isType(dirPath)) {
+            return strategy.iterate(dirPath);
+        }
+        checkDataPermission(dirPath);
+        
+        String parentPath = trimEnd(dirPath);
+        Cursor cursor = queryChildren(getDocumentUri(parentPath, false));
+        return new FileEntryIterator() {
+            @Override
+            protected FileEntry readNext() {
+                return cursor.moveToNext() ? toFileEntry(parentPath, cursor) : null;
+            }
+            
+            @Override
+            protected void release() {
+                cursor.close();
+            }
+        };
+    }
+
+    /**
+     * 分页获取目录内容
+     *
+     * @param dirPath 目录的路径
+     * @param pageToken 上一页返回的令牌，为 null 时获取第一页
+     * @param pageSize 每页条目数
+     * @param sortByName 是否按名称排序，排序时需要遍历整个目录
+     * @return 一页目录条目
+     */
+    @Override
+    public ListPage listPage(String dirPath, String pageToken, int pageSize, boolean sortByName) {
+        try (FileEntryIterator iterator = iterate(dirPath)) {
+            return ListPager.page(iterator, pageToken, pageSize, sortByName);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return new ListPage(new ArrayList<>(), null);
+    }
+
+    /**
+     * 递归遍历目录树
+     *
+     * @param rootPath 根目录的路径
+     * @param options 遍历选项
+     * @return 满足条件的条目，不包含根目录
+     */
+    @Override
+    public List<FileEntry> walk(String rootPath, WalkOptions options) {
+        if (isType(rootPath)) {
+            return strategy.walk(rootPath, options);
+        }
+        if (PermissionUtil.isStoragePermissionGranted(activity) && !isDataPermission(rootPath)) {
+            getDataPermission(activity, rootPath);
+            return new ArrayList<>();
+        }
+        
+        return new TreeWalker(options) {
+            @Override
+            protected FileEntryIterator iterate(String dirPath) throws IOException {
+                return DocumentStrategy.this.iterate(dirPath);
+            }
+        }.walk(trimEnd(rootPath));
+    }
+
+    /**
+     * 批量操作开始，之后的权限检查和根目录解析复用同一份已授权 Uri 列表
+     */
+    @Override
+    public synchronized void beginBatch() {
+        if (batchDepth++ == 0) {
+            batchState = new BatchState();
+        }
+    }
+
+    /**
+     * 批量操作结束，丢弃缓存的授权列表，之后的授权变化可以立即生效
+     */
+    @Override
+    public synchronized void endBatch() {
+        if (batchDepth > 0 && --batchDepth == 0) {
+            batchState = null;
+        }
+    }
+
     /**
      * 创建目录
      *
@@ -496,21 +1056,36 @@ public class DocumentStrategy implements Strategy {
      * @return
      */
     private boolean isDataPermission(String path) {
-        if (!IS_SDK_32) {
-            return getPathDocumentFile(activity, ANDROID_DATA) != null;
-        }
-        if (path.length() > DIR_AD_LENGTH) {
-            path = path.substring(DIR_AD_LENGTH + 1);
-        } else {
-            return getPathDocumentFile(activity, ANDROID_DATA) != null;
-        }
+        try (Tracer.Span span = Tracer.begin("DocumentStrategy.permission")) {
+            if (!IS_SDK_32) {
+                return getPathDocumentFile(activity, ANDROID_DATA) != null;
+            }
+            if (path.length() > DIR_AD_LENGTH) {
+                path = path.substring(DIR_AD_LENGTH + 1);
+            } else {
+                return getPathDocumentFile(activity, ANDROID_DATA) != null;
+            }
         
-        String[] list = split(path, '/');
-        DocumentFile df = getRootDocumentFile(activity, list[0]);
-        return df != null;
+            String[] list = split(path, '/');
+            DocumentFile df = getRootDocumentFile(activity, list[0]);
+            return df != null;
+        }
     }
 
 
+    /**
+     * 检查文件夹权限，没有权限时发起授权请求
+     *
+     * @param path 目标路径
+     * @throws IOException 没有权限
+     */
+    private void checkDataPermission(String path) throws IOException {
+        if (PermissionUtil.isStoragePermissionGranted(activity) && !isDataPermission(path)) {
+            getDataPermission(activity, path);
+            throw new IOException("没有文件夹访问权限: " + path);
+        }
+    }
+
     /**
      * 获取 data 文件夹权限
      *
@@ -546,38 +1121,117 @@ public class DocumentStrategy implements Strategy {
     }
     
     /**
-     * 删除文件夹
+     * 同一授权目录内通过 DocumentsContract 直接移动或重命名文档
+     * 先移动到目标目录再重命名，目标名称在目标目录中已确认未被占用，避免提供方因重名自动改名
      *
-     * @param filePath 目标路径
-     * @return
+     * @param sourcePath 源路径
+     * @param destPath 目标路径
+     * @return 是否移动成功，失败时按相反顺序撤销已完成的步骤，源文档保持不变
      */
-    private boolean deleteDir(String filePath) {
-        boolean allDeleted = true;
-        DocumentFile dir = getFile(filePath, false);
-        for (DocumentFile file : dir.listFiles()) {
-            if (file.isFile()) {
-                if (!file.delete()) {
-                    allDeleted = false;
+    private boolean moveDocument(String sourcePath, String destPath) {
+        sourcePath = trimEnd(sourcePath);
+        destPath = trimEnd(destPath);
+        String sourceParentPath = sourcePath.substring(0, sourcePath.lastIndexOf('/'));
+        String destParentPath = destPath.substring(0, destPath.lastIndexOf('/'));
+        String sourceName = sourcePath.substring(sourcePath.lastIndexOf('/') + 1);
+        String destName = destPath.substring(destPath.lastIndexOf('/') + 1);
+        boolean sameParent = sourceParentPath.equals(destParentPath);
+        boolean sameName = sourceName.equals(destName);
+        
+        if (!sameParent && Build.VERSION.SDK_INT < Build.VERSION_CODES.N) {
+            return false;
+        }
+        if (!isSameTree(sourcePath, destPath) || getFile(destPath, false) != null) {
+            return false;
+        }
+        // 移动时保留原名称，目标目录中已有同名文档时交由复制处理
+        if (!sameParent && !sameName && getFile(destParentPath + "/" + sourceName, false) != null) {
+            return false;
+        }
+        DocumentFile source = getFile(sourcePath, false);
+        if (source == null) {
+            return false;
+        }
+        
+        ContentResolver resolver = activity.getContentResolver();
+        Uri uri = source.getUri();
+        Uri sourceParentUri = null;
+        Uri destParentUri = null;
+        boolean moved = false;
+        boolean renameUncertain = false;
+        try {
+            if (!sameParent) {
+                if (!createDirectory(destParentPath)) {
+                    throw new IOException("无法创建目标目录: " + destParentPath);
                 }
-            } else if (file.isDirectory()) {
-                String childPath = filePath;
-                if (!filePath.endsWith("/")) {
-                    childPath += "/";
+                DocumentFile sourceParent = getFile(sourceParentPath, false);
+                DocumentFile destParent = getFile(destParentPath, false);
+                if (sourceParent == null || destParent == null) {
+                    throw new IOException("无法移动文档: " + sourcePath);
                 }
-                childPath += file.getName();
-                
-                if (!deleteDir(childPath)) {
-                    allDeleted = false;
+                sourceParentUri = sourceParent.getUri();
+                destParentUri = destParent.getUri();
+                Uri movedUri = DocumentsContract.moveDocument(resolver, uri, sourceParentUri, destParentUri);
+                if (movedUri == null) {
+                    throw new IOException("无法移动文档: " + sourcePath);
+                }
+                uri = movedUri;
+                moved = true;
+            }
+            if (!sameName) {
+                Uri renamedUri = DocumentsContract.renameDocument(resolver, uri, destName);
+                if (renamedUri == null) {
+                    // 提供方以 null 表示失败，Android 7.0 以下失败时也不抛出异常；无法确认是否已改名，撤销时按原名称还原
+                    renameUncertain = true;
+                    throw new IOException("无法重命名文档: " + sourcePath);
                 }
+                uri = renamedUri;
             }
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
         }
-
-        if (allDeleted) {
-            return dir.delete();
+        
+        // 按相反顺序撤销，交由复制处理
+        if (renameUncertain) {
+            try {
+                Uri restoredUri = DocumentsContract.renameDocument(resolver, uri, sourceName);
+                if (restoredUri != null) {
+                    uri = restoredUri;
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        if (moved) {
+            try {
+                DocumentsContract.moveDocument(resolver, uri, destParentUri, sourceParentUri);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
         }
         return false;
     }
     
+    /**
+     * 判断两个路径是否位于同一个授权目录下
+     *
+     * @param sourcePath
+     * @param destPath
+     * @return
+     */
+    private boolean isSameTree(String sourcePath, String destPath) {
+        if (sourcePath.length() <= DIR_AD_LENGTH || destPath.length() <= DIR_AD_LENGTH) {
+            return false;
+        }
+        if (!IS_SDK_32) {
+            return true;
+        }
+        String[] sourceList = split(sourcePath.substring(DIR_AD_LENGTH + 1), '/');
+        String[] destList = split(destPath.substring(DIR_AD_LENGTH + 1), '/');
+        return sourceList.length > 1 && destList.length > 1 && sourceList[0].equals(destList[0]);
+    }
+    
     /**
      * 复制或移动文件
      *
@@ -587,80 +1241,108 @@ public class DocumentStrategy implements Strategy {
      * @return
      */
     private boolean copyOrMoveFile(String sourceFilePath, String destFilePath, boolean isMove) {
-        BufferedInputStream bis = null;
-        BufferedOutputStream bos = null;
-        
-        try {
-            if (isType(sourceFilePath)) {
-                bis = new BufferedInputStream(new FileInputStream(sourceFilePath));
-            } else {
-                DocumentFile df = getFile(sourceFilePath, false);
-                bis = new BufferedInputStream(activity.getContentResolver().openInputStream(df.getUri()));
-            }
-            if (isType(destFilePath)) {
-                bos = new BufferedOutputStream(new FileOutputStream(destFilePath));
-            } else {
-                DocumentFile df2 = getFile(destFilePath, true);
-                bos = new BufferedOutputStream(activity.getContentResolver().openOutputStream(df2.getUri()));
-            }
-            
-            byte[] buffer = new byte[1024];
-            int bytesRead;
-            while ((bytesRead = bis.read(buffer)) != -1) {
-                bos.write(buffer, 0, bytesRead);
-            }
-            bos.flush();
-            
-            if (isMove) {
-                delete(sourceFilePath);
-            }
+        try (ReadableByteChannel in = isType(sourceFilePath)
+                ? new FileInputStream(sourceFilePath).getChannel()
+                : new ParcelFileDescriptor.AutoCloseInputStream(openFileDescriptor(sourceFilePath, "r")).getChannel();
+             WritableByteChannel out = isType(destFilePath)
+                ? new FileOutputStream(destFilePath).getChannel()
+                : new ParcelFileDescriptor.AutoCloseOutputStream(openFileDescriptor(destFilePath, "wt")).getChannel();
+             Tracer.Span span = Tracer.begin("DocumentStrategy.transfer")) {
+            ChannelUtil.copy(in, out);
         } catch(IOException e) {
         	e.printStackTrace();
             return false;
-        } finally {
-            try {
-                if (bis != null) bis.close();
-                if (bos != null) bos.close();
-            } catch(IOException ex) {
-                ex.printStackTrace();
-            }
+        }
+        if (isMove) {
+            delete(sourceFilePath);
         }
         return true;
     }
 
     /**
      * 复制或移动文件夹
+     * 先创建全部目标目录，再并行复制文件，移动时最后由深到浅删除源目录
      *
-     * @param context
      * @param sourceDirPath
      * @param destDirPath
+     * @param isMove
      * @return
      */
     private boolean copyOrMoveDir(String sourceDirPath, String destDirPath, boolean isMove) {
-        if (isType(sourceDirPath)) {
-            File files = new File(sourceDirPath);
-            for (File file: files.listFiles()) {
-                String sourceFilePath = file.getPath();
-                String destFilePath = destDirPath + "/" + file.getName();
-                if (isMove ? !move(sourceFilePath, destFilePath) : !copy(sourceFilePath, destFilePath)) {
+        List<String> dirs = new ArrayList<>();
+        List<String[]> files = new ArrayList<>();
+        if (!collectDir(trimEnd(sourceDirPath), trimEnd(destDirPath), dirs, files)) {
+            return false;
+        }
+        
+        try {
+            ParallelRunner.runAll(files, pair -> {
+                if (!copyOrMoveFile(pair[0], pair[1], isMove)) {
+                    throw new IOException("无法复制文件: " + pair[0]);
+                }
+            });
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+        
+        if (isMove) {
+            for (int i = dirs.size() - 1; i >= 0; i--) {
+                if (!delete(dirs.get(i))) {
                     return false;
                 }
             }
-            if (isMove) {
-                files.delete();
+        }
+        return true;
+    }
+    
+    /**
+     * 遍历源目录，创建对应的目标目录，并收集需要复制的文件
+     *
+     * @param sourceDirPath
+     * @param destDirPath
+     * @param dirs 源目录，父目录在子目录之前
+     * @param files 源文件路径与目标文件路径
+     * @return
+     */
+    private boolean collectDir(String sourceDirPath, String destDirPath, List<String> dirs, List<String[]> files) {
+        if (!createDirectory(destDirPath)) {
+            return false;
+        }
+        dirs.add(sourceDirPath);
+        
+        if (isType(sourceDirPath)) {
+            File[] children = new File(sourceDirPath).listFiles();
+            if (children == null) {
+                return false;
+            }
+            for (File file : children) {
+                String sourceFilePath = sourceDirPath + "/" + file.getName();
+                String destFilePath = destDirPath + "/" + file.getName();
+                if (file.isDirectory()) {
+                    if (!collectDir(sourceFilePath, destFilePath, dirs, files)) {
+                        return false;
+                    }
+                } else {
+                    files.add(new String[]{sourceFilePath, destFilePath});
+                }
             }
             return true;
         }
         
         DocumentFile df = getFile(sourceDirPath, false);
+        if (df == null) {
+            return false;
+        }
         for (DocumentFile file : df.listFiles()) {
             String sourceFilePath = String.format("%s/%s", sourceDirPath, file.getName());
             String destFilePath = String.format("%s/%s", destDirPath, file.getName());
-            if (isMove ? !move(sourceFilePath, destFilePath) : !copy(sourceFilePath, destFilePath)) {
-                return false;
-            }
-            if (isMove) {
-                df.delete();
+            if (file.isDirectory()) {
+                if (!collectDir(sourceFilePath, destFilePath, dirs, files)) {
+                    return false;
+                }
+            } else {
+                files.add(new String[]{sourceFilePath, destFilePath});
             }
         }
         return true;
@@ -674,41 +1356,128 @@ public class DocumentStrategy implements Strategy {
      * @return
      */
     private DocumentFile getFile(String path, boolean isNew) {
-        if (path.length() <= DIR_AD_LENGTH) {
-            return getPathDocumentFile(activity, ANDROID_DATA);
-        }
+        try (Tracer.Span span = Tracer.begin("DocumentStrategy.resolve")) {
+            if (path.length() <= DIR_AD_LENGTH) {
+                return getPathDocumentFile(activity, ANDROID_DATA);
+            }
         
-        String[] list = split(path.substring(DIR_AD_LENGTH + 1), '/');
-        DocumentFile df = getRootDocumentFile(activity, list[0]);
+            String[] list = split(path.substring(DIR_AD_LENGTH + 1), '/');
+            DocumentFile df = getRootDocumentFile(activity, list[0]);
 
-        if (df == null) {
-            return null;
-        }
+            if (df == null) {
+                return null;
+            }
         
-        int startIndex = IS_SDK_32 ? 1 : 0;
-        for (int i = startIndex; i < list.length; i++) {
-            String name = list[i];
-            DocumentFile df2 = df.findFile(name);
+            int startIndex = IS_SDK_32 ? 1 : 0;
+            for (int i = startIndex; i < list.length; i++) {
+                String name = list[i];
+                DocumentFile df2 = df.findFile(name);
 
-            if (df2 == null) {
-                if (!isNew) {
-                    return null;
-                }
+                if (df2 == null) {
+                    if (!isNew) {
+                        return null;
+                    }
 
-                if (i == list.length - 1) {
-                    df = df.createFile("*/*", name);
+                    if (i == list.length - 1) {
+                        df = df.createFile("*/*", name);
+                    } else {
+                        df = df.createDirectory(name);
+                    }
                 } else {
-                    df = df.createDirectory(name);
+                    df = df2;
                 }
-            } else {
-                df = df2;
             }
-        }
 
-        return df;
+            return df;
+        }
     }
 
     
+    /**
+     * 获取文件的文档 Uri
+     *
+     * @param path
+     * @param isNew 文件不存在时是否创建
+     * @return
+     * @throws FileNotFoundException
+     */
+    private Uri getDocumentUri(String path, boolean isNew) throws FileNotFoundException {
+        DocumentFile df = getFile(path, isNew);
+        if (df == null) {
+            throw new FileNotFoundException("文件不存在: " + path);
+        }
+        return df.getUri();
+    }
+    
+    /**
+     * 打开文件描述符
+     *
+     * @param path
+     * @param mode 打开模式，"r"、"w"、"wa"、"wt" 或 "rw"
+     * @return
+     * @throws FileNotFoundException
+     */
+    private ParcelFileDescriptor openFileDescriptor(String path, String mode) throws FileNotFoundException {
+        try (Tracer.Span span = Tracer.begin("DocumentStrategy.open")) {
+            ParcelFileDescriptor pfd = activity.getContentResolver().openFileDescriptor(getDocumentUri(path, !"r".equals(mode)), mode);
+            if (pfd == null) {
+                throw new FileNotFoundException("无法打开文件: " + path);
+            }
+            return pfd;
+        }
+    }
+    
+    /**
+     * 一次查询目录下全部子文档的属性
+     *
+     * @param dirUri 目录的文档 Uri
+     * @return 列依次为 CHILD_PROJECTION 中的字段
+     * @throws IOException
+     */
+    private Cursor queryChildren(Uri dirUri) throws IOException {
+        try (Tracer.Span span = Tracer.begin("DocumentStrategy.query")) {
+            Uri childrenUri = DocumentsContract.buildChildDocumentsUriUsingTree(dirUri, DocumentsContract.getDocumentId(dirUri));
+            Cursor cursor = activity.getContentResolver().query(childrenUri, CHILD_PROJECTION, null, null, null);
+            if (cursor == null) {
+                throw new IOException("无法读取目录内容: " + dirUri);
+            }
+            return cursor;
+        }
+    }
+    
+    /**
+     * 查询单个文档的属性
+     *
+     * @param documentUri 文档 Uri
+     * @return 列依次为 CHILD_PROJECTION 中的字段
+     * @throws IOException
+     */
+    private Cursor queryDocument(Uri documentUri) throws IOException {
+        try (Tracer.Span span = Tracer.begin("DocumentStrategy.query")) {
+            Cursor cursor = activity.getContentResolver().query(documentUri, CHILD_PROJECTION, null, null, null);
+            if (cursor == null) {
+                throw new IOException("无法读取文件属性: " + documentUri);
+            }
+            return cursor;
+        }
+    }
+    
+    /**
+     * 将子文档查询结果的当前行转换为目录条目
+     *
+     * @param dirPath 父目录路径
+     * @param cursor queryChildren 返回的游标
+     * @return
+     */
+    private static FileEntry toFileEntry(String dirPath, Cursor cursor) {
+        String name = cursor.getString(COLUMN_DISPLAY_NAME);
+        boolean directory = DocumentsContract.Document.MIME_TYPE_DIR.equals(cursor.getString(COLUMN_MIME_TYPE));
+        return new FileEntry(name, dirPath + "/" + name,
+                directory ? FileEntry.Type.DIRECTORY : FileEntry.Type.FILE,
+                cursor.isNull(COLUMN_SIZE) ? 0 : cursor.getLong(COLUMN_SIZE),
+                cursor.isNull(COLUMN_LAST_MODIFIED) ? 0 : cursor.getLong(COLUMN_LAST_MODIFIED));
+    }
+    
     /**
      * 获取根路径
      *
@@ -722,12 +1491,27 @@ public class DocumentStrategy implements Strategy {
     }
 
     private DocumentFile getPathDocumentFile(Context context, String path) {
+        BatchState state = batchState;
+        if (state != null) {
+            DocumentFile df = state.roots.get(path);
+            if (df != null) {
+                return df;
+            }
+        }
+        
         Uri uri;
-        for (UriPermission up : context.getContentResolver().getPersistedUriPermissions()) {
+        List<UriPermission> permissions = state != null
+                ? state.getPermissions(context)
+                : context.getContentResolver().getPersistedUriPermissions();
+        for (UriPermission up : permissions) {
             if (up.isReadPermission()) {
                 uri = up.getUri();
                 if (path.equals(uri.toString())) {
-                    return DocumentFile.fromTreeUri(context, uri);
+                    DocumentFile df = DocumentFile.fromTreeUri(context, uri);
+                    if (state != null && df != null) {
+                        state.roots.put(path, df);
+                    }
+                    return df;
                 }
             }
         }
@@ -776,7 +1560,83 @@ public class DocumentStrategy implements Strategy {
         return list.toArray(new String[0]);
     }
     
+    private static String trimEnd(String path) {
+        while (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        return path;
+    }
+    
     private boolean isType(String path) {
         return !path.toLowerCase().startsWith(DIR.toLowerCase() + "/android/data");
     }
+    
+    /**
+     * 批量操作期间共享的状态
+     */
+    private static class BatchState {
+        
+        final ConcurrentHashMap<String, DocumentFile> roots = new ConcurrentHashMap<>();
+        private List<UriPermission> permissions;
+        
+        synchronized List<UriPermission> getPermissions(Context context) {
+            if (permissions == null) {
+                permissions = context.getContentResolver().getPersistedUriPermissions();
+            }
+            return permissions;
+        }
+    }
+    
+    private static class DocumentNode {
+        
+        final Uri uri;
+        final String path;
+        final boolean directory;
+        
+        DocumentNode(Uri uri, String path, boolean directory) {
+            this.uri = uri;
+            this.path = path;
+            this.directory = directory;
+        }
+    }
+    
+    /**
+     * 文档删除，每个目录只查询一次子文档
+     */
+    private class DocumentDeleter extends TreeDeleter<DocumentNode> {
+        
+        @Override
+        protected List<DocumentNode> listChildren(DocumentNode dir) throws IOException {
+            List<DocumentNode> children = new ArrayList<>();
+            try (Cursor cursor = queryChildren(dir.uri)) {
+                while (cursor.moveToNext()) {
+                    Uri uri = DocumentsContract.buildDocumentUriUsingTree(dir.uri, cursor.getString(COLUMN_DOCUMENT_ID));
+                    String path = dir.path + "/" + cursor.getString(COLUMN_DISPLAY_NAME);
+                    boolean directory = DocumentsContract.Document.MIME_TYPE_DIR.equals(cursor.getString(COLUMN_MIME_TYPE));
+                    children.add(new DocumentNode(uri, path, directory));
+                }
+            }
+            return children;
+        }
+        
+        @Override
+        protected boolean isDirectory(DocumentNode node) {
+            return node.directory;
+        }
+        
+        @Override
+        protected boolean deleteNode(DocumentNode node) {
+            try {
+                return DocumentsContract.deleteDocument(activity.getContentResolver(), node.uri);
+            } catch (FileNotFoundException e) {
+                e.printStackTrace();
+            }
+            return false;
+        }
+        
+        @Override
+        protected String getPath(DocumentNode node) {
+            return node.path;
+        }
+    }
 }
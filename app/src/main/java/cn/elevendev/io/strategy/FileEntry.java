@@ -0,0 +1,85 @@
+package cn.elevendev.io.strategy;
+
+/**
+ * 目录条目及其属性，由一次目录遍历得到
+ */
+public class FileEntry {
+    
+    public enum Type {
+        FILE,
+        DIRECTORY,
+        SYMBOLIC_LINK,
+        OTHER
+    }
+    
+    private final String name;
+    private final String path;
+    private final Type type;
+    private final long size;
+    private final long lastModified;
+    
+    public FileEntry(String name, String path, Type type, long size, long lastModified) {
+        this.name = name;
+        this.path = path;
+        this.type = type;
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+    
+    /**
+     * 获取文件名
+     *
+     * @return
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * 获取完整路径，与 getList 返回的路径格式一致
+     *
+     * @return
+     */
+    public String getPath() {
+        return path;
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public boolean isFile() {
+        return type == Type.FILE;
+    }
+    
+    public boolean isDirectory() {
+        return type == Type.DIRECTORY;
+    }
+    
+    public boolean isSymbolicLink() {
+        return type == Type.SYMBOLIC_LINK;
+    }
+    
+    /**
+     * 获取文件大小
+     *
+     * @return 字节数
+     */
+    public long getSize() {
+        return size;
+    }
+    
+    /**
+     * 获取最后修改时间
+     *
+     * @return 毫秒时间戳
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+    
+    @Override
+    public String toString() {
+        return "FileEntry{" + path + ", " + type + ", size=" + size + ", lastModified=" + lastModified + "}";
+    }
+}
@@ -0,0 +1,97 @@
+package cn.elevendev.io.strategy;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 按需读取目录条目的迭代器，条目在遍历时才从目录中读取，使用完毕后需要关闭
+ */
+public abstract class FileEntryIterator implements Iterator<FileEntry>, Closeable {
+
+    private FileEntry nextEntry;
+    private boolean finished;
+
+    /**
+     * 读取下一个条目
+     *
+     * @return 下一个条目，遍历结束时返回 null
+     * @throws IOException
+     */
+    protected abstract FileEntry readNext() throws IOException;
+
+    /**
+     * 释放底层资源
+     *
+     * @throws IOException
+     */
+    protected abstract void release() throws IOException;
+
+    /**
+     * 获取下一个条目
+     *
+     * @return 下一个条目，遍历结束时返回 null
+     * @throws IOException
+     */
+    public FileEntry nextEntry() throws IOException {
+        if (nextEntry != null) {
+            FileEntry entry = nextEntry;
+            nextEntry = null;
+            return entry;
+        }
+        if (finished) {
+            return null;
+        }
+        FileEntry entry = readNext();
+        if (entry == null) {
+            finished = true;
+        }
+        return entry;
+    }
+
+    /**
+     * 是否还有下一个条目
+     *
+     * @return
+     * @throws IllegalStateException 读取失败
+     */
+    @Override
+    public boolean hasNext() {
+        if (nextEntry != null) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        try {
+            nextEntry = nextEntry();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return nextEntry != null;
+    }
+
+    /**
+     * 获取下一个条目
+     *
+     * @return
+     * @throws IllegalStateException 读取失败
+     */
+    @Override
+    public FileEntry next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        FileEntry entry = nextEntry;
+        nextEntry = null;
+        return entry;
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        nextEntry = null;
+        release();
+    }
+}
@@ -1,9 +1,7 @@
 package cn.elevendev.io.strategy;
 
 import android.app.Activity;
-import cn.elevendev.io.IOUtils;
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
+import android.os.Build;
 import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
@@ -12,13 +10,44 @@ import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
+import cn.elevendev.io.utils.BufferPool;
+import cn.elevendev.io.utils.ChannelUtil;
+import cn.elevendev.io.utils.GroupCommitter;
+import cn.elevendev.io.utils.ParallelRunner;
 import cn.elevendev.io.utils.PermissionUtil;
+import cn.elevendev.io.utils.Tracer;
 
 public class FileStrategy implements Strategy {
 
+    private final AppenderPool appenders = new AppenderPool(this);
+
     /**
      * 读取文件内容
      *
@@ -27,7 +56,9 @@ public class FileStrategy implements Strategy {
      */
     @Override
     public String readFile(String filePath) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+        appenders.flush(filePath);
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath));
+             Tracer.Span span = Tracer.begin("FileStrategy.transfer")) {
             StringBuilder sb = new StringBuilder();
             String line;
 
@@ -42,6 +73,40 @@ public class FileStrategy implements Strategy {
         return null;
     }
 
+    /**
+     * 逐行读取文件，按需读取，不会一次性加载整个文件
+     *
+     * @param filePath 文件路径
+     * @return 行迭代器，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public LineIterator readLines(String filePath) throws IOException {
+        appenders.flush(filePath);
+        return new LineIterator(openInputStream(filePath));
+    }
+
+    /**
+     * 逐行读取文件并回调每一行，内存占用与文件大小无关
+     *
+     * @param filePath 文件路径
+     * @param callback 行回调
+     * @return 是否读取成功
+     */
+    @Override
+    public boolean forEachLine(String filePath, LineCallback callback) {
+        try (LineIterator lines = readLines(filePath)) {
+            String line;
+            while ((line = lines.nextLine()) != null) {
+                callback.onLine(line);
+            }
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
     /**
      * 读取文件内容，返回字节数组
      *
@@ -50,23 +115,104 @@ public class FileStrategy implements Strategy {
      */
     @Override
     public byte[] readFileAsBytes(String filePath) {
-        try (BufferedInputStream bis = new BufferedInputStream(new FileInputStream(filePath));
+        appenders.flush(filePath);
+        ByteBuffer pooled = BufferPool.acquire(BufferPool.DEFAULT_BUFFER_SIZE);
+        try (FileInputStream fis = new FileInputStream(filePath);
+             Tracer.Span span = Tracer.begin("FileStrategy.transfer");
              ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
             
-            byte[] buffer = new byte[8192];
+            byte[] buffer = pooled.array();
             int bytesRead;
 
-            while ((bytesRead = bis.read(buffer)) != -1) {
+            while ((bytesRead = fis.read(buffer)) != -1) {
                 baos.write(buffer, 0, bytesRead);
             }
 
             return baos.toByteArray();
         } catch (IOException e) {
             e.printStackTrace();
+        } finally {
+            BufferPool.release(pooled);
         }
         return new byte[0];
     }
 
+    /**
+     * 打开文件输入流，用于流式读取大文件
+     *
+     * @param filePath 文件路径
+     * @return 输入流，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public InputStream openInputStream(String filePath) throws IOException {
+        appenders.flush(filePath);
+        return new FileInputStream(filePath);
+    }
+
+    /**
+     * 打开文件读取通道
+     *
+     * @param filePath 文件路径
+     * @return 读取通道，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public ReadableByteChannel openReadableChannel(String filePath) throws IOException {
+        appenders.flush(filePath);
+        return new FileInputStream(filePath).getChannel();
+    }
+
+    /**
+     * 以只读方式将文件映射到内存，不占用 Java 堆，文件不能超过 2GB
+     *
+     * @param filePath 文件路径
+     * @return 只读的映射缓冲区
+     * @throws IOException
+     */
+    @Override
+    public MappedByteBuffer mapFile(String filePath) throws IOException {
+        appenders.flush(filePath);
+        try (FileChannel channel = new FileInputStream(filePath).getChannel()) {
+            return ChannelUtil.map(channel);
+        }
+    }
+
+    /**
+     * 以只读方式将文件分段映射到内存，适用于超过 2GB 的文件
+     *
+     * @param filePath 文件路径
+     * @return 按文件顺序排列的只读映射缓冲区
+     * @throws IOException
+     */
+    @Override
+    public List<MappedByteBuffer> mapFileSegments(String filePath) throws IOException {
+        appenders.flush(filePath);
+        try (FileChannel channel = new FileInputStream(filePath).getChannel()) {
+            return ChannelUtil.mapSegments(channel);
+        }
+    }
+
+    /**
+     * 读取文件中指定范围的数据，不读取范围以外的内容
+     *
+     * @param filePath 文件路径
+     * @param offset 起始位置
+     * @param length 读取的字节数
+     * @return 读取的数据，到达文件末尾时可能少于 length，失败时返回 null
+     */
+    @Override
+    public byte[] readRange(String filePath, long offset, int length) {
+        appenders.flush(filePath);
+        try (FileChannel channel = new RandomAccessFile(filePath, "r").getChannel();
+             Tracer.Span span = Tracer.begin("FileStrategy.transfer")) {
+            return ChannelUtil.readRange(channel, offset, length);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
     /**
      * 写入字符内容到文件
      *
@@ -76,6 +222,7 @@ public class FileStrategy implements Strategy {
      */
     @Override
     public boolean writeFile(String filePath, String content) {
+        appenders.evict(filePath);
         File parentDir = new File(filePath).getParentFile();
         
         if (!parentDir.exists()) {
@@ -83,7 +230,8 @@ public class FileStrategy implements Strategy {
                 return false;
             }
         }
-        try (FileWriter writer = new FileWriter(filePath)) {
+        try (FileWriter writer = new FileWriter(filePath);
+             Tracer.Span span = Tracer.begin("FileStrategy.transfer")) {
             writer.write(content);
             return true;
         } catch (IOException e) {
@@ -101,6 +249,7 @@ public class FileStrategy implements Strategy {
      */
     @Override
     public boolean writeFile(String filePath, byte[] data) {
+        appenders.evict(filePath);
         File parentDir = new File(filePath).getParentFile();
         
         if (!parentDir.exists()) {
@@ -108,7 +257,8 @@ public class FileStrategy implements Strategy {
                 return false;
             }
         }
-        try (FileOutputStream fos = new FileOutputStream(filePath)) {
+        try (FileOutputStream fos = new FileOutputStream(filePath);
+             Tracer.Span span = Tracer.begin("FileStrategy.transfer")) {
             fos.write(data);
             return true;
         } catch (IOException e) {
@@ -118,19 +268,111 @@ public class FileStrategy implements Strategy {
     }
 
     /**
-     * 删除文件或文件夹
+     * 按指定模式写入字符内容到文件
      *
-     * @param filePath 文件或文件夹的路径
-     * @return 是否删除成功
+     * @param filePath 文件路径
+     * @param content 要写入的内容
+     * @param mode 写入模式，DURABLE 在返回前保证数据已同步到磁盘
+     * @return 是否写入成功
      */
     @Override
-    public boolean delete(String filePath) {
-        File file = new File(filePath);
-        if (file.isFile()) {
-            return file.delete();
+    public boolean writeFile(String filePath, String content, WriteMode mode) {
+        if (mode != WriteMode.DURABLE) {
+            return writeFile(filePath, content);
+        }
+        return writeFile(filePath, content.getBytes(), mode);
+    }
+
+    /**
+     * 按指定模式写入字节数组到文件
+     * DURABLE 模式先写入同目录下的临时文件，由 GroupCommitter 与其他并发写入合并同步后原子替换目标文件
+     *
+     * @param filePath 文件路径
+     * @param data 要写入的字节数组
+     * @param mode 写入模式，DURABLE 在返回前保证数据已同步到磁盘
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeFile(String filePath, byte[] data, WriteMode mode) {
+        appenders.evict(filePath);
+        if (mode != WriteMode.DURABLE) {
+            return writeFile(filePath, data);
         }
         try {
-            deleteDirectory(file);
+            createParentDirectory(filePath);
+            try (Tracer.Span span = Tracer.begin("FileStrategy.commit")) {
+                GroupCommitter.write(new File(filePath), data);
+            }
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * 从指定位置写入数据，覆盖该范围内的原有内容，不截断文件，文件不存在时创建
+     *
+     * @param filePath 文件路径
+     * @param offset 起始位置，超过文件末尾时中间以 0 填充
+     * @param data 要写入的数据
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeRange(String filePath, long offset, byte[] data) {
+        appenders.evict(filePath);
+        try {
+            createParentDirectory(filePath);
+            try (FileChannel channel = new RandomAccessFile(filePath, "rw").getChannel();
+                 Tracer.Span span = Tracer.begin("FileStrategy.transfer")) {
+                ChannelUtil.writeRange(channel, offset, data);
+            }
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * 打开文件输出流，用于流式写入大文件
+     *
+     * @param filePath 文件路径
+     * @param append 如果为 true 追加到文件末尾，如果为 false 清空文件后写入
+     * @return 输出流，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public OutputStream openOutputStream(String filePath, boolean append) throws IOException {
+        createParentDirectory(filePath);
+        return new FileOutputStream(filePath, append);
+    }
+
+    /**
+     * 打开文件写入通道
+     *
+     * @param filePath 文件路径
+     * @param append 如果为 true 追加到文件末尾，如果为 false 清空文件后写入
+     * @return 写入通道，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public WritableByteChannel openWritableChannel(String filePath, boolean append) throws IOException {
+        createParentDirectory(filePath);
+        return new FileOutputStream(filePath, append).getChannel();
+    }
+
+    /**
+     * 追加字节数组到文件末尾，数据先进入共享缓冲区，最迟在刷新间隔后写入文件
+     *
+     * @param filePath 文件路径
+     * @param data 要追加的数据
+     * @return 是否写入缓冲区成功
+     */
+    @Override
+    public boolean append(String filePath, byte[] data) {
+        try (Appender appender = openAppender(filePath)) {
+            appender.write(data);
             return true;
         } catch (IOException e) {
             e.printStackTrace();
@@ -138,6 +380,42 @@ public class FileStrategy implements Strategy {
         return false;
     }
 
+    /**
+     * 打开追加写入器，同一路径的写入器共享一个打开的输出流，适用于频繁追加小块数据
+     *
+     * @param filePath 文件路径
+     * @return 写入器，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public Appender openAppender(String filePath) throws IOException {
+        return appenders.acquire(filePath);
+    }
+
+    /**
+     * 删除文件或文件夹
+     *
+     * @param filePath 文件或文件夹的路径
+     * @return 是否删除成功
+     */
+    @Override
+    public boolean delete(String filePath) {
+        return delete(filePath, false).isSuccess();
+    }
+
+    /**
+     * 删除文件或文件夹，并返回统计结果
+     *
+     * @param filePath 文件或文件夹的路径
+     * @param parallel 是否将文件夹内的条目分发到线程池并行删除
+     * @return 删除结果
+     */
+    @Override
+    public DeleteResult delete(String filePath, boolean parallel) {
+        appenders.evict(filePath);
+        return new FileDeleter().delete(new File(filePath), parallel);
+    }
+
     /**
      * 判断文件或文件夹是否存在
      *
@@ -149,6 +427,29 @@ public class FileStrategy implements Strategy {
         return new File(filePath).exists();
     }
 
+    /**
+     * 获取文件或文件夹的类型、大小和修改时间，符号链接不跟随
+     *
+     * @param filePath 文件或文件夹的路径
+     * @return 不存在时返回 null
+     */
+    @Override
+    public FileEntry stat(String filePath) {
+        appenders.flush(filePath);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            try {
+                return toFileEntry(new File(filePath).toPath());
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (IOException e) {
+                e.printStackTrace();
+                return null;
+            }
+        }
+        File file = new File(filePath);
+        return file.exists() ? toFileEntry(file) : null;
+    }
+
     /**
      * 复制文件或文件夹
      *
@@ -158,6 +459,8 @@ public class FileStrategy implements Strategy {
      */
     @Override
     public boolean copy(String sourcePath, String destPath) {
+        appenders.flush(sourcePath);
+        appenders.evict(destPath);
         File sourceFile = new File(sourcePath);
         File destFile = new File(destPath);
         try {
@@ -182,19 +485,62 @@ public class FileStrategy implements Strategy {
      */
     @Override
     public boolean move(String sourcePath, String destPath) {
+        return moveWithResult(sourcePath, destPath) != MoveResult.FAILED;
+    }
+
+    /**
+     * 移动文件或文件夹，同一存储卷内优先直接重命名
+     *
+     * @param sourcePath 源文件或文件夹的路径
+     * @param destPath 目标文件或文件夹的路径
+     * @return 实际采用的移动方式
+     */
+    @Override
+    public MoveResult moveWithResult(String sourcePath, String destPath) {
+        appenders.evict(sourcePath);
+        appenders.evict(destPath);
         File sourceFile = new File(sourcePath);
         File destFile = new File(destPath);
+        if (rename(sourceFile, destFile)) {
+            return MoveResult.RENAMED;
+        }
         try {
             if (sourceFile.isFile()) {
                 copyOrMoveFile(sourceFile, destFile, true);
             } else {
                 copyOrMoveDirectory(sourceFile, destFile, true);
             }
-            return true;
+            return MoveResult.COPIED;
         } catch (IOException e) {
             e.printStackTrace();
         }
-        return false;
+        return MoveResult.FAILED;
+    }
+
+    /**
+     * 增量复制文件，按块比较源文件与已有的目标文件，只写入内容不同的块，适用于只有少量改动的大文件
+     *
+     * @param sourcePath 源文件的路径
+     * @param destPath 目标文件的路径，不存在时等同于完整复制
+     * @return 复制结果，失败时返回 null
+     */
+    @Override
+    public DeltaCopyResult copyDelta(String sourcePath, String destPath) {
+        appenders.flush(sourcePath);
+        appenders.evict(destPath);
+        try {
+            createParentDirectory(destPath);
+            // "rw" 模式不截断文件，同一个通道既读取又写入目标文件
+            try (FileChannel in = new FileInputStream(sourcePath).getChannel();
+                 FileChannel out = new RandomAccessFile(destPath, "rw").getChannel();
+                 Tracer.Span span = Tracer.begin("FileStrategy.transfer")) {
+                long written = ChannelUtil.deltaCopy(in, out, out, ChannelUtil.DELTA_BLOCK_SIZE);
+                return new DeltaCopyResult(in.size(), written);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return null;
     }
 
     /**
@@ -242,6 +588,161 @@ public class FileStrategy implements Strategy {
         return list;
     }
 
+    /**
+     * 获取目录下的所有内容及其类型、大小和修改时间，只遍历一次目录
+     *
+     * @param dirPath 目录的路径
+     * @return 目录条目列表，符号链接不跟随
+     */
+    @Override
+    public List<FileEntry> list(String dirPath) {
+        List<FileEntry> list = new ArrayList<>();
+        try (FileEntryIterator iterator = iterate(dirPath)) {
+            FileEntry entry;
+            while ((entry = iterator.nextEntry()) != null) {
+                list.add(entry);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return list;
+    }
+
+    /**
+     * 按需遍历目录，条目在遍历时才从目录中读取
+     *
+     * @param dirPath 目录的路径
+     * @return 目录条目迭代器，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public FileEntryIterator iterate(String dirPath) throws IOException {
+        File dir = new File(dirPath).getAbsoluteFile();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            DirectoryStream<Path> stream = Files.newDirectoryStream(dir.toPath());
+            Iterator<Path> paths = stream.iterator();
+            return new FileEntryIterator() {
+                @Override
+                protected FileEntry readNext() throws IOException {
+                    try {
+                        while (paths.hasNext()) {
+                            try {
+                                return toFileEntry(paths.next());
+                            } catch (NoSuchFileException e) {
+                                // 遍历期间被删除
+                            }
+                        }
+                    } catch (DirectoryIteratorException e) {
+                        throw e.getCause();
+                    }
+                    return null;
+                }
+                
+                @Override
+                protected void release() throws IOException {
+                    stream.close();
+                }
+            };
+        }
+        
+        String[] names = dir.list();
+        if (names == null) {
+            throw new IOException("无法读取目录内容: " + dir.getAbsolutePath());
+        }
+        return new FileEntryIterator() {
+            private int index;
+            
+            @Override
+            protected FileEntry readNext() {
+                return index < names.length ? toFileEntry(new File(dir, names[index++])) : null;
+            }
+            
+            @Override
+            protected void release() {
+            }
+        };
+    }
+
+    /**
+     * 分页获取目录内容
+     *
+     * @param dirPath 目录的路径
+     * @param pageToken 上一页返回的令牌，为 null 时获取第一页
+     * @param pageSize 每页条目数
+     * @param sortByName 是否按名称排序，排序时需要遍历整个目录
+     * @return 一页目录条目
+     */
+    @Override
+    public ListPage listPage(String dirPath, String pageToken, int pageSize, boolean sortByName) {
+        try (FileEntryIterator iterator = iterate(dirPath)) {
+            return ListPager.page(iterator, pageToken, pageSize, sortByName);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return new ListPage(new ArrayList<>(), null);
+    }
+
+    /**
+     * 递归遍历目录树
+     *
+     * @param rootPath 根目录的路径
+     * @param options 遍历选项
+     * @return 满足条件的条目，不包含根目录
+     */
+    @Override
+    public List<FileEntry> walk(String rootPath, WalkOptions options) {
+        if (options.isParallel() || Build.VERSION.SDK_INT < Build.VERSION_CODES.O) {
+            return new FileWalker(options).walk(new File(rootPath).getAbsolutePath());
+        }
+        
+        List<FileEntry> list = new ArrayList<>();
+        Path root = new File(rootPath).getAbsoluteFile().toPath();
+        Set<FileVisitOption> visitOptions = options.isFollowSymlinks()
+                ? EnumSet.of(FileVisitOption.FOLLOW_LINKS) : EnumSet.noneOf(FileVisitOption.class);
+        try {
+            Files.walkFileTree(root, visitOptions, options.getMaxDepth(), new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+                    if (dir.equals(root)) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    FileEntry entry = toFileEntry(dir, attributes);
+                    if (options.accept(entry)) {
+                        list.add(entry);
+                    }
+                    return options.isPruned(entry) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+                }
+                
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    FileEntry entry = toFileEntry(file, attributes);
+                    if (options.accept(entry)) {
+                        list.add(entry);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+                
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    // 指向上级目录的链接与其他遍历方式一致，返回条目但不进入
+                    if (e instanceof FileSystemLoopException) {
+                        try {
+                            FileEntry entry = toFileEntry(file, Files.readAttributes(file, BasicFileAttributes.class));
+                            if (options.accept(entry)) {
+                                list.add(entry);
+                            }
+                        } catch (IOException ignored) {
+                        }
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return list;
+    }
+
     /**
      * 创建目录
      *
@@ -250,10 +751,9 @@ public class FileStrategy implements Strategy {
      */
     @Override
     public boolean createDirectory(String dirPath) {
-        if (!exists(dirPath)) {
-            return new File(dirPath).mkdirs();
-        }
-        return true;
+        // 先创建再检查，目录不存在时只需一次系统调用
+        File dir = new File(dirPath);
+        return dir.mkdirs() || dir.isDirectory();
     }
 
     /**
@@ -301,28 +801,94 @@ public class FileStrategy implements Strategy {
     }
     
     /**
-     * 删除文件夹
+     * 读取路径属性，符号链接不跟随
      *
-     * @param dir
+     * @param path
+     * @return
      * @throws IOException
      */
-    private void deleteDirectory(File dir) throws IOException {
-        if (dir.isDirectory()) {
-            File[] files = dir.listFiles();
-            if (files != null) {
-                for (File file : files) {
-                    deleteDirectory(file);
+    private static FileEntry toFileEntry(Path path) throws IOException {
+        return toFileEntry(path, Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS));
+    }
+    
+    private static FileEntry toFileEntry(Path path, BasicFileAttributes attributes) {
+        FileEntry.Type type;
+        if (attributes.isDirectory()) {
+            type = FileEntry.Type.DIRECTORY;
+        } else if (attributes.isRegularFile()) {
+            type = FileEntry.Type.FILE;
+        } else if (attributes.isSymbolicLink()) {
+            type = FileEntry.Type.SYMBOLIC_LINK;
+        } else {
+            type = FileEntry.Type.OTHER;
+        }
+        return new FileEntry(path.getFileName().toString(), path.toString(), type,
+                attributes.size(), attributes.lastModifiedTime().toMillis());
+    }
+    
+    /**
+     * 读取文件属性，适用于 Android 8.0 以下版本
+     *
+     * @param file
+     * @return
+     */
+    private static FileEntry toFileEntry(File file) {
+        FileEntry.Type type;
+        if (file.isDirectory()) {
+            type = FileEntry.Type.DIRECTORY;
+        } else if (file.isFile()) {
+            type = FileEntry.Type.FILE;
+        } else {
+            type = FileEntry.Type.OTHER;
+        }
+        return new FileEntry(file.getName(), file.getAbsolutePath(), type, file.length(), file.lastModified());
+    }
+    
+    /**
+     * 创建文件所在的目录
+     *
+     * @param filePath
+     * @throws IOException
+     */
+    private void createParentDirectory(String filePath) throws IOException {
+        File parentDir = new File(filePath).getParentFile();
+        if (parentDir != null && !parentDir.exists() && !parentDir.mkdirs()) {
+            throw new IOException("无法创建目录: " + parentDir.getAbsolutePath());
+        }
+    }
+    
+    /**
+     * 重命名文件或文件夹，跨存储卷时失败
+     *
+     * @param sourceFile
+     * @param destFile
+     * @return 是否重命名成功
+     */
+    private boolean rename(File sourceFile, File destFile) {
+        try (Tracer.Span span = Tracer.begin("FileStrategy.rename")) {
+            if (!sourceFile.exists()) {
+                return false;
+            }
+            File parentDir = destFile.getParentFile();
+            if (parentDir != null && !parentDir.exists() && !parentDir.mkdirs()) {
+                return false;
+            }
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+                try {
+                    Files.move(sourceFile.toPath(), destFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                    return true;
+                } catch (IOException e) {
+                    // 跨存储卷或目标为非空目录，交由复制处理
+                    return false;
                 }
             }
-        }
-        
-        if (!dir.delete()) {
-            throw new IOException("无法删除文件或目录: " + dir.getAbsolutePath());
+            return sourceFile.renameTo(destFile);
         }
     }
     
     /**
      * 复制或移动文件夹
+     * 先创建全部目标目录，再并行复制文件，移动时最后由深到浅删除源目录
      *
      * @param sourceDir
      * @param targetDir
@@ -330,28 +896,51 @@ public class FileStrategy implements Strategy {
      * @throws IOException
      */
     private void copyOrMoveDirectory(File sourceDir, File targetDir, boolean move) throws IOException {
+        List<File> dirs = new ArrayList<>();
+        List<File[]> files = new ArrayList<>();
+        collectDirectory(sourceDir, targetDir, dirs, files);
+
+        ParallelRunner.runAll(files, pair -> copyOrMoveFile(pair[0], pair[1], move));
+
+        if (move) {
+            for (int i = dirs.size() - 1; i >= 0; i--) {
+                File dir = dirs.get(i);
+                if (!dir.delete()) {
+                    throw new IOException("无法删除源目录: " + dir.getAbsolutePath());
+                }
+            }
+        }
+    }
+    
+    /**
+     * 遍历源目录，创建对应的目标目录，并收集需要复制的文件
+     *
+     * @param sourceDir
+     * @param targetDir
+     * @param dirs 源目录，父目录在子目录之前
+     * @param files 源文件与目标文件
+     * @throws IOException
+     */
+    private void collectDirectory(File sourceDir, File targetDir, List<File> dirs, List<File[]> files) throws IOException {
         if (!targetDir.exists() && !targetDir.mkdirs()) {
             throw new IOException("无法创建目标目录: " + targetDir.getAbsolutePath());
         }
 
-        File[] files = sourceDir.listFiles();
-        if (files == null) {
+        File[] children = sourceDir.listFiles();
+        if (children == null) {
             throw new IOException("无法读取源目录内容: " + sourceDir.getAbsolutePath());
         }
+        dirs.add(sourceDir);
 
-        for (File sourceFile : files) {
+        for (File sourceFile : children) {
             File targetFile = new File(targetDir, sourceFile.getName());
 
             if (sourceFile.isDirectory()) {
-                copyOrMoveDirectory(sourceFile, targetFile, move);
+                collectDirectory(sourceFile, targetFile, dirs, files);
             } else {
-                copyOrMoveFile(sourceFile, targetFile, move);
+                files.add(new File[]{sourceFile, targetFile});
             }
         }
-
-        if (move && !sourceDir.delete()) {
-            throw new IOException("无法删除源目录: " + sourceDir.getAbsolutePath());
-        }
     }
     
     /**
@@ -363,19 +952,106 @@ public class FileStrategy implements Strategy {
      * @throws IOException
      */
     private void copyOrMoveFile(File sourceFile, File targetFile, boolean move) throws IOException {
-        try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(sourceFile));
-            BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(targetFile))) {
+        try (Tracer.Span span = Tracer.begin("FileStrategy.transfer")) {
+            ChannelUtil.copyFile(sourceFile, targetFile);
 
-            byte[] buffer = new byte[8192];
-            int bytesRead;
-            while ((bytesRead = in.read(buffer)) != -1) {
-                out.write(buffer, 0, bytesRead);
+            if (move && !sourceFile.delete()) {
+                throw new IOException("无法删除源文件: " + sourceFile.getAbsolutePath());
             }
         }
+    }
 
-        if (move && !sourceFile.delete()) {
-            throw new IOException("无法删除源文件: " + sourceFile.getAbsolutePath());
+    
+    /**
+     * 本地文件删除，不跟随符号链接进入目标目录
+     */
+    private static class FileDeleter extends TreeDeleter<File> {
+        
+        @Override
+        protected List<File> listChildren(File dir) throws IOException {
+            File[] files = dir.listFiles();
+            if (files == null) {
+                throw new IOException("无法读取目录内容: " + dir.getAbsolutePath());
+            }
+            return Arrays.asList(files);
+        }
+        
+        @Override
+        protected boolean isDirectory(File file) {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+                return Files.isDirectory(file.toPath(), LinkOption.NOFOLLOW_LINKS);
+            }
+            return file.isDirectory();
+        }
+        
+        @Override
+        protected boolean deleteNode(File file) {
+            return file.delete();
+        }
+        
+        @Override
+        protected String getPath(File file) {
+            return file.getAbsolutePath();
+        }
+    }
+    
+    /**
+     * 并行遍历或 Android 8.0 以下版本使用的遍历
+     * 跟随符号链接时返回链接目标的属性，只跳过指向当前路径上某个上级目录的链接，与 Files.walkFileTree 一致
+     */
+    private class FileWalker extends TreeWalker {
+        
+        FileWalker(WalkOptions options) {
+            super(options);
+        }
+        
+        @Override
+        protected FileEntryIterator iterate(String dirPath) throws IOException {
+            FileEntryIterator iterator = FileStrategy.this.iterate(dirPath);
+            // Android 8.0 以下 File 的属性本身跟随链接
+            if (!options.isFollowSymlinks() || Build.VERSION.SDK_INT < Build.VERSION_CODES.O) {
+                return iterator;
+            }
+            return new FileEntryIterator() {
+                @Override
+                protected FileEntry readNext() throws IOException {
+                    FileEntry entry = iterator.nextEntry();
+                    return entry != null && entry.isSymbolicLink() ? followLink(entry) : entry;
+                }
+                
+                @Override
+                protected void release() throws IOException {
+                    iterator.close();
+                }
+            };
+        }
+        
+        @Override
+        protected Object getDirectoryKey(String dirPath) {
+            // Android 8.0 以下无法识别符号链接，总是检测循环
+            if (!options.isFollowSymlinks() && Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+                return null;
+            }
+            try {
+                return new File(dirPath).getCanonicalPath();
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        
+        /**
+         * 读取链接目标的属性，名称和路径仍为链接本身
+         *
+         * @param entry
+         * @return 目标不存在时返回链接本身的条目
+         */
+        private FileEntry followLink(FileEntry entry) {
+            Path path = new File(entry.getPath()).toPath();
+            try {
+                return toFileEntry(path, Files.readAttributes(path, BasicFileAttributes.class));
+            } catch (IOException e) {
+                return entry;
+            }
         }
     }
-
 }
@@ -0,0 +1,953 @@
+package cn.elevendev.io.strategy;
+
+import cn.elevendev.io.utils.LatencyHistogram;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.channels.spi.AbstractInterruptibleChannel;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 统计被包装策略每种操作的调用次数、失败次数、读写字节数和延迟分布
+ * 返回 false、null 或失败结果以及抛出异常都计为失败；流和通道的字节数在读写时累加，延迟只包含打开的时间
+ * 默认不包装 FileChannel，也不统计复制和移动的字节数，避免影响 transferTo 使用 sendfile 以及额外获取文件属性；
+ * 需要时在构造时开启文件字节统计
+ */
+public class InstrumentedStrategy extends DelegateStrategy {
+
+    private static ScheduledExecutorService scheduler;
+
+    private final String strategyName;
+    private final boolean countFileBytes;
+    private final ConcurrentHashMap<String, OperationMetrics> metrics = new ConcurrentHashMap<>();
+    private ScheduledFuture<?> reportTask;
+
+    public InstrumentedStrategy(Strategy strategy) {
+        this(strategy, false);
+    }
+
+    /**
+     * @param countFileBytes 是否统计 FileChannel 的读写字节数和复制、移动文件的字节数
+     *                       开启后 FileChannel 被包装，transferTo 不再能使用 sendfile，复制和移动前额外获取一次源文件的属性
+     */
+    public InstrumentedStrategy(Strategy strategy, boolean countFileBytes) {
+        super(strategy);
+        this.strategyName = strategy.getClass().getSimpleName();
+        this.countFileBytes = countFileBytes;
+    }
+
+    /**
+     * 获取当前的统计快照
+     *
+     * @return
+     */
+    public MetricsSnapshot getSnapshot() {
+        Map<String, MetricsSnapshot.OperationStats> operations = new TreeMap<>();
+        for (Map.Entry<String, OperationMetrics> entry : metrics.entrySet()) {
+            operations.put(entry.getKey(), entry.getValue().toStats());
+        }
+        return new MetricsSnapshot(strategyName, System.currentTimeMillis(), operations);
+    }
+
+    /**
+     * 清空所有统计
+     */
+    public void reset() {
+        metrics.clear();
+    }
+
+    /**
+     * 设置定时输出统计的报告器
+     *
+     * @param reporter 报告器，为 null 时停止输出
+     * @param intervalMillis 输出间隔
+     */
+    public synchronized void setReporter(MetricsReporter reporter, long intervalMillis) {
+        if (reportTask != null) {
+            reportTask.cancel(false);
+            reportTask = null;
+        }
+        if (reporter == null) {
+            return;
+        }
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("输出间隔必须大于 0: " + intervalMillis);
+        }
+        reportTask = getScheduler().scheduleWithFixedDelay(() -> {
+            try {
+                reporter.report(getSnapshot());
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 读取文件内容
+     *
+     * @param filePath 文件路径
+     * @return 文件内容的字符串表示
+     */
+    @Override
+    public String readFile(String filePath) {
+        String result = measure("readFile", () -> strategy.readFile(filePath));
+        if (result != null) {
+            addBytes("readFile", utf8Length(result));
+        }
+        return result;
+    }
+
+    /**
+     * 逐行读取文件，按需读取，不会一次性加载整个文件
+     *
+     * @param filePath 文件路径
+     * @return 行迭代器，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public LineIterator readLines(String filePath) throws IOException {
+        return measureIO("readLines", () -> strategy.readLines(filePath));
+    }
+
+    /**
+     * 逐行读取文件并回调每一行，内存占用与文件大小无关
+     *
+     * @param filePath 文件路径
+     * @param callback 行回调
+     * @return 是否读取成功
+     */
+    @Override
+    public boolean forEachLine(String filePath, LineCallback callback) {
+        return measure("forEachLine", () -> strategy.forEachLine(filePath, callback));
+    }
+
+    /**
+     * 读取文件内容，返回字节数组
+     *
+     * @param filePath 文件路径
+     * @return 字节数组
+     */
+    @Override
+    public byte[] readFileAsBytes(String filePath) {
+        byte[] result = measure("readFileAsBytes", () -> strategy.readFileAsBytes(filePath));
+        if (result != null) {
+            addBytes("readFileAsBytes", result.length);
+        }
+        return result;
+    }
+
+    /**
+     * 打开文件输入流，用于流式读取大文件
+     *
+     * @param filePath 文件路径
+     * @return 输入流，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public InputStream openInputStream(String filePath) throws IOException {
+        InputStream is = measureIO("openInputStream", () -> strategy.openInputStream(filePath));
+        return new CountingInputStream(is, getMetrics("openInputStream").bytes);
+    }
+
+    /**
+     * 打开文件读取通道
+     *
+     * @param filePath 文件路径
+     * @return 读取通道，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public ReadableByteChannel openReadableChannel(String filePath) throws IOException {
+        ReadableByteChannel channel = measureIO("openReadableChannel", () -> strategy.openReadableChannel(filePath));
+        AtomicLong bytes = getMetrics("openReadableChannel").bytes;
+        if (channel instanceof FileChannel) {
+            // 保留 FileChannel 类型，调用方仍可按位置并行读取
+            return countFileBytes ? new CountingFileChannel((FileChannel) channel, bytes) : channel;
+        }
+        return new CountingReadableChannel(channel, bytes);
+    }
+
+    /**
+     * 以只读方式将文件映射到内存，不占用 Java 堆，文件不能超过 2GB
+     *
+     * @param filePath 文件路径
+     * @return 只读的映射缓冲区
+     * @throws IOException
+     */
+    @Override
+    public MappedByteBuffer mapFile(String filePath) throws IOException {
+        MappedByteBuffer result = measureIO("mapFile", () -> strategy.mapFile(filePath));
+        addBytes("mapFile", result.capacity());
+        return result;
+    }
+
+    /**
+     * 以只读方式将文件分段映射到内存，适用于超过 2GB 的文件
+     *
+     * @param filePath 文件路径
+     * @return 按文件顺序排列的只读映射缓冲区
+     * @throws IOException
+     */
+    @Override
+    public List<MappedByteBuffer> mapFileSegments(String filePath) throws IOException {
+        List<MappedByteBuffer> result = measureIO("mapFileSegments", () -> strategy.mapFileSegments(filePath));
+        long bytes = 0;
+        for (MappedByteBuffer segment : result) {
+            bytes += segment.capacity();
+        }
+        addBytes("mapFileSegments", bytes);
+        return result;
+    }
+
+    /**
+     * 读取文件中指定范围的数据，不读取范围以外的内容
+     *
+     * @param filePath 文件路径
+     * @param offset 起始位置
+     * @param length 读取的字节数
+     * @return 读取的数据，到达文件末尾时可能少于 length，失败时返回 null
+     */
+    @Override
+    public byte[] readRange(String filePath, long offset, int length) {
+        byte[] result = measure("readRange", () -> strategy.readRange(filePath, offset, length));
+        if (result != null) {
+            addBytes("readRange", result.length);
+        }
+        return result;
+    }
+
+    /**
+     * 写入字符内容到文件
+     *
+     * @param filePath 文件路径
+     * @param content 要写入的内容
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeFile(String filePath, String content) {
+        boolean result = measure("writeFile", () -> strategy.writeFile(filePath, content));
+        if (result) {
+            addBytes("writeFile", utf8Length(content));
+        }
+        return result;
+    }
+
+    /**
+     * 写入字节数组到文件
+     *
+     * @param filePath 文件路径
+     * @param data 要写入的字节数组
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeFile(String filePath, byte[] data) {
+        boolean result = measure("writeFile", () -> strategy.writeFile(filePath, data));
+        if (result) {
+            addBytes("writeFile", data.length);
+        }
+        return result;
+    }
+
+    /**
+     * 按指定模式写入字符内容到文件
+     *
+     * @param filePath 文件路径
+     * @param content 要写入的内容
+     * @param mode 写入模式，DURABLE 在返回前保证数据已同步到磁盘
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeFile(String filePath, String content, WriteMode mode) {
+        String operation = mode == WriteMode.DURABLE ? "writeFileDurable" : "writeFile";
+        boolean result = measure(operation, () -> strategy.writeFile(filePath, content, mode));
+        if (result) {
+            addBytes(operation, utf8Length(content));
+        }
+        return result;
+    }
+
+    /**
+     * 按指定模式写入字节数组到文件
+     *
+     * @param filePath 文件路径
+     * @param data 要写入的字节数组
+     * @param mode 写入模式，DURABLE 在返回前保证数据已同步到磁盘
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeFile(String filePath, byte[] data, WriteMode mode) {
+        String operation = mode == WriteMode.DURABLE ? "writeFileDurable" : "writeFile";
+        boolean result = measure(operation, () -> strategy.writeFile(filePath, data, mode));
+        if (result) {
+            addBytes(operation, data.length);
+        }
+        return result;
+    }
+
+    /**
+     * 从指定位置写入数据，覆盖该范围内的原有内容，不截断文件，文件不存在时创建
+     *
+     * @param filePath 文件路径
+     * @param offset 起始位置，超过文件末尾时中间以 0 填充
+     * @param data 要写入的数据
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeRange(String filePath, long offset, byte[] data) {
+        boolean result = measure("writeRange", () -> strategy.writeRange(filePath, offset, data));
+        if (result) {
+            addBytes("writeRange", data.length);
+        }
+        return result;
+    }
+
+    /**
+     * 打开文件输出流，用于流式写入大文件
+     *
+     * @param filePath 文件路径
+     * @param append 如果为 true 追加到文件末尾，如果为 false 清空文件后写入
+     * @return 输出流，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public OutputStream openOutputStream(String filePath, boolean append) throws IOException {
+        OutputStream os = measureIO("openOutputStream", () -> strategy.openOutputStream(filePath, append));
+        return new CountingOutputStream(os, getMetrics("openOutputStream").bytes);
+    }
+
+    /**
+     * 打开文件写入通道
+     *
+     * @param filePath 文件路径
+     * @param append 如果为 true 追加到文件末尾，如果为 false 清空文件后写入
+     * @return 写入通道，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public WritableByteChannel openWritableChannel(String filePath, boolean append) throws IOException {
+        WritableByteChannel channel = measureIO("openWritableChannel", () -> strategy.openWritableChannel(filePath, append));
+        AtomicLong bytes = getMetrics("openWritableChannel").bytes;
+        if (channel instanceof FileChannel) {
+            return countFileBytes ? new CountingFileChannel((FileChannel) channel, bytes) : channel;
+        }
+        return new CountingWritableChannel(channel, bytes);
+    }
+
+    /**
+     * 追加字节数组到文件末尾，数据先进入共享缓冲区，最迟在刷新间隔后写入文件
+     *
+     * @param filePath 文件路径
+     * @param data 要追加的数据
+     * @return 是否写入缓冲区成功
+     */
+    @Override
+    public boolean append(String filePath, byte[] data) {
+        boolean result = measure("append", () -> strategy.append(filePath, data));
+        if (result) {
+            addBytes("append", data.length);
+        }
+        return result;
+    }
+
+    /**
+     * 打开追加写入器，同一路径的写入器共享一个打开的输出流，适用于频繁追加小块数据
+     *
+     * @param filePath 文件路径
+     * @return 写入器，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public Appender openAppender(String filePath) throws IOException {
+        return measureIO("openAppender", () -> strategy.openAppender(filePath));
+    }
+
+    /**
+     * 删除文件或文件夹
+     *
+     * @param filePath 文件或文件夹的路径
+     * @return 是否删除成功
+     */
+    @Override
+    public boolean delete(String filePath) {
+        return measure("delete", () -> strategy.delete(filePath));
+    }
+
+    /**
+     * 删除文件或文件夹，并返回统计结果
+     *
+     * @param filePath 文件或文件夹的路径
+     * @param parallel 是否将文件夹内的条目分发到线程池并行删除
+     * @return 删除结果
+     */
+    @Override
+    public DeleteResult delete(String filePath, boolean parallel) {
+        return measure("delete", () -> strategy.delete(filePath, parallel));
+    }
+
+    /**
+     * 判断文件或文件夹是否存在
+     *
+     * @param filePath 文件或文件夹的路径
+     * @return 是否存在
+     */
+    @Override
+    public boolean exists(String filePath) {
+        // 不存在是正常结果，不计为失败
+        OperationMetrics operationMetrics = getMetrics("exists");
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            boolean result = strategy.exists(filePath);
+            failed = false;
+            return result;
+        } finally {
+            operationMetrics.record(System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * 获取文件或文件夹的类型、大小和修改时间，符号链接不跟随
+     *
+     * @param filePath 文件或文件夹的路径
+     * @return 不存在时返回 null
+     */
+    @Override
+    public FileEntry stat(String filePath) {
+        // 不存在是正常结果，不计为失败
+        OperationMetrics operationMetrics = getMetrics("stat");
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            FileEntry result = strategy.stat(filePath);
+            failed = false;
+            return result;
+        } finally {
+            operationMetrics.record(System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * 复制文件或文件夹
+     *
+     * @param sourcePath 源文件或文件夹的路径
+     * @param destPath 目标文件或文件夹的路径
+     * @return 是否复制成功
+     */
+    @Override
+    public boolean copy(String sourcePath, String destPath) {
+        long size = getFileSize(sourcePath);
+        boolean result = measure("copy", () -> strategy.copy(sourcePath, destPath));
+        if (result) {
+            addBytes("copy", size);
+        }
+        return result;
+    }
+
+    /**
+     * 移动文件或文件夹
+     *
+     * @param sourcePath 源文件或文件夹的路径
+     * @param destPath 目标文件或文件夹的路径
+     * @return 是否移动成功
+     */
+    @Override
+    public boolean move(String sourcePath, String destPath) {
+        long size = getFileSize(sourcePath);
+        boolean result = measure("move", () -> strategy.move(sourcePath, destPath));
+        if (result) {
+            addBytes("move", size);
+        }
+        return result;
+    }
+
+    /**
+     * 移动文件或文件夹，同一存储卷内优先直接重命名
+     *
+     * @param sourcePath 源文件或文件夹的路径
+     * @param destPath 目标文件或文件夹的路径
+     * @return 实际采用的移动方式
+     */
+    @Override
+    public MoveResult moveWithResult(String sourcePath, String destPath) {
+        long size = getFileSize(sourcePath);
+        MoveResult result = measure("move", () -> strategy.moveWithResult(sourcePath, destPath));
+        // 重命名没有移动数据
+        if (result == MoveResult.COPIED) {
+            addBytes("move", size);
+        }
+        return result;
+    }
+
+    /**
+     * 增量复制文件，按块比较源文件与已有的目标文件，只写入内容不同的块，适用于只有少量改动的大文件
+     *
+     * @param sourcePath 源文件的路径
+     * @param destPath 目标文件的路径，不存在时等同于完整复制
+     * @return 复制结果，失败时返回 null
+     */
+    @Override
+    public DeltaCopyResult copyDelta(String sourcePath, String destPath) {
+        DeltaCopyResult result = measure("copyDelta", () -> strategy.copyDelta(sourcePath, destPath));
+        if (result != null) {
+            addBytes("copyDelta", result.getBytesWritten());
+        }
+        return result;
+    }
+
+    /**
+     * 获取目录下的所有内容（文件和文件夹）
+     *
+     * @param dirPath 目录的路径
+     * @return 目录下所有内容的名称列表
+     */
+    @Override
+    public List<String> getList(String dirPath) {
+        return measure("getList", () -> strategy.getList(dirPath));
+    }
+
+    /**
+     * 获取目录下的文件或文件夹列表
+     *
+     * @param dirPath 目录的路径
+     * @param listDirectories 如果为 true 列出文件夹，如果为 false 列出文件
+     * @return 目录下的文件或文件夹名称列表
+     */
+    @Override
+    public List<String> getList(String dirPath, boolean listDirectories) {
+        return measure("getList", () -> strategy.getList(dirPath, listDirectories));
+    }
+
+    /**
+     * 获取目录下的所有内容及其类型、大小和修改时间，只遍历一次目录
+     *
+     * @param dirPath 目录的路径
+     * @return 目录条目列表，符号链接不跟随
+     */
+    @Override
+    public List<FileEntry> list(String dirPath) {
+        return measure("list", () -> strategy.list(dirPath));
+    }
+
+    /**
+     * 按需遍历目录，条目在遍历时才从目录中读取
+     *
+     * @param dirPath 目录的路径
+     * @return 目录条目迭代器，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public FileEntryIterator iterate(String dirPath) throws IOException {
+        return measureIO("iterate", () -> strategy.iterate(dirPath));
+    }
+
+    /**
+     * 分页获取目录内容
+     *
+     * @param dirPath 目录的路径
+     * @param pageToken 上一页返回的令牌，为 null 时获取第一页
+     * @param pageSize 每页条目数
+     * @param sortByName 是否按名称排序，排序时需要遍历整个目录
+     * @return 一页目录条目
+     */
+    @Override
+    public ListPage listPage(String dirPath, String pageToken, int pageSize, boolean sortByName) {
+        return measure("listPage", () -> strategy.listPage(dirPath, pageToken, pageSize, sortByName));
+    }
+
+    /**
+     * 递归遍历目录树
+     *
+     * @param rootPath 根目录的路径
+     * @param options 遍历选项
+     * @return 满足条件的条目，不包含根目录
+     */
+    @Override
+    public List<FileEntry> walk(String rootPath, WalkOptions options) {
+        return measure("walk", () -> strategy.walk(rootPath, options));
+    }
+
+    /**
+     * 创建目录
+     *
+     * @param dirPath 目录的路径
+     * @return 是否创建成功
+     */
+    @Override
+    public boolean createDirectory(String dirPath) {
+        return measure("createDirectory", () -> strategy.createDirectory(dirPath));
+    }
+
+    private <T> T measure(String operation, Call<T> call) {
+        OperationMetrics operationMetrics = getMetrics(operation);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = call.call();
+            failed = isFailure(result);
+            return result;
+        } finally {
+            operationMetrics.record(System.nanoTime() - start, failed);
+        }
+    }
+
+    private <T> T measureIO(String operation, IOCall<T> call) throws IOException {
+        OperationMetrics operationMetrics = getMetrics(operation);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = call.call();
+            failed = isFailure(result);
+            return result;
+        } finally {
+            operationMetrics.record(System.nanoTime() - start, failed);
+        }
+    }
+
+    private OperationMetrics getMetrics(String operation) {
+        OperationMetrics operationMetrics = metrics.get(operation);
+        if (operationMetrics == null) {
+            OperationMetrics created = new OperationMetrics();
+            operationMetrics = metrics.putIfAbsent(operation, created);
+            if (operationMetrics == null) {
+                operationMetrics = created;
+            }
+        }
+        return operationMetrics;
+    }
+
+    /**
+     * 获取文件大小，不计入统计，未开启文件字节统计时不获取
+     *
+     * @param filePath
+     * @return 不是文件、不存在或未开启时返回 0
+     */
+    private long getFileSize(String filePath) {
+        if (!countFileBytes) {
+            return 0;
+        }
+        FileEntry entry = strategy.stat(filePath);
+        return entry != null && entry.isFile() ? entry.getSize() : 0;
+    }
+
+    private void addBytes(String operation, long bytes) {
+        getMetrics(operation).bytes.addAndGet(bytes);
+    }
+
+    private static boolean isFailure(Object result) {
+        if (result == null) {
+            return true;
+        }
+        if (result instanceof Boolean) {
+            return !(Boolean) result;
+        }
+        if (result instanceof MoveResult) {
+            return result == MoveResult.FAILED;
+        }
+        if (result instanceof DeleteResult) {
+            return !((DeleteResult) result).isSuccess();
+        }
+        return false;
+    }
+
+    /**
+     * 计算字符串按 UTF-8 编码后的字节数，不实际编码
+     *
+     * @param s
+     * @return
+     */
+    private static long utf8Length(String s) {
+        long length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static synchronized ScheduledExecutorService getScheduler() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "IOUtils-Metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return scheduler;
+    }
+
+    private interface Call<T> {
+        T call();
+    }
+
+    private interface IOCall<T> {
+        T call() throws IOException;
+    }
+
+    private static class OperationMetrics {
+
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+
+        void record(long nanos, boolean failed) {
+            latency.record(nanos);
+            if (failed) {
+                errors.incrementAndGet();
+            }
+        }
+
+        MetricsSnapshot.OperationStats toStats() {
+            return new MetricsSnapshot.OperationStats(latency.getCount(), errors.get(), bytes.get(),
+                    latency.getMeanNanos(), latency.getPercentileNanos(0.5), latency.getPercentileNanos(0.99),
+                    latency.getPercentileNanos(0.999), latency.getMaxNanos());
+        }
+    }
+
+    /**
+     * 读取时累加字节数的输入流
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        private final AtomicLong bytes;
+
+        CountingInputStream(InputStream in, AtomicLong bytes) {
+            super(in);
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b != -1) {
+                bytes.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = in.read(b, off, len);
+            if (count > 0) {
+                bytes.addAndGet(count);
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            return in.skip(n);
+        }
+    }
+
+    /**
+     * 写入时累加字节数的输出流
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private final AtomicLong bytes;
+
+        CountingOutputStream(OutputStream out, AtomicLong bytes) {
+            super(out);
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            bytes.incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            bytes.addAndGet(len);
+        }
+    }
+
+    /**
+     * 读取时累加字节数的通道
+     */
+    private static class CountingReadableChannel extends AbstractInterruptibleChannel implements ReadableByteChannel {
+
+        private final ReadableByteChannel channel;
+        private final AtomicLong bytes;
+
+        CountingReadableChannel(ReadableByteChannel channel, AtomicLong bytes) {
+            this.channel = channel;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            int count = channel.read(dst);
+            if (count > 0) {
+                bytes.addAndGet(count);
+            }
+            return count;
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * 写入时累加字节数的通道
+     */
+    private static class CountingWritableChannel extends AbstractInterruptibleChannel implements WritableByteChannel {
+
+        private final WritableByteChannel channel;
+        private final AtomicLong bytes;
+
+        CountingWritableChannel(WritableByteChannel channel, AtomicLong bytes) {
+            this.channel = channel;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            int count = channel.write(src);
+            bytes.addAndGet(count);
+            return count;
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * 读写时累加字节数的文件通道，包括按位置读写和 transferTo、transferFrom 传输的字节
+     */
+    private static class CountingFileChannel extends FileChannel {
+
+        private final FileChannel channel;
+        private final AtomicLong bytes;
+
+        CountingFileChannel(FileChannel channel, AtomicLong bytes) {
+            this.channel = channel;
+            this.bytes = bytes;
+        }
+
+        private <T extends Number> T count(T count) {
+            if (count.longValue() > 0) {
+                bytes.addAndGet(count.longValue());
+            }
+            return count;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return count(channel.read(dst));
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return count(channel.read(dsts, offset, length));
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return count(channel.read(dst, position));
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return count(channel.write(src));
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return count(channel.write(srcs, offset, length));
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return count(channel.write(src, position));
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return count(channel.transferTo(position, count, target));
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return count(channel.transferFrom(src, position, count));
+        }
+
+        @Override
+        public long position() throws IOException {
+            return channel.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            channel.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return channel.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            channel.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            channel.force(metaData);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return channel.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return channel.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return channel.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            channel.close();
+        }
+    }
+}
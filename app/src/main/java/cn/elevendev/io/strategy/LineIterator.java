@@ -0,0 +1,91 @@
+package cn.elevendev.io.strategy;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 按需逐行读取的迭代器，内存占用与文件大小无关，使用完毕后需要关闭
+ */
+public class LineIterator implements Iterator<String>, Closeable {
+
+    private final BufferedReader reader;
+    private String nextLine;
+    private boolean finished;
+
+    public LineIterator(InputStream inputStream) {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 读取下一行
+     *
+     * @return 下一行内容，不包含换行符，读取结束时返回 null
+     * @throws IOException
+     */
+    public String nextLine() throws IOException {
+        if (nextLine != null) {
+            String line = nextLine;
+            nextLine = null;
+            return line;
+        }
+        if (finished) {
+            return null;
+        }
+        String line = reader.readLine();
+        if (line == null) {
+            finished = true;
+        }
+        return line;
+    }
+
+    /**
+     * 是否还有下一行
+     *
+     * @return
+     * @throws IllegalStateException 读取失败
+     */
+    @Override
+    public boolean hasNext() {
+        if (nextLine != null) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        try {
+            nextLine = nextLine();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return nextLine != null;
+    }
+
+    /**
+     * 获取下一行
+     *
+     * @return 下一行内容，不包含换行符
+     * @throws IllegalStateException 读取失败
+     */
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String line = nextLine;
+        nextLine = null;
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        nextLine = null;
+        reader.close();
+    }
+}
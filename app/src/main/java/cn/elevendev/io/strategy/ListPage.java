@@ -0,0 +1,40 @@
+package cn.elevendev.io.strategy;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 分页列出目录的一页结果
+ */
+public class ListPage {
+    
+    private final List<FileEntry> entries;
+    private final String nextPageToken;
+    
+    public ListPage(List<FileEntry> entries, String nextPageToken) {
+        this.entries = Collections.unmodifiableList(entries);
+        this.nextPageToken = nextPageToken;
+    }
+    
+    /**
+     * 获取本页的条目
+     *
+     * @return
+     */
+    public List<FileEntry> getEntries() {
+        return entries;
+    }
+    
+    /**
+     * 获取下一页的令牌，传给 listPage 获取下一页
+     *
+     * @return 没有下一页时返回 null
+     */
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+    
+    public boolean hasNextPage() {
+        return nextPageToken != null;
+    }
+}
@@ -0,0 +1,120 @@
+package cn.elevendev.io.strategy;
+
+import java.io.IOException;
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * 从目录迭代器中截取一页，页令牌为本页在目录中的起始位置
+ */
+class ListPager {
+    
+    /**
+     * 列表和堆的初始容量上限，每页条目数很大时不预先分配
+     */
+    private static final int MAX_INITIAL_CAPACITY = 1024;
+    
+    /**
+     * 截取一页
+     * 不排序时只读取到本页末尾；按名称排序时需要遍历整个目录，
+     * 但只保留排在本页及之前的条目，每个名称的排序键只计算一次
+     *
+     * @param iterator 目录迭代器
+     * @param pageToken 页令牌，为 null 时从第一页开始
+     * @param pageSize 每页条目数
+     * @param sortByName 是否按当前语言的排序规则按名称排序
+     * @return
+     * @throws IOException
+     */
+    static ListPage page(FileEntryIterator iterator, String pageToken, int pageSize, boolean sortByName) throws IOException {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("每页条目数必须大于 0: " + pageSize);
+        }
+        int offset = parseToken(pageToken);
+        if ((long) offset + pageSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("页令牌与每页条目数之和超出范围: " + pageToken + " + " + pageSize);
+        }
+        return sortByName ? sortedPage(iterator, offset, pageSize) : page(iterator, offset, pageSize);
+    }
+    
+    private static ListPage page(FileEntryIterator iterator, int offset, int pageSize) throws IOException {
+        for (int i = 0; i < offset; i++) {
+            if (iterator.nextEntry() == null) {
+                return new ListPage(new ArrayList<>(), null);
+            }
+        }
+        
+        List<FileEntry> entries = new ArrayList<>(Math.min(pageSize, MAX_INITIAL_CAPACITY));
+        FileEntry entry;
+        while (entries.size() < pageSize && (entry = iterator.nextEntry()) != null) {
+            entries.add(entry);
+        }
+        String nextPageToken = entries.size() == pageSize && iterator.hasNext() ? String.valueOf(offset + pageSize) : null;
+        return new ListPage(entries, nextPageToken);
+    }
+    
+    private static ListPage sortedPage(FileEntryIterator iterator, int offset, int pageSize) throws IOException {
+        Collator collator = Collator.getInstance();
+        int limit = (int) Math.min((long) offset + pageSize, Integer.MAX_VALUE);
+        // 大顶堆，只保留排序靠前的 limit 个条目
+        PriorityQueue<KeyedEntry> heap = new PriorityQueue<>(Math.min(limit, MAX_INITIAL_CAPACITY), Collections.reverseOrder());
+        boolean hasMore = false;
+        
+        FileEntry entry;
+        while ((entry = iterator.nextEntry()) != null) {
+            KeyedEntry keyed = new KeyedEntry(collator.getCollationKey(entry.getName()), entry);
+            if (heap.size() < limit) {
+                heap.add(keyed);
+            } else {
+                hasMore = true;
+                if (keyed.compareTo(heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(keyed);
+                }
+            }
+        }
+        
+        List<KeyedEntry> sorted = new ArrayList<>(heap);
+        Collections.sort(sorted);
+        List<FileEntry> entries = new ArrayList<>(Math.max(0, sorted.size() - offset));
+        for (int i = offset; i < sorted.size(); i++) {
+            entries.add(sorted.get(i).entry);
+        }
+        return new ListPage(entries, hasMore ? String.valueOf(limit) : null);
+    }
+    
+    private static int parseToken(String pageToken) {
+        if (pageToken == null) {
+            return 0;
+        }
+        try {
+            int offset = Integer.parseInt(pageToken);
+            if (offset >= 0) {
+                return offset;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException("无效的页令牌: " + pageToken);
+    }
+    
+    private static class KeyedEntry implements Comparable<KeyedEntry> {
+        
+        final CollationKey key;
+        final FileEntry entry;
+        
+        KeyedEntry(CollationKey key, FileEntry entry) {
+            this.key = key;
+            this.entry = entry;
+        }
+        
+        @Override
+        public int compareTo(KeyedEntry other) {
+            int result = key.compareTo(other.key);
+            return result != 0 ? result : entry.getName().compareTo(other.entry.getName());
+        }
+    }
+}
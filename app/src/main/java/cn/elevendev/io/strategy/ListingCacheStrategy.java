@@ -0,0 +1,210 @@
+package cn.elevendev.io.strategy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 缓存目录的一次遍历结果，getList 的各个版本和 list 都由同一份结果生成
+ * 每次使用前用 stat 比较目录的修改时间，文档提供者的目录比较 COLUMN_LAST_MODIFIED，无法获取修改时间的目录不缓存
+ * 目录的修改时间只在增删或重命名条目时变化，绕过本实例修改文件内容时，list 返回的大小和修改时间可能是旧的
+ * 条目类型不跟随符号链接，符号链接不计入 getList 返回的文件或文件夹
+ */
+public class ListingCacheStrategy extends CachingStrategy {
+
+    /**
+     * 默认最多缓存的目录数
+     */
+    public static final int DEFAULT_MAX_DIRECTORIES = 256;
+
+    private final int maxDirectories;
+    private final LinkedHashMap<String, Listing> listings = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public ListingCacheStrategy(Strategy strategy) {
+        this(strategy, DEFAULT_MAX_DIRECTORIES);
+    }
+
+    /**
+     * @param maxDirectories 最多缓存的目录数，超过时淘汰最近最少使用的目录
+     */
+    public ListingCacheStrategy(Strategy strategy, int maxDirectories) {
+        super(strategy);
+        if (maxDirectories <= 0) {
+            throw new IllegalArgumentException("最大目录数必须大于 0: " + maxDirectories);
+        }
+        this.maxDirectories = maxDirectories;
+    }
+
+    /**
+     * 获取命中统计，大小为缓存的条目总数
+     *
+     * @return
+     */
+    public CacheStats getStats() {
+        synchronized (listings) {
+            long size = 0;
+            for (Listing listing : listings.values()) {
+                size += listing.entries.size();
+            }
+            return new CacheStats(hitCount.get(), missCount.get(), evictionCount.get(), listings.size(), size);
+        }
+    }
+
+    /**
+     * 清空所有目录，不重置统计
+     */
+    public void clear() {
+        synchronized (listings) {
+            listings.clear();
+        }
+    }
+
+    /**
+     * 获取目录下的所有内容（文件和文件夹）
+     *
+     * @param dirPath 目录的路径
+     * @return 目录下所有内容的路径列表
+     */
+    @Override
+    public List<String> getList(String dirPath) {
+        List<FileEntry> entries = getEntries(dirPath);
+        if (entries == null) {
+            return strategy.getList(dirPath);
+        }
+        String parentPath = trimEnd(dirPath);
+        List<String> list = new ArrayList<>(entries.size());
+        for (FileEntry entry : entries) {
+            list.add(parentPath + "/" + entry.getName());
+        }
+        return list;
+    }
+
+    /**
+     * 获取目录下的文件或文件夹列表
+     *
+     * @param dirPath 目录的路径
+     * @param listDirectories 如果为 true 列出文件夹，如果为 false 列出文件
+     * @return 目录下的文件或文件夹路径列表
+     */
+    @Override
+    public List<String> getList(String dirPath, boolean listDirectories) {
+        List<FileEntry> entries = getEntries(dirPath);
+        if (entries == null) {
+            return strategy.getList(dirPath, listDirectories);
+        }
+        String parentPath = trimEnd(dirPath);
+        List<String> list = new ArrayList<>();
+        for (FileEntry entry : entries) {
+            if (entry.isSymbolicLink()) {
+                // 缓存的类型不跟随符号链接，而未缓存的结果按链接目标分类，交给被装饰的策略保证结果一致
+                return strategy.getList(dirPath, listDirectories);
+            }
+            if (listDirectories ? entry.isDirectory() : entry.isFile()) {
+                list.add(parentPath + "/" + entry.getName());
+            }
+        }
+        return list;
+    }
+
+    /**
+     * 获取目录下的所有内容及其类型、大小和修改时间
+     *
+     * @param dirPath 目录的路径
+     * @return 目录条目列表，符号链接不跟随
+     */
+    @Override
+    public List<FileEntry> list(String dirPath) {
+        List<FileEntry> entries = getEntries(dirPath);
+        if (entries == null) {
+            return strategy.list(dirPath);
+        }
+        return new ArrayList<>(entries);
+    }
+
+    @Override
+    protected void invalidate(String path) {
+        path = trimEnd(path);
+        synchronized (listings) {
+            Iterator<String> iterator = listings.keySet().iterator();
+            while (iterator.hasNext()) {
+                String key = iterator.next();
+                // 修改会改变上级目录中条目的大小和修改时间，也可能创建上级目录
+                if (isSameOrDescendant(key, path) || isSameOrDescendant(path, key)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取目录的条目，修改时间没有变化时使用缓存，否则重新遍历
+     *
+     * @param dirPath
+     * @return 不是目录、无法获取修改时间或遍历失败时返回 null，由调用方交给被包装的策略
+     */
+    private List<FileEntry> getEntries(String dirPath) {
+        String key = trimEnd(dirPath);
+        FileEntry stat = strategy.stat(dirPath);
+        if (stat == null || !stat.isDirectory() || stat.getLastModified() <= 0) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        synchronized (listings) {
+            Listing listing = listings.get(key);
+            if (listing != null) {
+                if (listing.lastModified == stat.getLastModified()) {
+                    hitCount.incrementAndGet();
+                    return listing.entries;
+                }
+                listings.remove(key);
+            }
+        }
+        missCount.incrementAndGet();
+
+        long generation = getGeneration();
+        // list 在出错时返回空列表，无法与空目录区分，改用 iterate 以便出错时不缓存
+        List<FileEntry> entries = new ArrayList<>();
+        try (FileEntryIterator iterator = strategy.iterate(dirPath)) {
+            FileEntry entry;
+            while ((entry = iterator.nextEntry()) != null) {
+                entries.add(entry);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+        synchronized (listings) {
+            if (generation == getGeneration()) {
+                listings.put(key, new Listing(stat.getLastModified(), entries));
+                Iterator<Listing> iterator = listings.values().iterator();
+                while (listings.size() > maxDirectories && iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                    evictionCount.incrementAndGet();
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * 目录的一次遍历结果及遍历前的修改时间
+     */
+    private static class Listing {
+
+        final long lastModified;
+        final List<FileEntry> entries;
+
+        Listing(long lastModified, List<FileEntry> entries) {
+            this.lastModified = lastModified;
+            this.entries = new ArrayList<>(entries);
+        }
+    }
+}
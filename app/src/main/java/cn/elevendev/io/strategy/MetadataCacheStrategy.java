@@ -0,0 +1,238 @@
+package cn.elevendev.io.strategy;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 缓存 exists 和 stat 的结果，包括不存在的结果，条目在有效期后过期
+ * 路径存在时它的所有上级文件夹也记为存在；上级文件夹记为不存在时，其下的路径直接判断为不存在
+ * 经由本实例的修改操作会使该路径、其下的路径以及所有上级文件夹的条目失效
+ * 经由本实例打开的流、通道和追加写入器在打开和关闭时各失效一次，写入期间 stat 可能返回旧的大小和修改时间
+ */
+public class MetadataCacheStrategy extends CachingStrategy {
+
+    /**
+     * 默认的最大条目数
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 4096;
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * @param ttlMillis 条目有效期，毫秒
+     */
+    public MetadataCacheStrategy(Strategy strategy, long ttlMillis) {
+        this(strategy, ttlMillis, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param ttlMillis 条目有效期，毫秒
+     * @param maxEntries 最大条目数，超过时淘汰最近最少使用的条目
+     */
+    public MetadataCacheStrategy(Strategy strategy, long ttlMillis, int maxEntries) {
+        super(strategy);
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("有效期必须大于 0: " + ttlMillis);
+        }
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("最大条目数必须大于 0: " + maxEntries);
+        }
+        this.ttlNanos = ttlMillis * 1000000L;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * 获取命中统计，大小为条目数
+     *
+     * @return
+     */
+    public CacheStats getStats() {
+        synchronized (entries) {
+            return new CacheStats(hitCount.get(), missCount.get(), evictionCount.get(), entries.size(), entries.size());
+        }
+    }
+
+    /**
+     * 清空所有条目，不重置统计
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * 判断文件或文件夹是否存在
+     *
+     * @param filePath 文件或文件夹的路径
+     * @return 是否存在
+     */
+    @Override
+    public boolean exists(String filePath) {
+        String path = trimEnd(filePath);
+        synchronized (entries) {
+            Entry entry = lookup(path);
+            if (entry != null) {
+                hitCount.incrementAndGet();
+                return entry.exists;
+            }
+        }
+        missCount.incrementAndGet();
+
+        long generation = getGeneration();
+        boolean exists = strategy.exists(filePath);
+        store(path, generation, exists, null, false);
+        return exists;
+    }
+
+    /**
+     * 获取文件或文件夹的类型、大小和修改时间，符号链接不跟随
+     *
+     * @param filePath 文件或文件夹的路径
+     * @return 不存在时返回 null
+     */
+    @Override
+    public FileEntry stat(String filePath) {
+        String path = trimEnd(filePath);
+        synchronized (entries) {
+            Entry entry = lookup(path);
+            if (entry != null && (entry.statKnown || !entry.exists)) {
+                hitCount.incrementAndGet();
+                return entry.stat;
+            }
+        }
+        missCount.incrementAndGet();
+
+        long generation = getGeneration();
+        FileEntry stat = strategy.stat(filePath);
+        // 指向不存在目标的符号链接 stat 不为 null，但 exists 为 false
+        boolean exists = stat != null && !stat.isSymbolicLink();
+        if (stat == null || exists) {
+            store(path, generation, exists, stat, true);
+        }
+        return stat;
+    }
+
+    @Override
+    protected void invalidate(String path) {
+        path = trimEnd(path);
+        synchronized (entries) {
+            Iterator<String> iterator = entries.keySet().iterator();
+            while (iterator.hasNext()) {
+                String key = iterator.next();
+                // 创建或删除会改变上级文件夹的修改时间，也可能创建上级文件夹
+                if (isSameOrDescendant(key, path) || isSameOrDescendant(path, key)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * 查找路径的有效条目，没有时检查是否有上级文件夹记为不存在，需要持有 entries 的锁
+     *
+     * @param path
+     * @return 无法判断时返回 null
+     */
+    private Entry lookup(String path) {
+        long now = System.nanoTime();
+        Entry entry = getFresh(path, now);
+        if (entry != null) {
+            return entry;
+        }
+        for (String parent = getParent(path); parent != null; parent = getParent(parent)) {
+            Entry parentEntry = getFresh(parent, now);
+            if (parentEntry != null) {
+                return parentEntry.exists ? null : parentEntry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 获取未过期的条目，过期时移除，需要持有 entries 的锁
+     *
+     * @param path
+     * @param now
+     * @return
+     */
+    private Entry getFresh(String path, long now) {
+        Entry entry = entries.get(path);
+        if (entry != null && now - entry.createdNanos > ttlNanos) {
+            entries.remove(path);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * 保存结果，读取期间发生过修改时不保存；存在时同时把上级文件夹记为存在
+     *
+     * @param path
+     * @param generation 读取前的失效计数
+     * @param exists
+     * @param stat
+     * @param statKnown 是否为 stat 的结果
+     */
+    private void store(String path, long generation, boolean exists, FileEntry stat, boolean statKnown) {
+        synchronized (entries) {
+            if (generation != getGeneration()) {
+                return;
+            }
+            long now = System.nanoTime();
+            entries.put(path, new Entry(exists, stat, statKnown, now));
+            if (exists) {
+                for (String parent = getParent(path); parent != null; parent = getParent(parent)) {
+                    Entry parentEntry = getFresh(parent, now);
+                    if (parentEntry != null && parentEntry.exists) {
+                        break;
+                    }
+                    entries.put(parent, new Entry(true, null, false, now));
+                }
+            }
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (entries.size() > maxEntries && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evictionCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 获取上级文件夹的路径
+     *
+     * @param path
+     * @return 没有上级文件夹时返回 null
+     */
+    private static String getParent(String path) {
+        int index = path.lastIndexOf('/');
+        if (index < 0 || path.length() == 1) {
+            return null;
+        }
+        return index == 0 ? "/" : path.substring(0, index);
+    }
+
+    private static class Entry {
+
+        final boolean exists;
+        final FileEntry stat;
+        final boolean statKnown;
+        final long createdNanos;
+
+        Entry(boolean exists, FileEntry stat, boolean statKnown, long createdNanos) {
+            this.exists = exists;
+            this.stat = stat;
+            this.statKnown = statKnown;
+            this.createdNanos = createdNanos;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package cn.elevendev.io.strategy;
+
+public interface MetricsReporter {
+    /**
+     * 输出一次统计快照，在统计线程上调用，不应长时间阻塞
+     *
+     * @param snapshot 统计快照
+     */
+    void report(MetricsSnapshot snapshot);
+}
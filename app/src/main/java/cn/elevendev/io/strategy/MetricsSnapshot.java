@@ -0,0 +1,142 @@
+package cn.elevendev.io.strategy;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 某个策略在某一时刻的统计快照
+ */
+public class MetricsSnapshot {
+
+    private final String strategyName;
+    private final long timestamp;
+    private final Map<String, OperationStats> operations;
+
+    public MetricsSnapshot(String strategyName, long timestamp, Map<String, OperationStats> operations) {
+        this.strategyName = strategyName;
+        this.timestamp = timestamp;
+        this.operations = Collections.unmodifiableMap(operations);
+    }
+
+    /**
+     * 获取被统计的策略类型，例如 DocumentStrategy
+     *
+     * @return
+     */
+    public String getStrategyName() {
+        return strategyName;
+    }
+
+    /**
+     * 获取生成快照的时间
+     *
+     * @return 毫秒时间戳
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * 获取各操作的统计，按操作名称排序
+     *
+     * @return 操作名称到统计的映射，例如 "readFile"
+     */
+    public Map<String, OperationStats> getOperations() {
+        return operations;
+    }
+
+    /**
+     * 获取单个操作的统计
+     *
+     * @param operation 操作名称，与 Strategy 的方法名相同
+     * @return 没有调用过时返回 null
+     */
+    public OperationStats getOperation(String operation) {
+        return operations.get(operation);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(strategyName).append(" metrics:");
+        for (Map.Entry<String, OperationStats> entry : operations.entrySet()) {
+            sb.append("\n  ").append(entry.getKey()).append(' ').append(entry.getValue());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 单个操作的统计
+     */
+    public static class OperationStats {
+
+        private final long count;
+        private final long errorCount;
+        private final long bytes;
+        private final long meanNanos;
+        private final long p50Nanos;
+        private final long p99Nanos;
+        private final long p999Nanos;
+        private final long maxNanos;
+
+        public OperationStats(long count, long errorCount, long bytes, long meanNanos,
+                              long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos) {
+            this.count = count;
+            this.errorCount = errorCount;
+            this.bytes = bytes;
+            this.meanNanos = meanNanos;
+            this.p50Nanos = p50Nanos;
+            this.p99Nanos = p99Nanos;
+            this.p999Nanos = p999Nanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * 获取失败次数，包括抛出异常和返回失败结果
+         *
+         * @return
+         */
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        /**
+         * 获取读写的字节数
+         *
+         * @return
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getMeanNanos() {
+            return meanNanos;
+        }
+
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        public long getP999Nanos() {
+            return p999Nanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + count + ", errors=" + errorCount + ", bytes=" + bytes
+                    + ", p50=" + p50Nanos / 1000 + "us, p99=" + p99Nanos / 1000
+                    + "us, p999=" + p999Nanos / 1000 + "us, max=" + maxNanos / 1000 + "us";
+        }
+    }
+}
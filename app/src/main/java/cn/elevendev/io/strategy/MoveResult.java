@@ -0,0 +1,19 @@
+package cn.elevendev.io.strategy;
+
+public enum MoveResult {
+    
+    /**
+     * 同一存储卷内直接重命名
+     */
+    RENAMED,
+    
+    /**
+     * 跨存储卷，复制后删除源文件
+     */
+    COPIED,
+    
+    /**
+     * 移动失败
+     */
+    FAILED;
+}
@@ -0,0 +1,217 @@
+package cn.elevendev.io.strategy;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 缓存 readFile 和 readFileAsBytes 读取的内容，按路径以最近最少使用的顺序淘汰，总字节数不超过上限
+ * 每次读取前用 stat 比较大小和修改时间，文档提供者的文件比较 COLUMN_SIZE 和 COLUMN_LAST_MODIFIED
+ * 绕过本实例修改文件，且大小和修改时间都没有变化时，可能读到旧内容
+ */
+public class ReadCacheStrategy extends CachingStrategy {
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * @param maxBytes 缓存内容的总字节数上限，字符串按每个字符 2 字节计算
+     */
+    public ReadCacheStrategy(Strategy strategy, long maxBytes) {
+        super(strategy);
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("缓存大小必须大于 0: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 获取命中统计，大小为缓存内容的字节数
+     *
+     * @return
+     */
+    public CacheStats getStats() {
+        synchronized (entries) {
+            return new CacheStats(hitCount.get(), missCount.get(), evictionCount.get(), entries.size(), cachedBytes);
+        }
+    }
+
+    /**
+     * 清空缓存内容，不重置统计
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            cachedBytes = 0;
+        }
+    }
+
+    /**
+     * 读取文件内容，大小和修改时间没有变化时返回缓存的内容
+     *
+     * @param filePath 文件路径
+     * @return 文件内容的字符串表示
+     */
+    @Override
+    public String readFile(String filePath) {
+        FileEntry stat = strategy.stat(filePath);
+        if (stat == null || !stat.isFile()) {
+            missCount.incrementAndGet();
+            return strategy.readFile(filePath);
+        }
+        synchronized (entries) {
+            Entry entry = getValid(filePath, stat);
+            if (entry != null && entry.text != null) {
+                hitCount.incrementAndGet();
+                return entry.text;
+            }
+        }
+        missCount.incrementAndGet();
+
+        long generation = getGeneration();
+        String text = strategy.readFile(filePath);
+        if (text != null) {
+            store(filePath, stat, generation, null, text);
+        }
+        return text;
+    }
+
+    /**
+     * 读取文件内容，大小和修改时间没有变化时返回缓存内容的副本
+     *
+     * @param filePath 文件路径
+     * @return 文件内容
+     */
+    @Override
+    public byte[] readFileAsBytes(String filePath) {
+        FileEntry stat = strategy.stat(filePath);
+        if (stat == null || !stat.isFile()) {
+            missCount.incrementAndGet();
+            return strategy.readFileAsBytes(filePath);
+        }
+        synchronized (entries) {
+            Entry entry = getValid(filePath, stat);
+            if (entry != null && entry.bytes != null) {
+                hitCount.incrementAndGet();
+                return entry.bytes.clone();
+            }
+        }
+        missCount.incrementAndGet();
+
+        long generation = getGeneration();
+        byte[] data = strategy.readFileAsBytes(filePath);
+        // 长度与 stat 不一致说明读取失败或读取期间文件被修改
+        if (data != null && data.length == stat.getSize()) {
+            store(filePath, stat, generation, data.clone(), null);
+        }
+        return data;
+    }
+
+    @Override
+    protected void invalidate(String path) {
+        synchronized (entries) {
+            Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Entry> mapEntry = iterator.next();
+                if (isSameOrDescendant(mapEntry.getKey(), path)) {
+                    cachedBytes -= mapEntry.getValue().weight();
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取与 stat 一致的缓存条目，不一致时移除，需要持有 entries 的锁
+     *
+     * @param path
+     * @param stat
+     * @return
+     */
+    private Entry getValid(String path, FileEntry stat) {
+        Entry entry = entries.get(path);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.size != stat.getSize() || entry.lastModified != stat.getLastModified()) {
+            entries.remove(path);
+            cachedBytes -= entry.weight();
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * 保存读取的内容，读取期间发生过修改或内容超过上限时不保存
+     *
+     * @param path
+     * @param stat 读取前获取的属性
+     * @param generation 读取前的失效计数
+     * @param bytes
+     * @param text
+     */
+    private void store(String path, FileEntry stat, long generation, byte[] bytes, String text) {
+        synchronized (entries) {
+            if (generation != getGeneration()) {
+                return;
+            }
+            Entry entry = getValid(path, stat);
+            if (entry == null) {
+                entry = new Entry(stat.getSize(), stat.getLastModified());
+                entries.put(path, entry);
+            } else {
+                cachedBytes -= entry.weight();
+            }
+            if (bytes != null) {
+                entry.bytes = bytes;
+            }
+            if (text != null) {
+                entry.text = text;
+            }
+            if (entry.weight() > maxBytes) {
+                entries.remove(path);
+                return;
+            }
+            cachedBytes += entry.weight();
+            trim();
+        }
+    }
+
+    /**
+     * 按最近最少使用的顺序淘汰，直到不超过上限，需要持有 entries 的锁
+     */
+    private void trim() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (cachedBytes > maxBytes && iterator.hasNext()) {
+            cachedBytes -= iterator.next().weight();
+            iterator.remove();
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 同一文件的字节内容和字符串内容，各自在首次通过对应方法读取时保存
+     */
+    private static class Entry {
+
+        final long size;
+        final long lastModified;
+        byte[] bytes;
+        String text;
+
+        Entry(long size, long lastModified) {
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        long weight() {
+            return (bytes != null ? bytes.length : 0) + (text != null ? text.length() * 2L : 0);
+        }
+    }
+}
@@ -3,18 +3,45 @@ package cn.elevendev.io.strategy;
 import android.app.Activity;
 import android.content.pm.PackageManager;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import rikka.shizuku.Shizuku;
 
+import cn.elevendev.io.utils.BufferPool;
+import cn.elevendev.io.utils.ChannelUtil;
 import cn.elevendev.io.utils.PermissionUtil;
+import cn.elevendev.io.utils.Tracer;
 
 public class ShizukuStrategy implements Strategy {
 
+    /**
+     * stat 输出格式：类型/大小/修改时间(秒)/路径，路径放在最后以便包含分隔符
+     */
+    private static final String STAT_FORMAT = "'%F/%s/%Y/%n'";
+
+    /**
+     * dd 的块大小，范围读写按字节定位，块大小只影响系统调用次数
+     */
+    private static final int RANGE_BLOCK_SIZE = 65536;
+
+    private final AppenderPool appenders = new AppenderPool(this);
+
     /**
      * 读取文件内容
      *
@@ -23,9 +50,44 @@ public class ShizukuStrategy implements Strategy {
      */
     @Override
     public String readFile(String filePath) {
+        appenders.flush(filePath);
         return executeCommandOutput("cat " + filePath);
     }
 
+    /**
+     * 逐行读取文件，按需读取，不会一次性加载整个文件
+     *
+     * @param filePath 文件路径
+     * @return 行迭代器，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public LineIterator readLines(String filePath) throws IOException {
+        appenders.flush(filePath);
+        return new LineIterator(openInputStream(filePath));
+    }
+
+    /**
+     * 逐行读取文件并回调每一行，内存占用与文件大小无关
+     *
+     * @param filePath 文件路径
+     * @param callback 行回调
+     * @return 是否读取成功
+     */
+    @Override
+    public boolean forEachLine(String filePath, LineCallback callback) {
+        try (LineIterator lines = readLines(filePath)) {
+            String line;
+            while ((line = lines.nextLine()) != null) {
+                callback.onLine(line);
+            }
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
     /**
      * 读取文件内容，返回字节数组
      *
@@ -34,10 +96,99 @@ public class ShizukuStrategy implements Strategy {
      */
     @Override
     public byte[] readFileAsBytes(String filePath) {
+        appenders.flush(filePath);
         String output = executeCommandOutput("cat " + filePath);
         return output != null ? output.getBytes() : new byte[0];
     }
 
+    /**
+     * 打开文件输入流，数据由 cat 进程的标准输出提供
+     *
+     * @param filePath 文件路径
+     * @return 输入流，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public InputStream openInputStream(String filePath) throws IOException {
+        appenders.flush(filePath);
+        Process process = newProcess("cat " + quote(filePath));
+        process.getOutputStream().close();
+        return new ProcessInputStream(process);
+    }
+
+    /**
+     * 打开文件读取通道
+     *
+     * @param filePath 文件路径
+     * @return 读取通道，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public ReadableByteChannel openReadableChannel(String filePath) throws IOException {
+        appenders.flush(filePath);
+        return Channels.newChannel(openInputStream(filePath));
+    }
+
+    /**
+     * 以只读方式将文件映射到内存，不占用 Java 堆，文件不能超过 2GB
+     *
+     * @param filePath 文件路径
+     * @return 只读的映射缓冲区
+     * @throws IOException Shizuku 进程无法共享文件描述符，不支持内存映射
+     */
+    @Override
+    public MappedByteBuffer mapFile(String filePath) throws IOException {
+        throw new IOException("Shizuku 策略不支持内存映射");
+    }
+
+    /**
+     * 以只读方式将文件分段映射到内存，适用于超过 2GB 的文件
+     *
+     * @param filePath 文件路径
+     * @return 按文件顺序排列的只读映射缓冲区
+     * @throws IOException Shizuku 进程无法共享文件描述符，不支持内存映射
+     */
+    @Override
+    public List<MappedByteBuffer> mapFileSegments(String filePath) throws IOException {
+        throw new IOException("Shizuku 策略不支持内存映射");
+    }
+
+    /**
+     * 读取文件中指定范围的数据，dd 以字节为单位跳过和计数，只读取范围内的内容
+     *
+     * @param filePath 文件路径
+     * @param offset 起始位置
+     * @param length 读取的字节数
+     * @return 读取的数据，到达文件末尾时可能少于 length，失败时返回 null
+     */
+    @Override
+    public byte[] readRange(String filePath, long offset, int length) {
+        appenders.flush(filePath);
+        ChannelUtil.checkRange(offset, length);
+        String command = "dd if=" + quote(filePath) + " iflag=skip_bytes,count_bytes"
+                + " skip=" + offset + " count=" + length + " bs=" + RANGE_BLOCK_SIZE + " 2>/dev/null";
+        try {
+            Process process = newProcess(command);
+            process.getOutputStream().close();
+            ByteBuffer pooled = BufferPool.acquire(RANGE_BLOCK_SIZE);
+            try (InputStream is = new ProcessInputStream(process);
+                 Tracer.Span span = Tracer.begin("ShizukuStrategy.transfer")) {
+                ByteArrayOutputStream bos = new ByteArrayOutputStream(length);
+                byte[] buffer = pooled.array();
+                int bytesRead;
+                while ((bytesRead = is.read(buffer)) != -1) {
+                    bos.write(buffer, 0, bytesRead);
+                }
+                return bos.toByteArray();
+            } finally {
+                BufferPool.release(pooled);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
     /**
      * 写入字符内容到文件
      *
@@ -47,6 +198,7 @@ public class ShizukuStrategy implements Strategy {
      */
     @Override
     public boolean writeFile(String filePath, String content) {
+        appenders.evict(filePath);
         String dirPath = filePath.substring(0, filePath.lastIndexOf('/'));
         return executeCommand("mkdir -p " + dirPath + " && echo '" + content + "' > " + filePath);
     }
@@ -60,6 +212,7 @@ public class ShizukuStrategy implements Strategy {
      */
     @Override
     public boolean writeFile(String filePath, byte[] data) {
+        appenders.evict(filePath);
         String base64Content = Base64.getEncoder().encodeToString(data);
         String dirPath = filePath.substring(0, filePath.lastIndexOf('/'));
         String command = "mkdir -p " + dirPath + " && echo '" + base64Content + "' | base64 -d > " + filePath;
@@ -67,6 +220,148 @@ public class ShizukuStrategy implements Strategy {
         return executeCommand(command);
     }
 
+    /**
+     * 按指定模式写入字符内容到文件
+     *
+     * @param filePath 文件路径
+     * @param content 要写入的内容
+     * @param mode 写入模式，DURABLE 在返回前保证数据已同步到磁盘
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeFile(String filePath, String content, WriteMode mode) {
+        if (mode != WriteMode.DURABLE) {
+            return writeFile(filePath, content);
+        }
+        return writeFile(filePath, content.getBytes(), mode);
+    }
+
+    /**
+     * 按指定模式写入字节数组到文件
+     * DURABLE 模式通过标准输入写入同目录下的临时文件，sync 后用 mv 原子替换目标文件，再 sync 一次持久化目录项
+     *
+     * @param filePath 文件路径
+     * @param data 要写入的字节数组
+     * @param mode 写入模式，DURABLE 在返回前保证数据已同步到磁盘
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeFile(String filePath, byte[] data, WriteMode mode) {
+        appenders.evict(filePath);
+        if (mode != WriteMode.DURABLE) {
+            return writeFile(filePath, data);
+        }
+        String dirPath = filePath.substring(0, filePath.lastIndexOf('/'));
+        String tempPath = dirPath + "/." + filePath.substring(filePath.lastIndexOf('/') + 1) + "." + System.nanoTime() + ".tmp";
+        String command = "mkdir -p " + quote(dirPath)
+                + " && cat > " + quote(tempPath)
+                + " && sync && mv -f " + quote(tempPath) + " " + quote(filePath)
+                + " && sync || { rm -f " + quote(tempPath) + "; exit 1; }";
+        try {
+            Process process = newProcess(command);
+            process.getInputStream().close();
+            // 关闭输出流时等待进程结束，span 放在前面以包含等待时间
+            try (Tracer.Span span = Tracer.begin("ShizukuStrategy.transfer");
+                 OutputStream os = new ProcessOutputStream(process)) {
+                os.write(data);
+            }
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * 从指定位置写入数据，覆盖该范围内的原有内容，不截断文件，文件不存在时创建
+     * 数据通过标准输入传给 dd，conv=notrunc 保留范围以外的内容
+     *
+     * @param filePath 文件路径
+     * @param offset 起始位置，超过文件末尾时中间以 0 填充
+     * @param data 要写入的数据
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeRange(String filePath, long offset, byte[] data) {
+        ChannelUtil.checkRange(offset, data.length);
+        appenders.evict(filePath);
+        String dirPath = filePath.substring(0, filePath.lastIndexOf('/'));
+        String command = "mkdir -p " + quote(dirPath) + " && dd of=" + quote(filePath)
+                + " oflag=seek_bytes conv=notrunc seek=" + offset + " bs=" + RANGE_BLOCK_SIZE + " 2>/dev/null";
+        try {
+            Process process = newProcess(command);
+            process.getInputStream().close();
+            // 关闭输出流时等待进程结束，span 放在前面以包含等待时间
+            try (Tracer.Span span = Tracer.begin("ShizukuStrategy.transfer");
+                 OutputStream os = new ProcessOutputStream(process)) {
+                os.write(data);
+            }
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * 打开文件输出流，数据写入 cat 进程的标准输入
+     *
+     * @param filePath 文件路径
+     * @param append 如果为 true 追加到文件末尾，如果为 false 清空文件后写入
+     * @return 输出流，使用完毕后需要关闭，关闭时等待写入完成
+     * @throws IOException
+     */
+    @Override
+    public OutputStream openOutputStream(String filePath, boolean append) throws IOException {
+        String dirPath = filePath.substring(0, filePath.lastIndexOf('/'));
+        Process process = newProcess("mkdir -p " + quote(dirPath) + " && cat " + (append ? ">> " : "> ") + quote(filePath));
+        process.getInputStream().close();
+        return new ProcessOutputStream(process);
+    }
+
+    /**
+     * 打开文件写入通道
+     *
+     * @param filePath 文件路径
+     * @param append 如果为 true 追加到文件末尾，如果为 false 清空文件后写入
+     * @return 写入通道，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public WritableByteChannel openWritableChannel(String filePath, boolean append) throws IOException {
+        return Channels.newChannel(openOutputStream(filePath, append));
+    }
+
+    /**
+     * 追加字节数组到文件末尾，数据先进入共享缓冲区，最迟在刷新间隔后写入文件
+     *
+     * @param filePath 文件路径
+     * @param data 要追加的数据
+     * @return 是否写入缓冲区成功
+     */
+    @Override
+    public boolean append(String filePath, byte[] data) {
+        try (Appender appender = openAppender(filePath)) {
+            appender.write(data);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * 打开追加写入器，同一路径的写入器共享一个打开的输出流，适用于频繁追加小块数据
+     *
+     * @param filePath 文件路径
+     * @return 写入器，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public Appender openAppender(String filePath) throws IOException {
+        return appenders.acquire(filePath);
+    }
+
     /**
      * 删除文件或文件夹
      *
@@ -75,9 +370,32 @@ public class ShizukuStrategy implements Strategy {
      */
     @Override
     public boolean delete(String filePath) {
+        appenders.evict(filePath);
         return executeCommand("rm -r " + filePath);
     }
 
+    /**
+     * 删除文件或文件夹，并返回统计结果
+     *
+     * @param filePath 文件或文件夹的路径
+     * @param parallel 由 rm 一次删除，此参数无效
+     * @return 删除结果
+     */
+    @Override
+    public DeleteResult delete(String filePath, boolean parallel) {
+        appenders.evict(filePath);
+        long startTime = System.nanoTime();
+        String output = executeCommandOutput("count=$(find " + quote(filePath) + " | wc -l) && rm -r " + quote(filePath) + " && echo $count");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        
+        try {
+            int deletedCount = Integer.parseInt(output == null ? "" : output.trim());
+            return new DeleteResult(deletedCount, Collections.emptyList(), elapsedMillis);
+        } catch (NumberFormatException e) {
+            return new DeleteResult(0, Collections.singletonList(filePath), elapsedMillis);
+        }
+    }
+
     /**
      * 判断文件或文件夹是否存在
      *
@@ -90,6 +408,23 @@ public class ShizukuStrategy implements Strategy {
         return !exist.contains("not_exists");
     }
 
+    /**
+     * 获取文件或文件夹的类型、大小和修改时间，符号链接不跟随
+     *
+     * @param filePath 文件或文件夹的路径
+     * @return 不存在时返回 null
+     */
+    @Override
+    public FileEntry stat(String filePath) {
+        appenders.flush(filePath);
+        String output = executeCommandOutput("stat -c " + STAT_FORMAT + " " + quote(filePath) + " 2>/dev/null");
+        if (output == null || output.isEmpty()) {
+            return null;
+        }
+        int end = output.indexOf('\n');
+        return parseStat(end < 0 ? output : output.substring(0, end));
+    }
+
     /**
      * 复制文件或文件夹
      *
@@ -99,11 +434,12 @@ public class ShizukuStrategy implements Strategy {
      */
     @Override
     public boolean copy(String sourcePath, String destPath) {
-        if (exists(destPath)) {
-            delete(destPath);
-        }
+        appenders.flush(sourcePath);
+        appenders.evict(destPath);
+        // 在同一个进程中删除已存在的目标，不再单独启动进程判断是否存在；路径都需要引用，避免被 shell 拆分或当作选项
         String dirPath = destPath.substring(0, destPath.lastIndexOf('/'));
-        String command = "mkdir -p " + dirPath + " && cp -rT " + sourcePath + " " + destPath;
+        String command = "mkdir -p -- " + quote(dirPath) + " && rm -rf -- " + quote(destPath)
+                + " && cp -rT -- " + quote(sourcePath) + " " + quote(destPath);
 
         return executeCommand(command);
     }
@@ -117,14 +453,49 @@ public class ShizukuStrategy implements Strategy {
      */
     @Override
     public boolean move(String sourcePath, String destPath) {
-        if (exists(destPath)) {
-            delete(destPath);
-        }
+        return moveWithResult(sourcePath, destPath) != MoveResult.FAILED;
+    }
+
+    /**
+     * 移动文件或文件夹，根据源路径与目标目录的设备号判断 mv 是否为重命名
+     *
+     * @param sourcePath 源文件或文件夹的路径
+     * @param destPath 目标文件或文件夹的路径
+     * @return 实际采用的移动方式
+     */
+    @Override
+    public MoveResult moveWithResult(String sourcePath, String destPath) {
+        appenders.evict(sourcePath);
+        appenders.evict(destPath);
+        
+        String dirPath = destPath.substring(0, destPath.lastIndexOf('/'));
+        String command = "mkdir -p -- " + quote(dirPath) + " && rm -rf -- " + quote(destPath)
+                + " && if [ \"$(stat -c %d -- " + quote(sourcePath) + ")\" = \"$(stat -c %d -- " + quote(dirPath) + ")\" ];"
+                + " then echo same_volume; else echo cross_volume; fi"
+                + " && mv -- " + quote(sourcePath) + " " + quote(destPath) + " && echo move_done";
         
-        createDirectory(destPath.substring(0, destPath.lastIndexOf('/')));
-        String command = "mv " + sourcePath + " " + destPath;
+        String output = executeCommandOutput(command);
+        if (output == null || !output.contains("move_done")) {
+            return MoveResult.FAILED;
+        }
+        return output.contains("same_volume") ? MoveResult.RENAMED : MoveResult.COPIED;
+    }
 
-        return executeCommand(command);
+    /**
+     * 增量复制文件，shell 中无法按位置比较和写入，退化为完整复制
+     *
+     * @param sourcePath 源文件的路径
+     * @param destPath 目标文件的路径
+     * @return 复制结果，写入的字节数等于文件大小，失败时返回 null
+     */
+    @Override
+    public DeltaCopyResult copyDelta(String sourcePath, String destPath) {
+        if (!copy(sourcePath, destPath)) {
+            return null;
+        }
+        FileEntry entry = stat(destPath);
+        long size = entry != null ? entry.getSize() : 0;
+        return new DeltaCopyResult(size, size);
     }
 
     /**
@@ -187,6 +558,128 @@ public class ShizukuStrategy implements Strategy {
         return list;
     }
 
+    /**
+     * 获取目录下的所有内容及其类型、大小和修改时间，只遍历一次目录
+     *
+     * @param dirPath 目录的路径
+     * @return 目录条目列表，符号链接不跟随
+     */
+    @Override
+    public List<FileEntry> list(String dirPath) {
+        List<FileEntry> list = new ArrayList<>();
+        try (FileEntryIterator iterator = iterate(dirPath)) {
+            FileEntry entry;
+            while ((entry = iterator.nextEntry()) != null) {
+                list.add(entry);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return list;
+    }
+
+    /**
+     * 按需遍历目录，条目在遍历时才从目录中读取
+     *
+     * @param dirPath 目录的路径
+     * @return 目录条目迭代器，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public FileEntryIterator iterate(String dirPath) throws IOException {
+        dirPath = dirPath.replaceAll("/+$", "");
+        Process process = newProcess("find " + quote(dirPath) + " -mindepth 1 -maxdepth 1 -exec stat -c " + STAT_FORMAT + " {} +");
+        process.getOutputStream().close();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new ProcessInputStream(process)));
+        return new FileEntryIterator() {
+            @Override
+            protected FileEntry readNext() throws IOException {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    FileEntry entry = parseStat(line);
+                    if (entry != null) {
+                        return entry;
+                    }
+                }
+                return null;
+            }
+            
+            @Override
+            protected void release() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
+    /**
+     * 分页获取目录内容
+     *
+     * @param dirPath 目录的路径
+     * @param pageToken 上一页返回的令牌，为 null 时获取第一页
+     * @param pageSize 每页条目数
+     * @param sortByName 是否按名称排序，排序时需要遍历整个目录
+     * @return 一页目录条目
+     */
+    @Override
+    public ListPage listPage(String dirPath, String pageToken, int pageSize, boolean sortByName) {
+        try (FileEntryIterator iterator = iterate(dirPath)) {
+            return ListPager.page(iterator, pageToken, pageSize, sortByName);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return new ListPage(new ArrayList<>(), null);
+    }
+
+    /**
+     * 递归遍历目录树，逐行读取 find 的输出
+     * 跳过的目录由 WalkOptions 的过滤器在本进程中判断，find 仍会遍历这些目录，只是不解析和返回其中的条目
+     *
+     * @param rootPath 根目录的路径
+     * @param options 遍历选项
+     * @return 满足条件的条目，不包含根目录
+     */
+    @Override
+    public List<FileEntry> walk(String rootPath, WalkOptions options) {
+        rootPath = rootPath.replaceAll("/+$", "");
+        String follow = options.isFollowSymlinks() ? " -L" : "";
+        String maxDepth = options.getMaxDepth() == Integer.MAX_VALUE ? "" : " -maxdepth " + options.getMaxDepth();
+        String command = "find" + follow + " " + quote(rootPath) + " -mindepth 1" + maxDepth
+                + " -exec stat" + follow + " -c " + STAT_FORMAT + " {} +";
+        
+        List<FileEntry> list = new ArrayList<>();
+        try {
+            Process process = newProcess(command);
+            process.getOutputStream().close();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ProcessInputStream(process)));
+                 Tracer.Span span = Tracer.begin("ShizukuStrategy.transfer")) {
+                // find 先输出目录再输出其内容，被跳过目录下的条目连续出现，只需记录当前跳过的目录
+                String prunedPrefix = null;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    FileEntry entry = parseStat(line);
+                    if (entry == null) {
+                        continue;
+                    }
+                    if (prunedPrefix != null) {
+                        if (entry.getPath().startsWith(prunedPrefix)) {
+                            continue;
+                        }
+                        prunedPrefix = null;
+                    }
+                    if (options.accept(entry)) {
+                        list.add(entry);
+                    }
+                    if (entry.isDirectory() && options.isPruned(entry)) {
+                        prunedPrefix = entry.getPath() + "/";
+                    }
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return list;
+    }
+
     /**
      * 创建目录
      *
@@ -251,6 +744,65 @@ public class ShizukuStrategy implements Strategy {
         requestStoragePermission(activity);
     }
     
+    /**
+     * 解析一行 STAT_FORMAT 格式的 stat 输出
+     *
+     * @param line
+     * @return 格式不正确时返回 null
+     */
+    private static FileEntry parseStat(String line) {
+        String[] parts = line.split("/", 4);
+        if (parts.length < 4) {
+            return null;
+        }
+        
+        FileEntry.Type type;
+        if (parts[0].equals("directory")) {
+            type = FileEntry.Type.DIRECTORY;
+        } else if (parts[0].startsWith("regular")) {
+            type = FileEntry.Type.FILE;
+        } else if (parts[0].equals("symbolic link")) {
+            type = FileEntry.Type.SYMBOLIC_LINK;
+        } else {
+            type = FileEntry.Type.OTHER;
+        }
+        
+        try {
+            String path = parts[3];
+            String name = path.substring(path.lastIndexOf('/') + 1);
+            return new FileEntry(name, path, type, Long.parseLong(parts[1]), Long.parseLong(parts[2]) * 1000);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * 创建执行命令的进程
+     *
+     * @param command
+     * @return
+     * @throws IOException
+     */
+    private static Process newProcess(String command) throws IOException {
+        try (Tracer.Span span = Tracer.begin("ShizukuStrategy.spawn")) {
+            Process process = Shizuku.newProcess(new String[]{"sh", "-c", command}, null, null);
+            if (process == null) {
+                throw new IOException("无法创建 Shizuku 进程");
+            }
+            return process;
+        }
+    }
+    
+    /**
+     * 使用单引号包裹路径，避免空格和特殊字符被 shell 解析
+     *
+     * @param path
+     * @return
+     */
+    private static String quote(String path) {
+        return "'" + path.replace("'", "'\\''") + "'";
+    }
+    
     /**
      * 执行命令
      *
@@ -259,21 +811,23 @@ public class ShizukuStrategy implements Strategy {
      */
     private String executeCommandOutput(String command) {
         try {
-            Process process = Shizuku.newProcess(new String[]{"sh", "-c", command}, null, null);
-            OutputStream os = process.getOutputStream();
-            os.write((command + "\nexit\n").getBytes());
-            os.flush();
+            Process process = newProcess(command);
+            try (Tracer.Span span = Tracer.begin("ShizukuStrategy.transfer")) {
+                OutputStream os = process.getOutputStream();
+                os.write((command + "\nexit\n").getBytes());
+                os.flush();
 
-            String line;
-            StringBuilder sb = new StringBuilder();
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+                String line;
+                StringBuilder sb = new StringBuilder();
+                BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
 
-            while ((line = reader.readLine()) != null) {
-                sb.append(line).append("\n");
-            }
-            os.close();
+                while ((line = reader.readLine()) != null) {
+                    sb.append(line).append("\n");
+                }
+                os.close();
 
-            return sb.toString();
+                return sb.toString();
+            }
         } catch (IOException e) {
             e.printStackTrace();
             return null;
@@ -288,16 +842,108 @@ public class ShizukuStrategy implements Strategy {
      */
     private boolean executeCommand(String command) {
         try {
-            Process process = Shizuku.newProcess(new String[]{"sh"}, null, null);
-            OutputStream os = process.getOutputStream();
-            os.write((command + "\nexit\n").getBytes());
-            os.flush();
-            os.close();
+            Process process;
+            try (Tracer.Span span = Tracer.begin("ShizukuStrategy.spawn")) {
+                process = Shizuku.newProcess(new String[]{"sh"}, null, null);
+            }
+            try (Tracer.Span span = Tracer.begin("ShizukuStrategy.transfer")) {
+                OutputStream os = process.getOutputStream();
+                os.write((command + "\nexit\n").getBytes());
+                os.flush();
+                os.close();
 
-            return process.waitFor() == 0;
+                return process.waitFor() == 0;
+            }
         } catch (IOException | InterruptedException e) {
             e.printStackTrace();
             return false;
         }
     }
+    
+    /**
+     * 读取进程标准输出的输入流，读取结束时检查退出码，关闭时结束进程
+     */
+    private static class ProcessInputStream extends FilterInputStream {
+        
+        private final Process process;
+        
+        ProcessInputStream(Process process) {
+            super(process.getInputStream());
+            this.process = process;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b == -1) {
+                checkExitValue();
+            }
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = super.read(b, off, len);
+            if (count == -1) {
+                checkExitValue();
+            }
+            return count;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                process.destroy();
+            }
+        }
+        
+        private void checkExitValue() throws IOException {
+            try {
+                if (process.waitFor() != 0) {
+                    throw new IOException("读取失败，退出码: " + process.exitValue());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+    }
+    
+    /**
+     * 写入进程标准输入的输出流，关闭时等待进程结束并检查退出码
+     */
+    private static class ProcessOutputStream extends FilterOutputStream {
+        
+        private final Process process;
+        private boolean closed;
+        
+        ProcessOutputStream(Process process) {
+            super(process.getOutputStream());
+            this.process = process;
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+        
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            super.close();
+            try {
+                if (process.waitFor() != 0) {
+                    throw new IOException("写入失败，退出码: " + process.exitValue());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+    }
 }
@@ -1,7 +1,12 @@
 package cn.elevendev.io.strategy;
 
 import android.app.Activity;
-import cn.elevendev.io.IOUtils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
 
 public interface Strategy {
@@ -13,6 +18,24 @@ public interface Strategy {
      */
     String readFile(String filePath);
 
+    /**
+     * 逐行读取文件，按需读取，不会一次性加载整个文件
+     *
+     * @param filePath 文件路径
+     * @return 行迭代器，使用完毕后需要关闭
+     * @throws IOException
+     */
+    LineIterator readLines(String filePath) throws IOException;
+
+    /**
+     * 逐行读取文件并回调每一行，内存占用与文件大小无关
+     *
+     * @param filePath 文件路径
+     * @param callback 行回调
+     * @return 是否读取成功
+     */
+    boolean forEachLine(String filePath, LineCallback callback);
+
     /**
      * 读取文件内容，返回字节数组
      *
@@ -21,6 +44,52 @@ public interface Strategy {
      */
     byte[] readFileAsBytes(String filePath);
 
+    /**
+     * 打开文件输入流，用于流式读取大文件
+     *
+     * @param filePath 文件路径
+     * @return 输入流，使用完毕后需要关闭
+     * @throws IOException
+     */
+    InputStream openInputStream(String filePath) throws IOException;
+
+    /**
+     * 打开文件读取通道
+     *
+     * @param filePath 文件路径
+     * @return 读取通道，使用完毕后需要关闭
+     * @throws IOException
+     */
+    ReadableByteChannel openReadableChannel(String filePath) throws IOException;
+
+    /**
+     * 以只读方式将文件映射到内存，不占用 Java 堆，文件不能超过 2GB
+     *
+     * @param filePath 文件路径
+     * @return 只读的映射缓冲区
+     * @throws IOException
+     */
+    MappedByteBuffer mapFile(String filePath) throws IOException;
+
+    /**
+     * 以只读方式将文件分段映射到内存，适用于超过 2GB 的文件
+     *
+     * @param filePath 文件路径
+     * @return 按文件顺序排列的只读映射缓冲区
+     * @throws IOException
+     */
+    List<MappedByteBuffer> mapFileSegments(String filePath) throws IOException;
+
+    /**
+     * 读取文件中指定范围的数据，不读取范围以外的内容
+     *
+     * @param filePath 文件路径
+     * @param offset 起始位置
+     * @param length 读取的字节数
+     * @return 读取的数据，到达文件末尾时可能少于 length，失败时返回 null
+     */
+    byte[] readRange(String filePath, long offset, int length);
+
     /**
      * 写入字符内容到文件
      *
@@ -39,6 +108,74 @@ public interface Strategy {
      */
     boolean writeFile(String filePath, byte[] data);
 
+    /**
+     * 按指定模式写入字符内容到文件
+     *
+     * @param filePath 文件路径
+     * @param content 要写入的内容
+     * @param mode 写入模式，DURABLE 在返回前保证数据已同步到磁盘
+     * @return 是否写入成功
+     */
+    boolean writeFile(String filePath, String content, WriteMode mode);
+
+    /**
+     * 按指定模式写入字节数组到文件
+     *
+     * @param filePath 文件路径
+     * @param data 要写入的字节数组
+     * @param mode 写入模式，DURABLE 在返回前保证数据已同步到磁盘
+     * @return 是否写入成功
+     */
+    boolean writeFile(String filePath, byte[] data, WriteMode mode);
+
+    /**
+     * 从指定位置写入数据，覆盖该范围内的原有内容，不截断文件，文件不存在时创建
+     *
+     * @param filePath 文件路径
+     * @param offset 起始位置，超过文件末尾时中间以 0 填充
+     * @param data 要写入的数据
+     * @return 是否写入成功
+     */
+    boolean writeRange(String filePath, long offset, byte[] data);
+
+    /**
+     * 打开文件输出流，用于流式写入大文件
+     *
+     * @param filePath 文件路径
+     * @param append 如果为 true 追加到文件末尾，如果为 false 清空文件后写入
+     * @return 输出流，使用完毕后需要关闭
+     * @throws IOException
+     */
+    OutputStream openOutputStream(String filePath, boolean append) throws IOException;
+
+    /**
+     * 打开文件写入通道
+     *
+     * @param filePath 文件路径
+     * @param append 如果为 true 追加到文件末尾，如果为 false 清空文件后写入
+     * @return 写入通道，使用完毕后需要关闭
+     * @throws IOException
+     */
+    WritableByteChannel openWritableChannel(String filePath, boolean append) throws IOException;
+
+    /**
+     * 追加字节数组到文件末尾，数据先进入共享缓冲区，最迟在刷新间隔后写入文件
+     *
+     * @param filePath 文件路径
+     * @param data 要追加的数据
+     * @return 是否写入缓冲区成功
+     */
+    boolean append(String filePath, byte[] data);
+
+    /**
+     * 打开追加写入器，同一路径的写入器共享一个打开的输出流，适用于频繁追加小块数据
+     *
+     * @param filePath 文件路径
+     * @return 写入器，使用完毕后需要关闭
+     * @throws IOException
+     */
+    Appender openAppender(String filePath) throws IOException;
+
     /**
      * 删除文件或文件夹
      *
@@ -47,6 +184,15 @@ public interface Strategy {
      */
     boolean delete(String filePath);
 
+    /**
+     * 删除文件或文件夹，并返回统计结果
+     *
+     * @param filePath 文件或文件夹的路径
+     * @param parallel 是否将文件夹内的条目分发到线程池并行删除
+     * @return 删除结果
+     */
+    DeleteResult delete(String filePath, boolean parallel);
+
     /**
      * 判断文件或文件夹是否存在
      *
@@ -55,6 +201,14 @@ public interface Strategy {
      */
     boolean exists(String filePath);
 
+    /**
+     * 获取文件或文件夹的类型、大小和修改时间，符号链接不跟随
+     *
+     * @param filePath 文件或文件夹的路径
+     * @return 不存在时返回 null
+     */
+    FileEntry stat(String filePath);
+
     /**
      * 复制文件或文件夹
      *
@@ -73,6 +227,24 @@ public interface Strategy {
      */
     boolean move(String sourcePath, String destPath);
 
+    /**
+     * 移动文件或文件夹，同一存储卷内优先直接重命名
+     *
+     * @param sourcePath 源文件或文件夹的路径
+     * @param destPath 目标文件或文件夹的路径
+     * @return 实际采用的移动方式
+     */
+    MoveResult moveWithResult(String sourcePath, String destPath);
+
+    /**
+     * 增量复制文件，按块比较源文件与已有的目标文件，只写入内容不同的块，适用于只有少量改动的大文件
+     *
+     * @param sourcePath 源文件的路径
+     * @param destPath 目标文件的路径，不存在时等同于完整复制
+     * @return 复制结果，失败时返回 null
+     */
+    DeltaCopyResult copyDelta(String sourcePath, String destPath);
+
     /**
      * 获取目录下的所有内容（文件和文件夹）
      *
@@ -90,6 +262,43 @@ public interface Strategy {
      */
     List<String> getList(String dirPath, boolean listDirectorys);
 
+    /**
+     * 获取目录下的所有内容及其类型、大小和修改时间，只遍历一次目录
+     *
+     * @param dirPath 目录的路径
+     * @return 目录条目列表，符号链接不跟随
+     */
+    List<FileEntry> list(String dirPath);
+
+    /**
+     * 按需遍历目录，条目在遍历时才从目录中读取
+     *
+     * @param dirPath 目录的路径
+     * @return 目录条目迭代器，使用完毕后需要关闭
+     * @throws IOException
+     */
+    FileEntryIterator iterate(String dirPath) throws IOException;
+
+    /**
+     * 分页获取目录内容
+     *
+     * @param dirPath 目录的路径
+     * @param pageToken 上一页返回的令牌，为 null 时获取第一页
+     * @param pageSize 每页条目数
+     * @param sortByName 是否按名称排序，排序时需要遍历整个目录
+     * @return 一页目录条目
+     */
+    ListPage listPage(String dirPath, String pageToken, int pageSize, boolean sortByName);
+
+    /**
+     * 递归遍历目录树
+     *
+     * @param rootPath 根目录的路径
+     * @param options 遍历选项
+     * @return 满足条件的条目，不包含根目录
+     */
+    List<FileEntry> walk(String rootPath, WalkOptions options);
+
     /**
      * 创建目录
      *
@@ -129,4 +338,13 @@ public interface Strategy {
      * @param dirPath 
      */
     void requestStoragePermission(Activity activity, String dirPath);
+    
+    interface LineCallback {
+        /**
+         * 读取到一行
+         *
+         * @param line 行内容，不包含换行符
+         */
+        void onLine(String line);
+    }
 }
@@ -33,6 +33,18 @@ public class StrategyFactory {
         }
     }
 
+    /**
+     * 根据传入的 StrategyType 创建对应的策略对象，可选择包装统计装饰器
+     *
+     * @param type 策略类型
+     * @param instrumented 是否统计每种操作的次数、字节数、失败次数和延迟分布
+     * @return 对应的策略对象，instrumented 为 true 时为 InstrumentedStrategy
+     */
+    public static Strategy createStrategy(Activity activity, StrategyType strategyType, boolean instrumented) {
+        Strategy strategy = createStrategy(activity, strategyType);
+        return instrumented ? new InstrumentedStrategy(strategy) : strategy;
+    }
+
     private static boolean fsHasRegExBug() {
         File externalStorageDirectory = Environment.getExternalStorageDirectory();
         return Arrays.equals(new File(externalStorageDirectory, "Android").list(), new File(externalStorageDirectory, "\u200bAndroid").list());
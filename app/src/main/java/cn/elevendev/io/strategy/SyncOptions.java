@@ -0,0 +1,57 @@
+package cn.elevendev.io.strategy;
+
+/**
+ * 同步目录的选项
+ */
+public class SyncOptions {
+    
+    private boolean deleteExtraneous;
+    private boolean compareContent;
+    private boolean useManifest = true;
+    
+    /**
+     * 是否删除目标文件夹中源文件夹没有的文件和文件夹，开启后每次都会遍历目标文件夹
+     *
+     * @param deleteExtraneous
+     * @return
+     */
+    public SyncOptions setDeleteExtraneous(boolean deleteExtraneous) {
+        this.deleteExtraneous = deleteExtraneous;
+        return this;
+    }
+    
+    /**
+     * 大小相同但修改时间变化时，是否比较内容的 xxHash64 校验和，相同时不复制
+     *
+     * @param compareContent
+     * @return
+     */
+    public SyncOptions setCompareContent(boolean compareContent) {
+        this.compareContent = compareContent;
+        return this;
+    }
+    
+    /**
+     * 是否使用目标文件夹中的清单，使用时源文件的大小和修改时间与清单一致就不再检查目标文件
+     * 目标文件被其他应用修改时需要关闭，以按实际的目标文件比较
+     *
+     * @param useManifest
+     * @return
+     */
+    public SyncOptions setUseManifest(boolean useManifest) {
+        this.useManifest = useManifest;
+        return this;
+    }
+    
+    public boolean isDeleteExtraneous() {
+        return deleteExtraneous;
+    }
+    
+    public boolean isCompareContent() {
+        return compareContent;
+    }
+    
+    public boolean isUseManifest() {
+        return useManifest;
+    }
+}
@@ -0,0 +1,96 @@
+package cn.elevendev.io.strategy;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 同步目录的结果
+ */
+public class SyncResult {
+
+    private final int copiedCount;
+    private final int skippedCount;
+    private final int deletedCount;
+    private final List<String> failedPaths;
+    private final long bytesCopied;
+    private final long elapsedMillis;
+
+    public SyncResult(int copiedCount, int skippedCount, int deletedCount, List<String> failedPaths,
+                      long bytesCopied, long elapsedMillis) {
+        this.copiedCount = copiedCount;
+        this.skippedCount = skippedCount;
+        this.deletedCount = deletedCount;
+        this.failedPaths = Collections.unmodifiableList(failedPaths);
+        this.bytesCopied = bytesCopied;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * 是否全部文件同步成功
+     *
+     * @return
+     */
+    public boolean isSuccess() {
+        return failedPaths.isEmpty();
+    }
+
+    /**
+     * 获取新增或变化后复制的文件数
+     *
+     * @return
+     */
+    public int getCopiedCount() {
+        return copiedCount;
+    }
+
+    /**
+     * 获取没有变化而跳过的文件数
+     *
+     * @return
+     */
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * 获取从目标文件夹删除的文件和文件夹数，删除文件夹时其中的内容不单独计数
+     *
+     * @return
+     */
+    public int getDeletedCount() {
+        return deletedCount;
+    }
+
+    /**
+     * 获取复制或删除失败的路径
+     *
+     * @return 相对于源或目标文件夹的路径
+     */
+    public List<String> getFailedPaths() {
+        return failedPaths;
+    }
+
+    /**
+     * 获取复制的字节数
+     *
+     * @return
+     */
+    public long getBytesCopied() {
+        return bytesCopied;
+    }
+
+    /**
+     * 获取同步的耗时
+     *
+     * @return 毫秒
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "SyncResult{copied=" + copiedCount + ", skipped=" + skippedCount + ", deleted=" + deletedCount
+                + ", failed=" + failedPaths.size() + ", bytes=" + bytesCopied + ", elapsed=" + elapsedMillis + "ms}";
+    }
+}
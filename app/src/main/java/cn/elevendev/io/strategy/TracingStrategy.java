@@ -0,0 +1,543 @@
+package cn.elevendev.io.strategy;
+
+import android.app.Activity;
+import cn.elevendev.io.utils.Tracer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/**
+ * 为每个操作开始一个顶层追踪区间，策略内部的权限检查、路径解析和数据传输等阶段作为其子区间
+ * 区间名称为 "被包装的策略类名.方法名"，没有注册追踪输出时几乎没有开销
+ */
+public class TracingStrategy extends DelegateStrategy {
+
+    private final String prefix;
+
+    public TracingStrategy(Strategy strategy) {
+        super(strategy);
+        Strategy innermost = strategy;
+        while (innermost instanceof DelegateStrategy) {
+            innermost = ((DelegateStrategy) innermost).getDelegate();
+        }
+        this.prefix = innermost.getClass().getSimpleName() + ".";
+    }
+
+    /**
+     * 读取文件内容
+     *
+     * @param filePath 文件路径
+     * @return 文件内容的字符串表示
+     */
+    @Override
+    public String readFile(String filePath) {
+        try (Tracer.Span span = Tracer.begin(prefix, "readFile")) {
+            return strategy.readFile(filePath);
+        }
+    }
+
+    /**
+     * 逐行读取文件，按需读取，不会一次性加载整个文件
+     *
+     * @param filePath 文件路径
+     * @return 行迭代器，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public LineIterator readLines(String filePath) throws IOException {
+        try (Tracer.Span span = Tracer.begin(prefix, "readLines")) {
+            return strategy.readLines(filePath);
+        }
+    }
+
+    /**
+     * 逐行读取文件并回调每一行，内存占用与文件大小无关
+     *
+     * @param filePath 文件路径
+     * @param callback 行回调
+     * @return 是否读取成功
+     */
+    @Override
+    public boolean forEachLine(String filePath, LineCallback callback) {
+        try (Tracer.Span span = Tracer.begin(prefix, "forEachLine")) {
+            return strategy.forEachLine(filePath, callback);
+        }
+    }
+
+    /**
+     * 读取文件内容，返回字节数组
+     *
+     * @param filePath 文件路径
+     * @return 字节数组
+     */
+    @Override
+    public byte[] readFileAsBytes(String filePath) {
+        try (Tracer.Span span = Tracer.begin(prefix, "readFileAsBytes")) {
+            return strategy.readFileAsBytes(filePath);
+        }
+    }
+
+    /**
+     * 打开文件输入流，用于流式读取大文件
+     *
+     * @param filePath 文件路径
+     * @return 输入流，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public InputStream openInputStream(String filePath) throws IOException {
+        try (Tracer.Span span = Tracer.begin(prefix, "openInputStream")) {
+            return strategy.openInputStream(filePath);
+        }
+    }
+
+    /**
+     * 打开文件读取通道
+     *
+     * @param filePath 文件路径
+     * @return 读取通道，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public ReadableByteChannel openReadableChannel(String filePath) throws IOException {
+        try (Tracer.Span span = Tracer.begin(prefix, "openReadableChannel")) {
+            return strategy.openReadableChannel(filePath);
+        }
+    }
+
+    /**
+     * 以只读方式将文件映射到内存，不占用 Java 堆，文件不能超过 2GB
+     *
+     * @param filePath 文件路径
+     * @return 只读的映射缓冲区
+     * @throws IOException
+     */
+    @Override
+    public MappedByteBuffer mapFile(String filePath) throws IOException {
+        try (Tracer.Span span = Tracer.begin(prefix, "mapFile")) {
+            return strategy.mapFile(filePath);
+        }
+    }
+
+    /**
+     * 以只读方式将文件分段映射到内存，适用于超过 2GB 的文件
+     *
+     * @param filePath 文件路径
+     * @return 按文件顺序排列的只读映射缓冲区
+     * @throws IOException
+     */
+    @Override
+    public List<MappedByteBuffer> mapFileSegments(String filePath) throws IOException {
+        try (Tracer.Span span = Tracer.begin(prefix, "mapFileSegments")) {
+            return strategy.mapFileSegments(filePath);
+        }
+    }
+
+    /**
+     * 读取文件中指定范围的数据，不读取范围以外的内容
+     *
+     * @param filePath 文件路径
+     * @param offset 起始位置
+     * @param length 读取的字节数
+     * @return 读取的数据，到达文件末尾时可能少于 length，失败时返回 null
+     */
+    @Override
+    public byte[] readRange(String filePath, long offset, int length) {
+        try (Tracer.Span span = Tracer.begin(prefix, "readRange")) {
+            return strategy.readRange(filePath, offset, length);
+        }
+    }
+
+    /**
+     * 写入字符内容到文件
+     *
+     * @param filePath 文件路径
+     * @param content 要写入的内容
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeFile(String filePath, String content) {
+        try (Tracer.Span span = Tracer.begin(prefix, "writeFile")) {
+            return strategy.writeFile(filePath, content);
+        }
+    }
+
+    /**
+     * 写入字节数组到文件
+     *
+     * @param filePath 文件路径
+     * @param data 要写入的字节数组
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeFile(String filePath, byte[] data) {
+        try (Tracer.Span span = Tracer.begin(prefix, "writeFile")) {
+            return strategy.writeFile(filePath, data);
+        }
+    }
+
+    /**
+     * 按指定模式写入字符内容到文件
+     *
+     * @param filePath 文件路径
+     * @param content 要写入的内容
+     * @param mode 写入模式，DURABLE 在返回前保证数据已同步到磁盘
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeFile(String filePath, String content, WriteMode mode) {
+        try (Tracer.Span span = Tracer.begin(prefix, "writeFile")) {
+            return strategy.writeFile(filePath, content, mode);
+        }
+    }
+
+    /**
+     * 按指定模式写入字节数组到文件
+     *
+     * @param filePath 文件路径
+     * @param data 要写入的字节数组
+     * @param mode 写入模式，DURABLE 在返回前保证数据已同步到磁盘
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeFile(String filePath, byte[] data, WriteMode mode) {
+        try (Tracer.Span span = Tracer.begin(prefix, "writeFile")) {
+            return strategy.writeFile(filePath, data, mode);
+        }
+    }
+
+    /**
+     * 从指定位置写入数据，覆盖该范围内的原有内容，不截断文件，文件不存在时创建
+     *
+     * @param filePath 文件路径
+     * @param offset 起始位置，超过文件末尾时中间以 0 填充
+     * @param data 要写入的数据
+     * @return 是否写入成功
+     */
+    @Override
+    public boolean writeRange(String filePath, long offset, byte[] data) {
+        try (Tracer.Span span = Tracer.begin(prefix, "writeRange")) {
+            return strategy.writeRange(filePath, offset, data);
+        }
+    }
+
+    /**
+     * 打开文件输出流，用于流式写入大文件
+     *
+     * @param filePath 文件路径
+     * @param append 如果为 true 追加到文件末尾，如果为 false 清空文件后写入
+     * @return 输出流，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public OutputStream openOutputStream(String filePath, boolean append) throws IOException {
+        try (Tracer.Span span = Tracer.begin(prefix, "openOutputStream")) {
+            return strategy.openOutputStream(filePath, append);
+        }
+    }
+
+    /**
+     * 打开文件写入通道
+     *
+     * @param filePath 文件路径
+     * @param append 如果为 true 追加到文件末尾，如果为 false 清空文件后写入
+     * @return 写入通道，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public WritableByteChannel openWritableChannel(String filePath, boolean append) throws IOException {
+        try (Tracer.Span span = Tracer.begin(prefix, "openWritableChannel")) {
+            return strategy.openWritableChannel(filePath, append);
+        }
+    }
+
+    /**
+     * 追加字节数组到文件末尾，数据先进入共享缓冲区，最迟在刷新间隔后写入文件
+     *
+     * @param filePath 文件路径
+     * @param data 要追加的数据
+     * @return 是否写入缓冲区成功
+     */
+    @Override
+    public boolean append(String filePath, byte[] data) {
+        try (Tracer.Span span = Tracer.begin(prefix, "append")) {
+            return strategy.append(filePath, data);
+        }
+    }
+
+    /**
+     * 打开追加写入器，同一路径的写入器共享一个打开的输出流，适用于频繁追加小块数据
+     *
+     * @param filePath 文件路径
+     * @return 写入器，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public Appender openAppender(String filePath) throws IOException {
+        try (Tracer.Span span = Tracer.begin(prefix, "openAppender")) {
+            return strategy.openAppender(filePath);
+        }
+    }
+
+    /**
+     * 删除文件或文件夹
+     *
+     * @param filePath 文件或文件夹的路径
+     * @return 是否删除成功
+     */
+    @Override
+    public boolean delete(String filePath) {
+        try (Tracer.Span span = Tracer.begin(prefix, "delete")) {
+            return strategy.delete(filePath);
+        }
+    }
+
+    /**
+     * 删除文件或文件夹，并返回统计结果
+     *
+     * @param filePath 文件或文件夹的路径
+     * @param parallel 是否将文件夹内的条目分发到线程池并行删除
+     * @return 删除结果
+     */
+    @Override
+    public DeleteResult delete(String filePath, boolean parallel) {
+        try (Tracer.Span span = Tracer.begin(prefix, "delete")) {
+            return strategy.delete(filePath, parallel);
+        }
+    }
+
+    /**
+     * 判断文件或文件夹是否存在
+     *
+     * @param filePath 文件或文件夹的路径
+     * @return 是否存在
+     */
+    @Override
+    public boolean exists(String filePath) {
+        try (Tracer.Span span = Tracer.begin(prefix, "exists")) {
+            return strategy.exists(filePath);
+        }
+    }
+
+    /**
+     * 获取文件或文件夹的类型、大小和修改时间，符号链接不跟随
+     *
+     * @param filePath 文件或文件夹的路径
+     * @return 不存在时返回 null
+     */
+    @Override
+    public FileEntry stat(String filePath) {
+        try (Tracer.Span span = Tracer.begin(prefix, "stat")) {
+            return strategy.stat(filePath);
+        }
+    }
+
+    /**
+     * 复制文件或文件夹
+     *
+     * @param sourcePath 源文件或文件夹的路径
+     * @param destPath 目标文件或文件夹的路径
+     * @return 是否复制成功
+     */
+    @Override
+    public boolean copy(String sourcePath, String destPath) {
+        try (Tracer.Span span = Tracer.begin(prefix, "copy")) {
+            return strategy.copy(sourcePath, destPath);
+        }
+    }
+
+    /**
+     * 移动文件或文件夹
+     *
+     * @param sourcePath 源文件或文件夹的路径
+     * @param destPath 目标文件或文件夹的路径
+     * @return 是否移动成功
+     */
+    @Override
+    public boolean move(String sourcePath, String destPath) {
+        try (Tracer.Span span = Tracer.begin(prefix, "move")) {
+            return strategy.move(sourcePath, destPath);
+        }
+    }
+
+    /**
+     * 移动文件或文件夹，同一存储卷内优先直接重命名
+     *
+     * @param sourcePath 源文件或文件夹的路径
+     * @param destPath 目标文件或文件夹的路径
+     * @return 实际采用的移动方式
+     */
+    @Override
+    public MoveResult moveWithResult(String sourcePath, String destPath) {
+        try (Tracer.Span span = Tracer.begin(prefix, "moveWithResult")) {
+            return strategy.moveWithResult(sourcePath, destPath);
+        }
+    }
+
+    /**
+     * 增量复制文件，按块比较源文件与已有的目标文件，只写入内容不同的块，适用于只有少量改动的大文件
+     *
+     * @param sourcePath 源文件的路径
+     * @param destPath 目标文件的路径，不存在时等同于完整复制
+     * @return 复制结果，失败时返回 null
+     */
+    @Override
+    public DeltaCopyResult copyDelta(String sourcePath, String destPath) {
+        try (Tracer.Span span = Tracer.begin(prefix, "copyDelta")) {
+            return strategy.copyDelta(sourcePath, destPath);
+        }
+    }
+
+    /**
+     * 获取目录下的所有内容（文件和文件夹）
+     *
+     * @param dirPath 目录的路径
+     * @return 目录下所有内容的名称列表
+     */
+    @Override
+    public List<String> getList(String dirPath) {
+        try (Tracer.Span span = Tracer.begin(prefix, "getList")) {
+            return strategy.getList(dirPath);
+        }
+    }
+
+    /**
+     * 获取目录下的文件或文件夹列表
+     *
+     * @param dirPath 目录的路径
+     * @param listDirectories 如果为 true 列出文件夹，如果为 false 列出文件
+     * @return 目录下的文件或文件夹名称列表
+     */
+    @Override
+    public List<String> getList(String dirPath, boolean listDirectories) {
+        try (Tracer.Span span = Tracer.begin(prefix, "getList")) {
+            return strategy.getList(dirPath, listDirectories);
+        }
+    }
+
+    /**
+     * 获取目录下的所有内容及其类型、大小和修改时间，只遍历一次目录
+     *
+     * @param dirPath 目录的路径
+     * @return 目录条目列表，符号链接不跟随
+     */
+    @Override
+    public List<FileEntry> list(String dirPath) {
+        try (Tracer.Span span = Tracer.begin(prefix, "list")) {
+            return strategy.list(dirPath);
+        }
+    }
+
+    /**
+     * 按需遍历目录，条目在遍历时才从目录中读取
+     *
+     * @param dirPath 目录的路径
+     * @return 目录条目迭代器，使用完毕后需要关闭
+     * @throws IOException
+     */
+    @Override
+    public FileEntryIterator iterate(String dirPath) throws IOException {
+        try (Tracer.Span span = Tracer.begin(prefix, "iterate")) {
+            return strategy.iterate(dirPath);
+        }
+    }
+
+    /**
+     * 分页获取目录内容
+     *
+     * @param dirPath 目录的路径
+     * @param pageToken 上一页返回的令牌，为 null 时获取第一页
+     * @param pageSize 每页条目数
+     * @param sortByName 是否按名称排序，排序时需要遍历整个目录
+     * @return 一页目录条目
+     */
+    @Override
+    public ListPage listPage(String dirPath, String pageToken, int pageSize, boolean sortByName) {
+        try (Tracer.Span span = Tracer.begin(prefix, "listPage")) {
+            return strategy.listPage(dirPath, pageToken, pageSize, sortByName);
+        }
+    }
+
+    /**
+     * 递归遍历目录树
+     *
+     * @param rootPath 根目录的路径
+     * @param options 遍历选项
+     * @return 满足条件的条目，不包含根目录
+     */
+    @Override
+    public List<FileEntry> walk(String rootPath, WalkOptions options) {
+        try (Tracer.Span span = Tracer.begin(prefix, "walk")) {
+            return strategy.walk(rootPath, options);
+        }
+    }
+
+    /**
+     * 创建目录
+     *
+     * @param dirPath 目录的路径
+     * @return 是否创建成功
+     */
+    @Override
+    public boolean createDirectory(String dirPath) {
+        try (Tracer.Span span = Tracer.begin(prefix, "createDirectory")) {
+            return strategy.createDirectory(dirPath);
+        }
+    }
+
+    /**
+     * 检查是否拥有存储权限
+     *
+     * @param activity 当前Activity
+     * @return 是否拥有权限
+     */
+    @Override
+    public boolean isStoragePermissionGranted(Activity activity) {
+        try (Tracer.Span span = Tracer.begin(prefix, "isStoragePermissionGranted")) {
+            return strategy.isStoragePermissionGranted(activity);
+        }
+    }
+
+    /**
+     * 检查是否拥有文件或文件夹的权限
+     *
+     * @param activity 当前Activity
+     * @param dirPath 目录路径
+     * @return 是否拥有权限
+     */
+    @Override
+    public boolean isStoragePermissionGranted(Activity activity, String dirPath) {
+        try (Tracer.Span span = Tracer.begin(prefix, "isStoragePermissionGranted")) {
+            return strategy.isStoragePermissionGranted(activity, dirPath);
+        }
+    }
+
+    /**
+     * 获取存储权限
+     *
+     * @param activity 当前Activity
+     */
+    @Override
+    public void requestStoragePermission(Activity activity) {
+        try (Tracer.Span span = Tracer.begin(prefix, "requestStoragePermission")) {
+            strategy.requestStoragePermission(activity);
+        }
+    }
+
+    /**
+     * 获取文件或文件夹的权限
+     *
+     * @param activity 当前Activity
+     * @param dirPath 目录路径
+     */
+    @Override
+    public void requestStoragePermission(Activity activity, String dirPath) {
+        try (Tracer.Span span = Tracer.begin(prefix, "requestStoragePermission")) {
+            strategy.requestStoragePermission(activity, dirPath);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package cn.elevendev.io.strategy;
+
+import cn.elevendev.io.utils.ParallelRunner;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 递归删除引擎，并行模式下同级条目分发到线程池删除，目录在其子项全部删除后再删除
+ * 实例会累计统计结果，每次删除都需要创建新的实例
+ *
+ * @param <T> 文件节点类型
+ */
+abstract class TreeDeleter<T> {
+    
+    private final AtomicInteger deletedCount = new AtomicInteger();
+    private final ConcurrentLinkedQueue<String> failedPaths = new ConcurrentLinkedQueue<>();
+    
+    /**
+     * 获取目录下的子节点
+     *
+     * @param dir
+     * @return
+     * @throws IOException
+     */
+    protected abstract List<T> listChildren(T dir) throws IOException;
+    
+    protected abstract boolean isDirectory(T node);
+    
+    /**
+     * 删除单个文件或空目录
+     *
+     * @param node
+     * @return 是否删除成功
+     */
+    protected abstract boolean deleteNode(T node);
+    
+    protected abstract String getPath(T node);
+    
+    /**
+     * 删除节点及其全部子节点
+     *
+     * @param root 根节点
+     * @param parallel 是否并行删除
+     * @return 删除结果
+     */
+    public DeleteResult delete(T root, boolean parallel) {
+        long startTime = System.nanoTime();
+        if (parallel && ParallelRunner.getParallelism() > 1) {
+            ParallelRunner.getPool().invoke(new DeleteTask(root));
+        } else {
+            deleteTree(root);
+        }
+        
+        List<String> failed = new ArrayList<>(failedPaths);
+        Collections.sort(failed);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        return new DeleteResult(deletedCount.get(), failed, elapsedMillis);
+    }
+    
+    private boolean deleteTree(T node) {
+        if (isDirectory(node)) {
+            List<T> children = listChildrenOrFail(node);
+            if (children == null) {
+                return false;
+            }
+            boolean allDeleted = true;
+            for (T child : children) {
+                if (!deleteTree(child)) {
+                    allDeleted = false;
+                }
+            }
+            if (!allDeleted) {
+                return false;
+            }
+        }
+        return deleteOrFail(node);
+    }
+    
+    private List<T> listChildrenOrFail(T dir) {
+        try {
+            return listChildren(dir);
+        } catch (IOException e) {
+            e.printStackTrace();
+            failedPaths.add(getPath(dir));
+            return null;
+        }
+    }
+    
+    private boolean deleteOrFail(T node) {
+        if (deleteNode(node)) {
+            deletedCount.incrementAndGet();
+            return true;
+        }
+        failedPaths.add(getPath(node));
+        return false;
+    }
+    
+    private class DeleteTask extends RecursiveTask<Boolean> {
+        
+        private final T node;
+        
+        DeleteTask(T node) {
+            this.node = node;
+        }
+        
+        @Override
+        protected Boolean compute() {
+            if (isDirectory(node)) {
+                List<T> children = listChildrenOrFail(node);
+                if (children == null) {
+                    return false;
+                }
+                List<DeleteTask> tasks = new ArrayList<>(children.size());
+                for (T child : children) {
+                    tasks.add(new DeleteTask(child));
+                }
+                invokeAll(tasks);
+                
+                boolean allDeleted = true;
+                for (DeleteTask task : tasks) {
+                    if (!task.join()) {
+                        allDeleted = false;
+                    }
+                }
+                if (!allDeleted) {
+                    return false;
+                }
+            }
+            return deleteOrFail(node);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package cn.elevendev.io.strategy;
+
+import cn.elevendev.io.utils.ParallelRunner;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 基于目录迭代器的目录树遍历，并行模式下每个子目录作为一个任务分发到线程池
+ * 子类提供目录标识时，进入目录前检查它是否为当前路径上的某个上级目录，只跳过真正形成循环的目录，
+ * 同一目录经由不同路径到达时仍会各遍历一次
+ */
+abstract class TreeWalker {
+    
+    protected final WalkOptions options;
+    
+    TreeWalker(WalkOptions options) {
+        this.options = options;
+    }
+    
+    /**
+     * 按需读取目录内容
+     *
+     * @param dirPath
+     * @return
+     * @throws IOException
+     */
+    protected abstract FileEntryIterator iterate(String dirPath) throws IOException;
+    
+    /**
+     * 是否进入该条目，默认只进入目录
+     *
+     * @param entry
+     * @return
+     */
+    protected boolean isTraversable(FileEntry entry) {
+        return entry.isDirectory();
+    }
+    
+    /**
+     * 获取目录的唯一标识，用于检测循环，默认不检测
+     *
+     * @param dirPath
+     * @return 不需要检测或无法获取时返回 null
+     */
+    protected Object getDirectoryKey(String dirPath) {
+        return null;
+    }
+    
+    /**
+     * 遍历目录树
+     *
+     * @param rootPath 根目录
+     * @return 满足条件的条目，不包含根目录
+     */
+    public List<FileEntry> walk(String rootPath) {
+        Ancestor root = new Ancestor(getDirectoryKey(rootPath), null);
+        if (!options.isParallel() || ParallelRunner.getParallelism() == 1) {
+            List<FileEntry> results = new ArrayList<>();
+            walk(rootPath, root, 1, results);
+            return results;
+        }
+        
+        ConcurrentLinkedQueue<FileEntry> queue = new ConcurrentLinkedQueue<>();
+        ParallelRunner.getPool().invoke(new WalkTask(rootPath, root, 1, queue));
+        List<FileEntry> results = new ArrayList<>(queue);
+        Collections.sort(results, (a, b) -> a.getPath().compareTo(b.getPath()));
+        return results;
+    }
+    
+    private void walk(String dirPath, Ancestor ancestor, int depth, List<FileEntry> results) {
+        for (SubDirectory subDir : visit(dirPath, ancestor, depth, results)) {
+            walk(subDir.path, subDir.ancestor, depth + 1, results);
+        }
+    }
+    
+    /**
+     * 读取单个目录，返回需要继续进入的子目录
+     *
+     * @param dirPath
+     * @param ancestor 当前目录及其上级目录的标识
+     * @param depth 子项的深度
+     * @param results
+     * @return
+     */
+    private List<SubDirectory> visit(String dirPath, Ancestor ancestor, int depth, Collection<FileEntry> results) {
+        List<SubDirectory> subDirs = new ArrayList<>();
+        try (FileEntryIterator iterator = iterate(dirPath)) {
+            FileEntry entry;
+            while ((entry = iterator.nextEntry()) != null) {
+                if (options.accept(entry)) {
+                    results.add(entry);
+                }
+                if (depth < options.getMaxDepth() && isTraversable(entry) && !options.isPruned(entry)) {
+                    Object key = getDirectoryKey(entry.getPath());
+                    if (key == null || !ancestor.contains(key)) {
+                        subDirs.add(new SubDirectory(entry.getPath(), new Ancestor(key, ancestor)));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return subDirs;
+    }
+    
+    private class WalkTask extends RecursiveAction {
+        
+        private final String dirPath;
+        private final Ancestor ancestor;
+        private final int depth;
+        private final Collection<FileEntry> results;
+        
+        WalkTask(String dirPath, Ancestor ancestor, int depth, Collection<FileEntry> results) {
+            this.dirPath = dirPath;
+            this.ancestor = ancestor;
+            this.depth = depth;
+            this.results = results;
+        }
+        
+        @Override
+        protected void compute() {
+            List<WalkTask> tasks = new ArrayList<>();
+            for (SubDirectory subDir : visit(dirPath, ancestor, depth, results)) {
+                tasks.add(new WalkTask(subDir.path, subDir.ancestor, depth + 1, results));
+            }
+            invokeAll(tasks);
+        }
+    }
+    
+    private static class SubDirectory {
+        
+        final String path;
+        final Ancestor ancestor;
+        
+        SubDirectory(String path, Ancestor ancestor) {
+            this.path = path;
+            this.ancestor = ancestor;
+        }
+    }
+    
+    /**
+     * 从当前目录到根目录的标识链，各子目录共享上级部分
+     */
+    private static class Ancestor {
+        
+        final Object key;
+        final Ancestor parent;
+        
+        Ancestor(Object key, Ancestor parent) {
+            this.key = key;
+            this.parent = parent;
+        }
+        
+        boolean contains(Object target) {
+            for (Ancestor node = this; node != null; node = node.parent) {
+                if (target.equals(node.key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package cn.elevendev.io.strategy;
+
+import java.util.regex.Pattern;
+
+/**
+ * 遍历目录树的选项
+ */
+public class WalkOptions {
+    
+    private int maxDepth = Integer.MAX_VALUE;
+    private Pattern namePattern;
+    private Filter filter;
+    private Filter prune;
+    private boolean followSymlinks;
+    private boolean parallel;
+    
+    /**
+     * 设置最大深度，根目录的直接子项深度为 1
+     *
+     * @param maxDepth
+     * @return
+     */
+    public WalkOptions setMaxDepth(int maxDepth) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("最大深度必须大于 0: " + maxDepth);
+        }
+        this.maxDepth = maxDepth;
+        return this;
+    }
+    
+    /**
+     * 只返回名称匹配通配符的条目，支持 *、?、[...] 和 {a,b}
+     *
+     * @param glob 通配符
+     * @return
+     */
+    public WalkOptions setGlob(String glob) {
+        this.namePattern = glob == null ? null : Pattern.compile(globToRegex(glob));
+        return this;
+    }
+    
+    /**
+     * 只返回名称完全匹配正则表达式的条目
+     *
+     * @param regex 正则表达式
+     * @return
+     */
+    public WalkOptions setRegex(String regex) {
+        this.namePattern = regex == null ? null : Pattern.compile(regex);
+        return this;
+    }
+    
+    /**
+     * 只返回满足条件的条目，不影响是否进入目录
+     *
+     * @param filter
+     * @return
+     */
+    public WalkOptions setFilter(Filter filter) {
+        this.filter = filter;
+        return this;
+    }
+    
+    /**
+     * 满足条件的目录不再进入，目录本身仍按过滤条件返回
+     *
+     * @param prune
+     * @return
+     */
+    public WalkOptions setPrune(Filter prune) {
+        this.prune = prune;
+        return this;
+    }
+    
+    /**
+     * 是否进入指向目录的符号链接
+     *
+     * @param followSymlinks
+     * @return
+     */
+    public WalkOptions setFollowSymlinks(boolean followSymlinks) {
+        this.followSymlinks = followSymlinks;
+        return this;
+    }
+    
+    /**
+     * 是否在线程池中并行遍历子目录，并行时结果按路径排序
+     *
+     * @param parallel
+     * @return
+     */
+    public WalkOptions setParallel(boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+    
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+    
+    public boolean isFollowSymlinks() {
+        return followSymlinks;
+    }
+    
+    public boolean isParallel() {
+        return parallel;
+    }
+    
+    /**
+     * 条目是否满足名称和过滤条件
+     *
+     * @param entry
+     * @return
+     */
+    public boolean accept(FileEntry entry) {
+        if (namePattern != null && !namePattern.matcher(entry.getName()).matches()) {
+            return false;
+        }
+        return filter == null || filter.accept(entry);
+    }
+    
+    /**
+     * 目录是否需要跳过
+     *
+     * @param entry
+     * @return
+     */
+    public boolean isPruned(FileEntry entry) {
+        return prune != null && prune.accept(entry);
+    }
+    
+    private static String globToRegex(String glob) {
+        StringBuilder sb = new StringBuilder();
+        boolean inClass = false;
+        boolean inGroup = false;
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (inClass) {
+                if (c == ']') {
+                    inClass = false;
+                } else if (c == '\\') {
+                    sb.append('\\');
+                }
+                sb.append(c);
+                continue;
+            }
+            switch (c) {
+                case '*':
+                    sb.append(".*");
+                    break;
+                case '?':
+                    sb.append('.');
+                    break;
+                case '[':
+                    inClass = true;
+                    sb.append('[');
+                    if (i + 1 < glob.length() && glob.charAt(i + 1) == '!') {
+                        sb.append('^');
+                        i++;
+                    }
+                    break;
+                case '{':
+                    inGroup = true;
+                    sb.append("(?:");
+                    break;
+                case '}':
+                    if (inGroup) {
+                        inGroup = false;
+                        sb.append(')');
+                    } else {
+                        sb.append("\\}");
+                    }
+                    break;
+                case ',':
+                    sb.append(inGroup ? "|" : ",");
+                    break;
+                default:
+                    if ("\\.^$|()+".indexOf(c) >= 0) {
+                        sb.append('\\');
+                    }
+                    sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+    
+    public interface Filter {
+        /**
+         * 判断条目是否满足条件
+         *
+         * @param entry
+         * @return
+         */
+        boolean accept(FileEntry entry);
+    }
+}
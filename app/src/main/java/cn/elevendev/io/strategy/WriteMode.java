@@ -0,0 +1,15 @@
+package cn.elevendev.io.strategy;
+
+public enum WriteMode {
+    
+    /**
+     * 直接写入目标文件，不同步到磁盘
+     */
+    NORMAL,
+    
+    /**
+     * 先写入临时文件并同步到磁盘，再原子替换目标文件，
+     * 同一时间段内的同步请求合并为一次批量提交
+     */
+    DURABLE;
+}
@@ -0,0 +1,25 @@
+package cn.elevendev.io.utils;
+
+import android.os.Trace;
+
+/**
+ * 把区间输出到 android.os.Trace，在 Perfetto 或 systrace 抓取的轨迹中显示为嵌套的 section
+ */
+public class AndroidTraceSink implements SpanSink {
+
+    /**
+     * Trace.beginSection 的名称长度上限
+     */
+    private static final int MAX_SECTION_NAME_LENGTH = 127;
+
+    @Override
+    public void onBegin(Tracer.Span span) {
+        String name = span.getName();
+        Trace.beginSection(name.length() > MAX_SECTION_NAME_LENGTH ? name.substring(0, MAX_SECTION_NAME_LENGTH) : name);
+    }
+
+    @Override
+    public void onEnd(Tracer.Span span) {
+        Trace.endSection();
+    }
+}
@@ -0,0 +1,172 @@
+package cn.elevendev.io.utils;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按大小分级的线程安全缓冲区池，分别缓存堆缓冲区和直接缓冲区
+ * 容量按 2 的幂向上取整到 4KB ~ 1MB 之间的级别，超过 1MB 的请求不经过池；
+ * 池中保留的总字节数超过上限时，归还的缓冲区直接丢弃交给 GC
+ */
+public class BufferPool {
+
+    /**
+     * 复制和读取循环使用的缓冲区大小
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final int MIN_SHIFT = 12;
+    private static final int MAX_SHIFT = 20;
+    private static final int CLASS_COUNT = MAX_SHIFT - MIN_SHIFT + 1;
+
+    private static final ConcurrentLinkedDeque<ByteBuffer>[] heapBuffers = newDeques();
+    private static final ConcurrentLinkedDeque<ByteBuffer>[] directBuffers = newDeques();
+
+    private static final AtomicLong retainedBytes = new AtomicLong();
+    private static final AtomicLong hitCount = new AtomicLong();
+    private static final AtomicLong missCount = new AtomicLong();
+    private static volatile long maxRetainedBytes = 8L << 20;
+
+    /**
+     * 获取堆缓冲区，可以通过 array() 当作 byte[] 使用
+     *
+     * @param size 需要的最小容量
+     * @return 已清空的缓冲区，容量可能大于 size，使用完毕后需要调用 release 归还
+     */
+    public static ByteBuffer acquire(int size) {
+        return acquire(size, false);
+    }
+
+    /**
+     * 获取直接缓冲区，适用于通道读写，避免 JVM 在堆和本地内存之间复制
+     *
+     * @param size 需要的最小容量
+     * @return 已清空的缓冲区，容量可能大于 size，使用完毕后需要调用 release 归还
+     */
+    public static ByteBuffer acquireDirect(int size) {
+        return acquire(size, true);
+    }
+
+    /**
+     * 归还缓冲区，归还后不能再使用
+     *
+     * @param buffer 通过 acquire 或 acquireDirect 获取的缓冲区
+     */
+    public static void release(ByteBuffer buffer) {
+        int index = indexOf(buffer.capacity());
+        if (index < 0 || buffer.capacity() != 1 << (index + MIN_SHIFT) || buffer.isReadOnly()) {
+            return;
+        }
+        long capacity = buffer.capacity();
+        long retained;
+        do {
+            retained = retainedBytes.get();
+            if (retained + capacity > maxRetainedBytes) {
+                return;
+            }
+        } while (!retainedBytes.compareAndSet(retained, retained + capacity));
+        buffer.clear();
+        (buffer.isDirect() ? directBuffers : heapBuffers)[index].offerFirst(buffer);
+    }
+
+    /**
+     * 设置池中最多保留的字节数，已保留的缓冲区在下次获取时逐渐释放
+     *
+     * @param maxBytes 为 0 时不保留任何缓冲区
+     */
+    public static void setMaxRetainedBytes(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("保留字节数不能小于 0: " + maxBytes);
+        }
+        maxRetainedBytes = maxBytes;
+    }
+
+    /**
+     * 获取池中当前保留的字节数
+     *
+     * @return
+     */
+    public static long getRetainedBytes() {
+        return retainedBytes.get();
+    }
+
+    /**
+     * 获取从池中取到缓冲区的次数
+     *
+     * @return
+     */
+    public static long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * 获取池中没有可用缓冲区、需要新分配的次数
+     *
+     * @return
+     */
+    public static long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * 清空池中保留的缓冲区并重置计数
+     */
+    public static void clear() {
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            drain(heapBuffers[i]);
+            drain(directBuffers[i]);
+        }
+        hitCount.set(0);
+        missCount.set(0);
+    }
+
+    private static ByteBuffer acquire(int size, boolean direct) {
+        int index = indexOf(size);
+        if (index < 0) {
+            missCount.incrementAndGet();
+            return direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+        }
+        ByteBuffer buffer = (direct ? directBuffers : heapBuffers)[index].pollFirst();
+        if (buffer != null) {
+            retainedBytes.addAndGet(-buffer.capacity());
+            hitCount.incrementAndGet();
+            return buffer;
+        }
+        missCount.incrementAndGet();
+        int capacity = 1 << (index + MIN_SHIFT);
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    /**
+     * 获取容量所属的级别
+     *
+     * @param size
+     * @return 级别下标，超过最大级别时返回 -1
+     */
+    private static int indexOf(int size) {
+        if (size > 1 << MAX_SHIFT) {
+            return -1;
+        }
+        if (size <= 1 << MIN_SHIFT) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+    }
+
+    private static void drain(ConcurrentLinkedDeque<ByteBuffer> deque) {
+        ByteBuffer buffer;
+        while ((buffer = deque.pollFirst()) != null) {
+            retainedBytes.addAndGet(-buffer.capacity());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ConcurrentLinkedDeque<ByteBuffer>[] newDeques() {
+        ConcurrentLinkedDeque<ByteBuffer>[] deques = new ConcurrentLinkedDeque[CLASS_COUNT];
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            deques[i] = new ConcurrentLinkedDeque<>();
+        }
+        return deques;
+    }
+}
@@ -0,0 +1,69 @@
+package cn.elevendev.io.utils;
+
+import java.util.zip.Checksum;
+
+/**
+ * CRC-32C（Castagnoli）校验和，java.util.zip.CRC32C 在 Android 上不可用
+ * 使用 slicing-by-8 查表，每次处理 8 个字节
+ */
+public class CRC32C implements Checksum {
+
+    /**
+     * 反射形式的 Castagnoli 多项式
+     */
+    private static final int POLYNOMIAL = 0x82F63B78;
+
+    private static final int[][] TABLES = new int[8][256];
+
+    static {
+        for (int n = 0; n < 256; n++) {
+            int crc = n;
+            for (int k = 0; k < 8; k++) {
+                crc = (crc & 1) != 0 ? (crc >>> 1) ^ POLYNOMIAL : crc >>> 1;
+            }
+            TABLES[0][n] = crc;
+        }
+        for (int n = 0; n < 256; n++) {
+            int crc = TABLES[0][n];
+            for (int t = 1; t < 8; t++) {
+                crc = TABLES[0][crc & 0xFF] ^ (crc >>> 8);
+                TABLES[t][n] = crc;
+            }
+        }
+    }
+
+    private int crc = 0xFFFFFFFF;
+
+    @Override
+    public void update(int b) {
+        crc = TABLES[0][(crc ^ b) & 0xFF] ^ (crc >>> 8);
+    }
+
+    @Override
+    public void update(byte[] b, int off, int len) {
+        int[] t0 = TABLES[0], t1 = TABLES[1], t2 = TABLES[2], t3 = TABLES[3];
+        int[] t4 = TABLES[4], t5 = TABLES[5], t6 = TABLES[6], t7 = TABLES[7];
+        int value = crc;
+        int end = off + len;
+        while (end - off >= 8) {
+            int low = value ^ ((b[off] & 0xFF) | (b[off + 1] & 0xFF) << 8 | (b[off + 2] & 0xFF) << 16 | (b[off + 3] & 0xFF) << 24);
+            value = t7[low & 0xFF] ^ t6[(low >>> 8) & 0xFF] ^ t5[(low >>> 16) & 0xFF] ^ t4[low >>> 24]
+                    ^ t3[b[off + 4] & 0xFF] ^ t2[b[off + 5] & 0xFF] ^ t1[b[off + 6] & 0xFF] ^ t0[b[off + 7] & 0xFF];
+            off += 8;
+        }
+        while (off < end) {
+            value = t0[(value ^ b[off++]) & 0xFF] ^ (value >>> 8);
+        }
+        crc = value;
+    }
+
+    @Override
+    public long getValue() {
+        return ~crc & 0xFFFFFFFFL;
+    }
+
+    @Override
+    public void reset() {
+        crc = 0xFFFFFFFF;
+    }
+}
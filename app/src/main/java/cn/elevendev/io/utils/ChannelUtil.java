@@ -0,0 +1,284 @@
+package cn.elevendev.io.utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ChannelUtil {
+
+    /**
+     * 单次传输的最大字节数，Linux 的 sendfile 单次最多传输约 2GB
+     */
+    private static final long MAX_TRANSFER_SIZE = 1L << 30;
+
+    /**
+     * 分段映射时每段的大小
+     */
+    private static final long MAP_SEGMENT_SIZE = 1L << 30;
+
+    /**
+     * 增量复制的默认块大小
+     */
+    public static final int DELTA_BLOCK_SIZE = 64 * 1024;
+
+    /**
+     * 增量复制时每个并行任务处理的字节数
+     */
+    private static final long DELTA_SEGMENT_SIZE = 4L << 20;
+
+    /**
+     * 使用 FileChannel 复制文件，数据由内核直接传输，不经过 Java 堆
+     *
+     * @param sourceFile 源文件
+     * @param targetFile 目标文件
+     * @return 复制的字节数
+     * @throws IOException
+     */
+    public static long copyFile(File sourceFile, File targetFile) throws IOException {
+        try (FileChannel in = new FileInputStream(sourceFile).getChannel();
+             FileChannel out = new FileOutputStream(targetFile).getChannel()) {
+            return transfer(in, out);
+        }
+    }
+
+    /**
+     * 将源通道的全部内容传输到目标通道的当前位置
+     * transferTo 可能只传输部分数据，需要循环直到全部完成
+     *
+     * @param source 源通道
+     * @param target 目标通道
+     * @return 传输的字节数
+     * @throws IOException
+     */
+    public static long transfer(FileChannel source, FileChannel target) throws IOException {
+        long size = source.size();
+        long position = 0;
+
+        while (position < size) {
+            long count = Math.min(size - position, MAX_TRANSFER_SIZE);
+            long transferred = source.transferTo(position, count, target);
+
+            if (transferred <= 0) {
+                // transferTo 不可用时改用 transferFrom，它不会移动目标通道的位置
+                long targetPosition = target.position();
+                source.position(position);
+                transferred = target.transferFrom(source, targetPosition, count);
+                if (transferred <= 0) {
+                    // 源文件在复制过程中被截断
+                    break;
+                }
+                target.position(targetPosition + transferred);
+            }
+            position += transferred;
+        }
+        return position;
+    }
+
+    /**
+     * 通过池中的直接缓冲区在任意两个通道之间复制数据，适用于无法使用 transferTo 的管道或文档通道
+     *
+     * @param source 源通道
+     * @param target 目标通道
+     * @return 复制的字节数
+     * @throws IOException
+     */
+    public static long copy(ReadableByteChannel source, WritableByteChannel target) throws IOException {
+        ByteBuffer buffer = BufferPool.acquireDirect(BufferPool.DEFAULT_BUFFER_SIZE);
+        try {
+            long total = 0;
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    total += target.write(buffer);
+                }
+                buffer.clear();
+            }
+            return total;
+        } finally {
+            BufferPool.release(buffer);
+        }
+    }
+
+    /**
+     * 检查读写范围是否合法
+     *
+     * @param offset 起始位置
+     * @param length 长度
+     * @throws IllegalArgumentException 起始位置或长度为负数
+     */
+    public static void checkRange(long offset, long length) {
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("无效的范围: offset=" + offset + ", length=" + length);
+        }
+    }
+
+    /**
+     * 从指定位置读取数据，不改变通道的当前位置
+     *
+     * @param channel 文件通道
+     * @param offset 起始位置
+     * @param length 读取的字节数
+     * @return 读取的数据，到达文件末尾时可能少于 length
+     * @throws IOException
+     */
+    public static byte[] readRange(FileChannel channel, long offset, int length) throws IOException {
+        checkRange(offset, length);
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                break;
+            }
+        }
+        return buffer.position() == length ? buffer.array() : Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /**
+     * 从指定位置写入数据，不改变通道的当前位置，也不截断文件
+     *
+     * @param channel 文件通道
+     * @param offset 起始位置，超过文件末尾时中间以 0 填充
+     * @param data 要写入的数据
+     * @throws IOException
+     */
+    public static void writeRange(FileChannel channel, long offset, byte[] data) throws IOException {
+        checkRange(offset, data.length);
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, offset + buffer.position());
+        }
+    }
+
+    /**
+     * 以只读方式将整个通道映射到内存，映射在通道关闭后仍然有效
+     *
+     * @param channel 文件通道
+     * @return 只读的映射缓冲区
+     * @throws IOException 文件超过 2GB
+     */
+    public static MappedByteBuffer map(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("文件超过 2GB，请使用分段映射: " + size);
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    /**
+     * 以只读方式将整个通道分段映射到内存，每段最大 1GB
+     *
+     * @param channel 文件通道
+     * @return 按文件顺序排列的只读映射缓冲区
+     * @throws IOException
+     */
+    public static List<MappedByteBuffer> mapSegments(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<MappedByteBuffer> segments = new ArrayList<>();
+        for (long position = 0; position < size; position += MAP_SEGMENT_SIZE) {
+            long count = Math.min(size - position, MAP_SEGMENT_SIZE);
+            segments.add(channel.map(FileChannel.MapMode.READ_ONLY, position, count));
+        }
+        return segments;
+    }
+
+    /**
+     * 增量复制，按块比较源文件和目标文件，只把内容不同的块按位置写入目标文件，最后截断到源文件的大小
+     * 两个文件都需要完整读取，但只写入变化的部分，各段由多个线程并行处理
+     *
+     * @param source 源文件通道
+     * @param targetReader 读取目标文件的通道
+     * @param targetWriter 写入目标文件的通道，可以与 targetReader 相同
+     * @param blockSize 块大小
+     * @return 写入的字节数
+     * @throws IOException
+     */
+    public static long deltaCopy(FileChannel source, FileChannel targetReader, FileChannel targetWriter, int blockSize) throws IOException {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("块大小必须大于 0: " + blockSize);
+        }
+        long size = source.size();
+        long segmentSize = Math.max(1, DELTA_SEGMENT_SIZE / blockSize) * blockSize;
+        List<long[]> segments = new ArrayList<>();
+        for (long position = 0; position < size; position += segmentSize) {
+            segments.add(new long[]{position, Math.min(segmentSize, size - position)});
+        }
+        AtomicLong written = new AtomicLong();
+        ParallelRunner.runAll(segments, segment ->
+                written.addAndGet(deltaCopySegment(source, targetReader, targetWriter, segment[0], segment[1], blockSize)));
+        if (targetWriter.size() > size) {
+            targetWriter.truncate(size);
+        }
+        return written.get();
+    }
+
+    /**
+     * 增量复制文件的一段
+     *
+     * @param source
+     * @param targetReader
+     * @param targetWriter
+     * @param start 起始位置
+     * @param length 字节数
+     * @param blockSize
+     * @return 写入的字节数
+     * @throws IOException 源文件在复制期间变短
+     */
+    private static long deltaCopySegment(FileChannel source, FileChannel targetReader, FileChannel targetWriter,
+                                         long start, long length, int blockSize) throws IOException {
+        ByteBuffer sourceBuffer = BufferPool.acquire(blockSize);
+        ByteBuffer targetBuffer = BufferPool.acquire(blockSize);
+        try {
+            long written = 0;
+            long end = start + length;
+            for (long position = start; position < end; position += blockSize) {
+                int count = (int) Math.min(blockSize, end - position);
+                if (readFully(source, sourceBuffer, position, count) < count) {
+                    throw new IOException("文件在读取期间被截断");
+                }
+                // 目标文件较短时读取到的内容不足一块，一定与源文件不同
+                readFully(targetReader, targetBuffer, position, count);
+                if (!sourceBuffer.equals(targetBuffer)) {
+                    while (sourceBuffer.hasRemaining()) {
+                        targetWriter.write(sourceBuffer, position + sourceBuffer.position());
+                    }
+                    written += count;
+                }
+            }
+            return written;
+        } finally {
+            BufferPool.release(sourceBuffer);
+            BufferPool.release(targetBuffer);
+        }
+    }
+
+    /**
+     * 从指定位置读取数据到缓冲区，读取后缓冲区已翻转
+     *
+     * @param channel
+     * @param buffer
+     * @param position 起始位置
+     * @param count 最多读取的字节数
+     * @return 读取的字节数，到达文件末尾时小于 count
+     * @throws IOException
+     */
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position, int count) throws IOException {
+        buffer.clear();
+        buffer.limit(count);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer.limit();
+    }
+}
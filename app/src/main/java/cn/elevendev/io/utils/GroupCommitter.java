@@ -0,0 +1,195 @@
+package cn.elevendev.io.utils;
+
+import android.system.ErrnoException;
+import android.system.Os;
+import android.system.OsConstants;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 持久化写入的批量提交
+ * 写入线程把数据写到临时文件后提交请求并等待，提交线程每隔一段时间取出所有请求，
+ * 依次同步文件数据、原子重命名、同步涉及的父目录，完成后唤醒同一批次的全部写入线程
+ */
+public class GroupCommitter {
+
+    private static volatile long commitIntervalMillis = 10;
+    private static final Object lock = new Object();
+    private static List<Request> pending = new ArrayList<>();
+    private static Thread committer;
+
+    /**
+     * 设置批量提交的时间间隔，间隔越长合并的请求越多，单次写入的等待时间也越长
+     *
+     * @param millis 毫秒，为 0 时不等待立即提交
+     */
+    public static void setCommitInterval(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("提交间隔不能小于 0: " + millis);
+        }
+        commitIntervalMillis = millis;
+    }
+
+    /**
+     * 持久化写入文件，返回时数据和目录项都已同步到磁盘
+     *
+     * @param targetFile 目标文件，父目录必须存在
+     * @param data 要写入的数据
+     * @throws IOException
+     */
+    public static void write(File targetFile, byte[] data) throws IOException {
+        File tempFile = File.createTempFile("." + targetFile.getName() + ".", ".tmp", targetFile.getParentFile());
+        Request request = null;
+        try (FileOutputStream fos = new FileOutputStream(tempFile)) {
+            fos.write(data);
+            request = new Request(fos.getFD(), tempFile, targetFile);
+            submit(request);
+            await(request);
+        } finally {
+            if (request == null || request.error != null) {
+                tempFile.delete();
+            }
+        }
+        if (request.error != null) {
+            throw request.error;
+        }
+    }
+
+    private static void submit(Request request) {
+        synchronized (lock) {
+            pending.add(request);
+            if (committer == null) {
+                committer = new Thread(GroupCommitter::run, "IOUtils-GroupCommit");
+                committer.setDaemon(true);
+                committer.start();
+            }
+            lock.notifyAll();
+        }
+    }
+
+    private static void await(Request request) {
+        // 请求已提交，必须等待批次完成后才能清理临时文件，中断状态在返回前恢复
+        boolean interrupted = false;
+        synchronized (lock) {
+            while (!request.done) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void run() {
+        while (true) {
+            List<Request> batch;
+            try {
+                synchronized (lock) {
+                    while (pending.isEmpty()) {
+                        lock.wait();
+                    }
+                }
+                long interval = commitIntervalMillis;
+                if (interval > 0) {
+                    Thread.sleep(interval);
+                }
+            } catch (InterruptedException e) {
+                // 守护线程不会被外部中断，继续处理
+            }
+            synchronized (lock) {
+                batch = pending;
+                pending = new ArrayList<>();
+            }
+
+            try {
+                commit(batch);
+            } catch (Throwable e) {
+                // 意外异常不能结束提交线程，否则本批次和之后的写入线程会一直等待；是否已持久化无法确定，按失败处理
+                for (Request request : batch) {
+                    if (request.error == null) {
+                        request.error = new IOException("批量提交失败", e);
+                    }
+                }
+            } finally {
+                synchronized (lock) {
+                    for (Request request : batch) {
+                        request.done = true;
+                    }
+                    lock.notifyAll();
+                }
+            }
+        }
+    }
+
+    private static void commit(List<Request> batch) {
+        Set<File> parentDirs = new LinkedHashSet<>();
+        for (Request request : batch) {
+            try {
+                request.fd.sync();
+                if (!request.tempFile.renameTo(request.targetFile)) {
+                    throw new IOException("无法替换文件: " + request.targetFile.getAbsolutePath());
+                }
+                parentDirs.add(request.targetFile.getAbsoluteFile().getParentFile());
+            } catch (IOException e) {
+                request.error = e;
+            }
+        }
+
+        for (File dir : parentDirs) {
+            IOException error = syncDirectory(dir);
+            if (error == null) {
+                continue;
+            }
+            for (Request request : batch) {
+                if (request.error == null && dir.equals(request.targetFile.getAbsoluteFile().getParentFile())) {
+                    request.error = error;
+                }
+            }
+        }
+    }
+
+    /**
+     * 同步目录项，保证重命名在断电后仍然有效
+     *
+     * @param dir
+     * @return 失败时返回异常
+     */
+    private static IOException syncDirectory(File dir) {
+        try {
+            FileDescriptor fd = Os.open(dir.getAbsolutePath(), OsConstants.O_RDONLY, 0);
+            try {
+                Os.fsync(fd);
+            } finally {
+                Os.close(fd);
+            }
+            return null;
+        } catch (ErrnoException e) {
+            return new IOException("无法同步目录: " + dir.getAbsolutePath(), e);
+        }
+    }
+
+    private static class Request {
+
+        final FileDescriptor fd;
+        final File tempFile;
+        final File targetFile;
+        IOException error;
+        boolean done;
+
+        Request(FileDescriptor fd, File tempFile, File targetFile) {
+            this.fd = fd;
+            this.tempFile = tempFile;
+            this.targetFile = targetFile;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package cn.elevendev.io.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步接口使用的线程池，与 ForkJoinPool.commonPool 和 ParallelRunner 的计算线程池分开，
+ * 线程数有上限，多余的任务排队等待，空闲线程超时后退出
+ */
+public class IOExecutors {
+
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static final AtomicInteger threadNumber = new AtomicInteger();
+    private static ThreadPoolExecutor ioExecutor;
+    private static int threadCount = 4;
+    private static Executor mainThreadExecutor;
+
+    /**
+     * 获取执行文件操作的线程池
+     *
+     * @return
+     */
+    public static synchronized Executor getIOExecutor() {
+        if (ioExecutor == null) {
+            ioExecutor = new ThreadPoolExecutor(threadCount, threadCount, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "IOUtils-IO-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            ioExecutor.allowCoreThreadTimeOut(true);
+        }
+        return ioExecutor;
+    }
+
+    /**
+     * 设置执行文件操作的最大线程数，已排队的任务不受影响
+     *
+     * @param count 最大线程数
+     */
+    public static synchronized void setThreadCount(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("线程数必须大于 0: " + count);
+        }
+        threadCount = count;
+        if (ioExecutor != null) {
+            // 先调整较大的一侧，保证 core <= max
+            if (count > ioExecutor.getMaximumPoolSize()) {
+                ioExecutor.setMaximumPoolSize(count);
+                ioExecutor.setCorePoolSize(count);
+            } else {
+                ioExecutor.setCorePoolSize(count);
+                ioExecutor.setMaximumPoolSize(count);
+            }
+        }
+    }
+
+    /**
+     * 获取在主线程执行任务的 Executor，用于把异步结果交给 UI
+     *
+     * @return
+     */
+    public static synchronized Executor getMainThreadExecutor() {
+        if (mainThreadExecutor == null) {
+            Handler handler = new Handler(Looper.getMainLooper());
+            mainThreadExecutor = handler::post;
+        }
+        return mainThreadExecutor;
+    }
+}
@@ -0,0 +1,72 @@
+package cn.elevendev.io.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 在内存中保存已结束的区间，用于测试和调试，超过容量时丢弃最早的区间
+ */
+public class InMemorySpanSink implements SpanSink {
+
+    private final ArrayDeque<Tracer.Span> spans = new ArrayDeque<>();
+    private final int capacity;
+
+    public InMemorySpanSink() {
+        this(10000);
+    }
+
+    /**
+     * @param capacity 最多保存的区间数
+     */
+    public InMemorySpanSink(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("容量必须大于 0: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void onBegin(Tracer.Span span) {
+    }
+
+    @Override
+    public synchronized void onEnd(Tracer.Span span) {
+        if (spans.size() == capacity) {
+            spans.pollFirst();
+        }
+        spans.addLast(span);
+    }
+
+    /**
+     * 获取已结束的区间，按结束顺序排列，子区间在父区间之前
+     *
+     * @return
+     */
+    public synchronized List<Tracer.Span> getSpans() {
+        return new ArrayList<>(spans);
+    }
+
+    /**
+     * 获取指定名称的区间
+     *
+     * @param name 区间名称
+     * @return
+     */
+    public synchronized List<Tracer.Span> getSpans(String name) {
+        List<Tracer.Span> result = new ArrayList<>();
+        for (Tracer.Span span : spans) {
+            if (span.getName().equals(name)) {
+                result.add(span);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 清空已保存的区间
+     */
+    public synchronized void clear() {
+        spans.clear();
+    }
+}
@@ -0,0 +1,134 @@
+package cn.elevendev.io.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁的延迟直方图，桶按 2 的幂分级，每级再均分为 8 个子桶，相对误差不超过 12.5%
+ * 记录只做原子自增，可以在任意线程并发调用
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * 最大可区分的延迟约为 2^40 纳秒（约 18 分钟），更大的值计入最后一个桶
+     */
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * 记录一次延迟
+     *
+     * @param nanos 纳秒，负数按 0 计
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts.incrementAndGet(indexOf(nanos));
+        totalCount.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        long max;
+        while (nanos > (max = maxNanos.get())) {
+            if (maxNanos.compareAndSet(max, nanos)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 获取记录次数
+     *
+     * @return
+     */
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * 获取平均延迟
+     *
+     * @return 纳秒，没有记录时返回 0
+     */
+    public long getMeanNanos() {
+        long count = totalCount.get();
+        return count == 0 ? 0 : totalNanos.get() / count;
+    }
+
+    /**
+     * 获取最大延迟
+     *
+     * @return 纳秒
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * 获取分位数延迟，返回所在桶的上界，不超过记录到的最大值
+     *
+     * @param quantile 0 ~ 1 之间，例如 0.99
+     * @return 纳秒，没有记录时返回 0
+     */
+    public long getPercentileNanos(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("分位数必须在 0 ~ 1 之间: " + quantile);
+        }
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(quantile * count));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulative += snapshot[i];
+            if (cumulative >= target) {
+                return Math.min(upperBoundOf(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    /**
+     * 清空记录，与并发的 record 之间不保证原子性
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        int index = (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        return Math.min(index, BUCKET_COUNT - 1);
+    }
+
+    private static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,155 @@
+package cn.elevendev.io.utils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 在有界的 ForkJoinPool 上并行执行文件任务
+ */
+public class ParallelRunner {
+
+    private static volatile int parallelism = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static ForkJoinPool pool;
+
+    /**
+     * 获取并行度
+     *
+     * @return 同时执行的最大任务数
+     */
+    public static int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * 设置并行度，为 1 时所有任务在调用线程上顺序执行
+     *
+     * @param parallelism 同时执行的最大任务数
+     */
+    public static void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("并行度必须大于 0: " + parallelism);
+        }
+        ParallelRunner.parallelism = parallelism;
+    }
+
+    /**
+     * 获取共享的线程池，并行度变化后重新创建
+     *
+     * @return
+     */
+    public static synchronized ForkJoinPool getPool() {
+        if (pool == null || pool.getParallelism() != parallelism) {
+            if (pool != null) {
+                pool.shutdown();
+            }
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
+    }
+
+    /**
+     * 并行处理所有元素，全部完成后返回
+     * 失败按元素顺序汇总，与执行顺序无关：抛出第一个失败的异常，其余失败附加为 suppressed
+     *
+     * @param items 待处理的元素
+     * @param task 处理单个元素的任务
+     * @throws IOException 任意元素处理失败
+     */
+    public static <T> void runAll(List<T> items, Task<T> task) throws IOException {
+        if (items.isEmpty()) {
+            return;
+        }
+        IOException[] errors = new IOException[items.size()];
+        if (parallelism == 1 || items.size() == 1) {
+            for (int i = 0; i < items.size(); i++) {
+                run(items, task, errors, i);
+            }
+        } else {
+            getPool().invoke(new RunAction<>(items, task, errors, 0, items.size()));
+        }
+        throwIfFailed(errors);
+    }
+
+    private static <T> void run(List<T> items, Task<T> task, IOException[] errors, int index) {
+        try {
+            task.run(items.get(index));
+        } catch (IOException e) {
+            errors[index] = e;
+        } catch (RuntimeException e) {
+            errors[index] = new IOException(e);
+        }
+    }
+
+    private static void throwIfFailed(IOException[] errors) throws IOException {
+        IOException first = null;
+        int count = 0;
+        for (IOException error : errors) {
+            if (error == null) {
+                continue;
+            }
+            count++;
+            if (first == null) {
+                first = error;
+            }
+        }
+        if (first == null) {
+            return;
+        }
+        if (count == 1) {
+            throw first;
+        }
+        IOException exception = new IOException(count + " 项操作失败，首个错误: " + first.getMessage(), first);
+        boolean skippedFirst = false;
+        for (IOException error : errors) {
+            if (error == null) {
+                continue;
+            }
+            if (!skippedFirst) {
+                skippedFirst = true;
+                continue;
+            }
+            exception.addSuppressed(error);
+        }
+        throw exception;
+    }
+
+    public interface Task<T> {
+        /**
+         * 处理单个元素
+         *
+         * @param item
+         * @throws IOException
+         */
+        void run(T item) throws IOException;
+    }
+
+    private static class RunAction<T> extends RecursiveAction {
+
+        private final List<T> items;
+        private final Task<T> task;
+        private final IOException[] errors;
+        private final int start;
+        private final int end;
+
+        RunAction(List<T> items, Task<T> task, IOException[] errors, int start, int end) {
+            this.items = items;
+            this.task = task;
+            this.errors = errors;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start == 1) {
+                run(items, task, errors, start);
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new RunAction<>(items, task, errors, start, middle),
+                    new RunAction<>(items, task, errors, middle, end));
+        }
+    }
+}
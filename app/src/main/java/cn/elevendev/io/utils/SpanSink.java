@@ -0,0 +1,17 @@
+package cn.elevendev.io.utils;
+
+public interface SpanSink {
+    /**
+     * 区间开始，在执行操作的线程上调用
+     *
+     * @param span 刚开始的区间
+     */
+    void onBegin(Tracer.Span span);
+
+    /**
+     * 区间结束，与 onBegin 在同一线程上调用，子区间总是先于父区间结束
+     *
+     * @param span 已结束的区间，可以读取耗时
+     */
+    void onEnd(Tracer.Span span);
+}
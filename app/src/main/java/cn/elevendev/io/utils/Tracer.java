@@ -0,0 +1,183 @@
+package cn.elevendev.io.utils;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 文件操作的分阶段追踪，区间按线程嵌套，结束时交给已注册的输出
+ * 没有注册任何输出时 begin 返回共享的空区间，开销只有一次 volatile 读取
+ *
+ * <pre>
+ * try (Tracer.Span span = Tracer.begin("DocumentStrategy.resolve")) {
+ *     ...
+ * }
+ * </pre>
+ */
+public class Tracer {
+
+    private static final CopyOnWriteArrayList<SpanSink> sinks = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<Span> currentSpan = new ThreadLocal<>();
+    private static volatile SpanSink[] activeSinks = new SpanSink[0];
+
+    /**
+     * 注册区间输出
+     *
+     * @param sink 例如 AndroidTraceSink 或 InMemorySpanSink
+     */
+    public static void addSink(SpanSink sink) {
+        sinks.addIfAbsent(sink);
+        activeSinks = sinks.toArray(new SpanSink[0]);
+    }
+
+    /**
+     * 移除区间输出，已开始的区间仍会通知到该输出
+     *
+     * @param sink
+     */
+    public static void removeSink(SpanSink sink) {
+        sinks.remove(sink);
+        activeSinks = sinks.toArray(new SpanSink[0]);
+    }
+
+    /**
+     * 是否有已注册的输出
+     *
+     * @return
+     */
+    public static boolean isEnabled() {
+        return activeSinks.length > 0;
+    }
+
+    /**
+     * 开始一个区间，作为当前线程上未结束区间的子区间
+     *
+     * @param name 区间名称，例如 "DocumentStrategy.permission"
+     * @return 区间，需要在同一线程上关闭
+     */
+    public static Span begin(String name) {
+        SpanSink[] sinks = activeSinks;
+        if (sinks.length == 0) {
+            return Span.NOOP;
+        }
+        return start(name, sinks);
+    }
+
+    /**
+     * 开始一个区间，名称由两部分拼接，只在追踪开启时拼接
+     *
+     * @param prefix 名称前缀，例如 "FileStrategy."
+     * @param name 操作名称，例如 "readFile"
+     * @return 区间，需要在同一线程上关闭
+     */
+    public static Span begin(String prefix, String name) {
+        SpanSink[] sinks = activeSinks;
+        if (sinks.length == 0) {
+            return Span.NOOP;
+        }
+        return start(prefix + name, sinks);
+    }
+
+    private static Span start(String name, SpanSink[] sinks) {
+        Span parent = currentSpan.get();
+        Span span = new Span(name, parent, sinks);
+        currentSpan.set(span);
+        for (SpanSink sink : sinks) {
+            sink.onBegin(span);
+        }
+        return span;
+    }
+
+    /**
+     * 追踪区间，开始和结束之间的耗时即该阶段的耗时
+     */
+    public static class Span implements AutoCloseable {
+
+        static final Span NOOP = new Span(null, null, null);
+
+        private final String name;
+        private final Span parent;
+        private final int depth;
+        private final String threadName;
+        private final long startNanos;
+        private final SpanSink[] sinks;
+        private long durationNanos = -1;
+
+        private Span(String name, Span parent, SpanSink[] sinks) {
+            this.name = name;
+            this.parent = parent;
+            this.depth = parent != null ? parent.depth + 1 : 0;
+            this.threadName = sinks != null ? Thread.currentThread().getName() : null;
+            this.startNanos = sinks != null ? System.nanoTime() : 0;
+            this.sinks = sinks;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 获取父区间
+         *
+         * @return 顶层区间返回 null
+         */
+        public Span getParent() {
+            return parent;
+        }
+
+        /**
+         * 获取嵌套深度
+         *
+         * @return 顶层区间为 0
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        public String getThreadName() {
+            return threadName;
+        }
+
+        /**
+         * 获取开始时间
+         *
+         * @return System.nanoTime 的值
+         */
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        /**
+         * 获取耗时
+         *
+         * @return 纳秒，未结束时返回 -1
+         */
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        /**
+         * 结束区间，重复关闭不会重复通知
+         */
+        @Override
+        public void close() {
+            if (sinks == null || durationNanos >= 0) {
+                return;
+            }
+            durationNanos = System.nanoTime() - startNanos;
+            if (currentSpan.get() == this) {
+                if (parent != null) {
+                    currentSpan.set(parent);
+                } else {
+                    currentSpan.remove();
+                }
+            }
+            for (SpanSink sink : sinks) {
+                sink.onEnd(this);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + durationNanos / 1000 + "us (depth=" + depth + ", thread=" + threadName + ")";
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package cn.elevendev.io.utils;
+
+import java.util.zip.Checksum;
+
+/**
+ * xxHash64 非加密哈希，种子为 0，支持分多次输入
+ */
+public class XXHash64 implements Checksum {
+
+    private static final long PRIME1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME3 = 0x165667B19E3779F9L;
+    private static final long PRIME4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME5 = 0x27D4EB2F165667C5L;
+
+    private final long seed;
+    private long v1;
+    private long v2;
+    private long v3;
+    private long v4;
+    private long totalLength;
+
+    /**
+     * 不足 32 字节的剩余输入
+     */
+    private final byte[] pending = new byte[32];
+    private int pendingLength;
+
+    public XXHash64() {
+        this(0);
+    }
+
+    public XXHash64(long seed) {
+        this.seed = seed;
+        reset();
+    }
+
+    @Override
+    public void update(int b) {
+        update(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void update(byte[] b, int off, int len) {
+        totalLength += len;
+        if (pendingLength + len < 32) {
+            System.arraycopy(b, off, pending, pendingLength, len);
+            pendingLength += len;
+            return;
+        }
+
+        int end = off + len;
+        if (pendingLength > 0) {
+            int fill = 32 - pendingLength;
+            System.arraycopy(b, off, pending, pendingLength, fill);
+            processStripe(pending, 0);
+            off += fill;
+            pendingLength = 0;
+        }
+        while (end - off >= 32) {
+            processStripe(b, off);
+            off += 32;
+        }
+        if (off < end) {
+            pendingLength = end - off;
+            System.arraycopy(b, off, pending, 0, pendingLength);
+        }
+    }
+
+    @Override
+    public long getValue() {
+        long hash;
+        if (totalLength >= 32) {
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            hash = mergeRound(hash, v1);
+            hash = mergeRound(hash, v2);
+            hash = mergeRound(hash, v3);
+            hash = mergeRound(hash, v4);
+        } else {
+            hash = seed + PRIME5;
+        }
+        hash += totalLength;
+
+        int off = 0;
+        while (pendingLength - off >= 8) {
+            hash ^= round(0, readLong(pending, off));
+            hash = Long.rotateLeft(hash, 27) * PRIME1 + PRIME4;
+            off += 8;
+        }
+        if (pendingLength - off >= 4) {
+            hash ^= (readInt(pending, off) & 0xFFFFFFFFL) * PRIME1;
+            hash = Long.rotateLeft(hash, 23) * PRIME2 + PRIME3;
+            off += 4;
+        }
+        while (off < pendingLength) {
+            hash ^= (pending[off] & 0xFF) * PRIME5;
+            hash = Long.rotateLeft(hash, 11) * PRIME1;
+            off++;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= PRIME2;
+        hash ^= hash >>> 29;
+        hash *= PRIME3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    @Override
+    public void reset() {
+        v1 = seed + PRIME1 + PRIME2;
+        v2 = seed + PRIME2;
+        v3 = seed;
+        v4 = seed - PRIME1;
+        totalLength = 0;
+        pendingLength = 0;
+    }
+
+    private void processStripe(byte[] b, int off) {
+        v1 = round(v1, readLong(b, off));
+        v2 = round(v2, readLong(b, off + 8));
+        v3 = round(v3, readLong(b, off + 16));
+        v4 = round(v4, readLong(b, off + 24));
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * PRIME2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * PRIME1;
+    }
+
+    private static long mergeRound(long acc, long value) {
+        acc ^= round(0, value);
+        return acc * PRIME1 + PRIME4;
+    }
+
+    private static long readLong(byte[] b, int off) {
+        return (b[off] & 0xFFL) | (b[off + 1] & 0xFFL) << 8 | (b[off + 2] & 0xFFL) << 16 | (b[off + 3] & 0xFFL) << 24
+                | (b[off + 4] & 0xFFL) << 32 | (b[off + 5] & 0xFFL) << 40 | (b[off + 6] & 0xFFL) << 48 | (b[off + 7] & 0xFFL) << 56;
+    }
+
+    private static int readInt(byte[] b, int off) {
+        return (b[off] & 0xFF) | (b[off + 1] & 0xFF) << 8 | (b[off + 2] & 0xFF) << 16 | (b[off + 3] & 0xFF) << 24;
+    }
+}
@@ -0,0 +1,82 @@
+package cn.elevendev.io.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * 基准测试共用的临时文件工具
+ */
+final class BenchmarkFiles {
+
+    private BenchmarkFiles() {
+    }
+
+    /**
+     * 在系统临时目录下创建新目录
+     *
+     * @param prefix 目录名前缀
+     * @return
+     * @throws IOException
+     */
+    static File createTempDir(String prefix) throws IOException {
+        File dir = new File(System.getProperty("java.io.tmpdir"), prefix + "-" + System.nanoTime());
+        if (!dir.mkdirs()) {
+            throw new IOException("无法创建目录: " + dir.getAbsolutePath());
+        }
+        return dir;
+    }
+
+    /**
+     * 写入固定种子的随机内容，保证每次运行的数据相同
+     *
+     * @param file 目标文件
+     * @param size 文件大小
+     * @throws IOException
+     */
+    static void writeRandom(File file, long size) throws IOException {
+        byte[] block = new byte[(int) Math.min(size, 1 << 20)];
+        new Random(42).nextBytes(block);
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            long remaining = size;
+            while (remaining > 0) {
+                int count = (int) Math.min(block.length, remaining);
+                out.write(block, 0, count);
+                remaining -= count;
+            }
+        }
+    }
+
+    /**
+     * 创建包含若干个小文件的目录
+     *
+     * @param dir 目标目录
+     * @param count 文件数
+     * @param fileSize 每个文件的大小
+     * @throws IOException
+     */
+    static void createFiles(File dir, int count, int fileSize) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("无法创建目录: " + dir.getAbsolutePath());
+        }
+        for (int i = 0; i < count; i++) {
+            writeRandom(new File(dir, "file-" + i + ".bin"), fileSize);
+        }
+    }
+
+    /**
+     * 递归删除，不依赖被测试的策略
+     *
+     * @param file 文件或目录
+     */
+    static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,92 @@
+package cn.elevendev.io.benchmark;
+
+import cn.elevendev.io.utils.ChannelUtil;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 对比 8KB 缓冲流复制与 FileChannel 零拷贝复制
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class CopyBenchmark {
+
+    @Param({"4096", "65536", "1048576", "16777216", "268435456", "2147483648"})
+    public long fileSize;
+
+    private File dir;
+    private File sourceFile;
+    private File targetFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = new File(System.getProperty("java.io.tmpdir"), "io-utils-copy-" + System.nanoTime());
+        if (!dir.mkdirs()) {
+            throw new IOException("无法创建目录: " + dir.getAbsolutePath());
+        }
+        sourceFile = new File(dir, "source.bin");
+        targetFile = new File(dir, "target.bin");
+
+        byte[] block = new byte[1 << 20];
+        new Random(42).nextBytes(block);
+        try (FileOutputStream out = new FileOutputStream(sourceFile)) {
+            long remaining = fileSize;
+            while (remaining > 0) {
+                int count = (int) Math.min(block.length, remaining);
+                out.write(block, 0, count);
+                remaining -= count;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        targetFile.delete();
+        sourceFile.delete();
+        dir.delete();
+    }
+
+    /**
+     * 原先 FileStrategy 使用的复制方式
+     */
+    @Benchmark
+    public void streamCopy() throws IOException {
+        try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(sourceFile));
+            BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(targetFile))) {
+
+            byte[] buffer = new byte[8192];
+            int bytesRead;
+            while ((bytesRead = in.read(buffer)) != -1) {
+                out.write(buffer, 0, bytesRead);
+            }
+        }
+    }
+
+    @Benchmark
+    public long channelCopy() throws IOException {
+        return ChannelUtil.copyFile(sourceFile, targetFile);
+    }
+}
@@ -0,0 +1,90 @@
+package cn.elevendev.io.benchmark;
+
+import cn.elevendev.io.strategy.FileStrategy;
+import cn.elevendev.io.strategy.MoveResult;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * FileStrategy 复制和移动
+ * SMALL_FILES 为包含 1000 个 4KB 文件的目录，LARGE_FILE 为单个 256MB 文件
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class FileCopyMoveBenchmark {
+
+    public enum Workload {
+        SMALL_FILES, LARGE_FILE
+    }
+
+    @Param({"SMALL_FILES", "LARGE_FILE"})
+    public Workload workload;
+
+    private final FileStrategy strategy = new FileStrategy();
+    private File dir;
+    private String sourcePath;
+    private String copyPath;
+    private String movedPath;
+    private boolean moved;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = BenchmarkFiles.createTempDir("io-utils-copy-move");
+        File source;
+        if (workload == Workload.SMALL_FILES) {
+            source = new File(dir, "source");
+            BenchmarkFiles.createFiles(source, 1000, 4096);
+        } else {
+            source = new File(dir, "source.bin");
+            BenchmarkFiles.writeRandom(source, 256L << 20);
+        }
+        sourcePath = source.getAbsolutePath();
+        copyPath = new File(dir, "copy").getAbsolutePath();
+        movedPath = new File(dir, "moved").getAbsolutePath();
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteCopy() {
+        BenchmarkFiles.deleteRecursively(new File(copyPath));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkFiles.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public boolean copy() {
+        return strategy.copy(sourcePath, copyPath);
+    }
+
+    /**
+     * 同一存储卷内移动，来回交替，每次调用都是一次真实的重命名
+     */
+    @Benchmark
+    public MoveResult move() {
+        MoveResult result = moved
+                ? strategy.moveWithResult(movedPath, sourcePath)
+                : strategy.moveWithResult(sourcePath, movedPath);
+        moved = !moved;
+        return result;
+    }
+}
@@ -0,0 +1,68 @@
+package cn.elevendev.io.benchmark;
+
+import cn.elevendev.io.strategy.DeleteResult;
+import cn.elevendev.io.strategy.FileStrategy;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * FileStrategy 顺序删除和并行删除，目录下为 entryCount 个 1KB 文件
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class FileDeleteBenchmark {
+
+    @Param({"100", "10000"})
+    public int entryCount;
+
+    private final FileStrategy strategy = new FileStrategy();
+    private File dir;
+    private String deletePath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = BenchmarkFiles.createTempDir("io-utils-delete");
+        deletePath = new File(dir, "delete").getAbsolutePath();
+    }
+
+    /**
+     * 删除会破坏目录，每次调用前重新创建，不计入测量时间
+     */
+    @Setup(Level.Invocation)
+    public void createTree() throws IOException {
+        BenchmarkFiles.createFiles(new File(deletePath), entryCount, 1024);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkFiles.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public DeleteResult delete() {
+        return strategy.delete(deletePath, false);
+    }
+
+    @Benchmark
+    public DeleteResult deleteParallel() {
+        return strategy.delete(deletePath, true);
+    }
+}
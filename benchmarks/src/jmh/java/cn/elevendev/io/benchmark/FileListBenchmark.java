@@ -0,0 +1,81 @@
+package cn.elevendev.io.benchmark;
+
+import cn.elevendev.io.strategy.FileEntry;
+import cn.elevendev.io.strategy.FileEntryIterator;
+import cn.elevendev.io.strategy.FileStrategy;
+import cn.elevendev.io.strategy.WalkOptions;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * FileStrategy 目录列举和遍历，目录下为 entryCount 个 1KB 文件
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class FileListBenchmark {
+
+    @Param({"100", "10000"})
+    public int entryCount;
+
+    private final FileStrategy strategy = new FileStrategy();
+    private File dir;
+    private String listPath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = BenchmarkFiles.createTempDir("io-utils-list");
+        File listDir = new File(dir, "list");
+        BenchmarkFiles.createFiles(listDir, entryCount, 1024);
+        listPath = listDir.getAbsolutePath();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkFiles.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public List<String> getList() {
+        return strategy.getList(listPath);
+    }
+
+    @Benchmark
+    public List<FileEntry> list() {
+        return strategy.list(listPath);
+    }
+
+    @Benchmark
+    public int iterate() throws IOException {
+        int count = 0;
+        try (FileEntryIterator iterator = strategy.iterate(listPath)) {
+            while (iterator.nextEntry() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public List<FileEntry> walk() {
+        return strategy.walk(listPath, new WalkOptions());
+    }
+}
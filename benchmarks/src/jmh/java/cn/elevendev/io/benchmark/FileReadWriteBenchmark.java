@@ -0,0 +1,78 @@
+package cn.elevendev.io.benchmark;
+
+import cn.elevendev.io.strategy.FileStrategy;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * FileStrategy 整文件读写和范围读取，分别覆盖小文件和大文件
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class FileReadWriteBenchmark {
+
+    private static final int RANGE_LENGTH = 64 * 1024;
+
+    @Param({"4096", "67108864"})
+    public int fileSize;
+
+    private final FileStrategy strategy = new FileStrategy();
+    private File dir;
+    private String readPath;
+    private String writePath;
+    private byte[] data;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = BenchmarkFiles.createTempDir("io-utils-rw");
+        File readFile = new File(dir, "read.bin");
+        BenchmarkFiles.writeRandom(readFile, fileSize);
+        readPath = readFile.getAbsolutePath();
+        writePath = new File(dir, "write.bin").getAbsolutePath();
+
+        data = new byte[fileSize];
+        new Random(42).nextBytes(data);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkFiles.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public byte[] readFileAsBytes() {
+        return strategy.readFileAsBytes(readPath);
+    }
+
+    @Benchmark
+    public boolean writeFile() {
+        return strategy.writeFile(writePath, data);
+    }
+
+    /**
+     * 从文件中间读取 64KB，小文件时读到文件末尾为止
+     */
+    @Benchmark
+    public byte[] readRange() {
+        return strategy.readRange(readPath, fileSize / 2, RANGE_LENGTH);
+    }
+}
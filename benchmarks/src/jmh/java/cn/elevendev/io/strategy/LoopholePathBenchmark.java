@@ -0,0 +1,38 @@
+package cn.elevendev.io.strategy;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * LoopholeStrategy 的路径改写，每次文件操作都会执行一次
+ * 放在 strategy 包中以便直接调用包内可见的 insertZeroWidth
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class LoopholePathBenchmark {
+
+    @Param({
+        "/storage/emulated/0/Android/data/com.example.app/files/cache/image.png",
+        "/storage/emulated/0/Android/obb/com.example.app/main.1.com.example.app.obb",
+        "/storage/emulated/0/Download/documents/report.pdf"
+    })
+    public String path;
+
+    @Benchmark
+    public String insertZeroWidth() {
+        return LoopholeStrategy.insertZeroWidth(path);
+    }
+}
@@ -0,0 +1,7 @@
+package android.app;
+
+/**
+ * JVM 上的替身，基准测试不会用到 Activity
+ */
+public class Activity {
+}
@@ -0,0 +1,20 @@
+package android.os;
+
+/**
+ * JVM 上的替身，按 Android 13 处理，使 FileStrategy 走 java.nio.file 分支
+ */
+public class Build {
+
+    public static class VERSION {
+        public static final int SDK_INT = VERSION_CODES.TIRAMISU;
+    }
+
+    public static class VERSION_CODES {
+        public static final int N = 24;
+        public static final int O = 26;
+        public static final int Q = 29;
+        public static final int R = 30;
+        public static final int S_V2 = 32;
+        public static final int TIRAMISU = 33;
+    }
+}
@@ -0,0 +1,15 @@
+package android.os;
+
+/**
+ * JVM 上的替身，任务直接在调用线程上执行
+ */
+public class Handler {
+
+    public Handler(Looper looper) {
+    }
+
+    public boolean post(Runnable runnable) {
+        runnable.run();
+        return true;
+    }
+}
@@ -0,0 +1,11 @@
+package android.os;
+
+/**
+ * JVM 上的替身，没有主线程消息循环
+ */
+public class Looper {
+
+    public static Looper getMainLooper() {
+        return null;
+    }
+}
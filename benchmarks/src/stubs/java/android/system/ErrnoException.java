@@ -0,0 +1,11 @@
+package android.system;
+
+/**
+ * JVM 上的替身
+ */
+public class ErrnoException extends Exception {
+
+    public ErrnoException(String functionName, int errno) {
+        super(functionName + " failed: " + errno);
+    }
+}
@@ -0,0 +1,19 @@
+package android.system;
+
+import java.io.FileDescriptor;
+
+/**
+ * JVM 上的替身，目录同步为空操作，基准测试不覆盖 DURABLE 写入
+ */
+public class Os {
+
+    public static FileDescriptor open(String path, int flags, int mode) throws ErrnoException {
+        return new FileDescriptor();
+    }
+
+    public static void fsync(FileDescriptor fd) throws ErrnoException {
+    }
+
+    public static void close(FileDescriptor fd) throws ErrnoException {
+    }
+}
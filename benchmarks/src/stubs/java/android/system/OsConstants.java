@@ -0,0 +1,9 @@
+package android.system;
+
+/**
+ * JVM 上的替身
+ */
+public class OsConstants {
+
+    public static final int O_RDONLY = 0;
+}
@@ -0,0 +1,16 @@
+package cn.elevendev.io.utils;
+
+import android.app.Activity;
+
+/**
+ * JVM 上的替身，基准测试的临时目录始终可以访问
+ */
+public class PermissionUtil {
+
+    public static boolean isStoragePermissionGranted(Activity activity) {
+        return true;
+    }
+
+    public static void requestStoragePermission(Activity activity) {
+    }
+}
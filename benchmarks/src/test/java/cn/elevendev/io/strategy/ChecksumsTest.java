@@ -0,0 +1,76 @@
+package cn.elevendev.io.strategy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Checksums 的已知结果测试，以及并行与顺序树形模式的一致性测试
+ */
+public class ChecksumsTest {
+
+    private static final int CHUNK = Checksums.TREE_CHUNK_SIZE;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void knownAnswers() throws IOException {
+        assertEquals("e3069283", compute("123456789", ChecksumAlgorithm.CRC32C));
+        assertEquals("ef46db3751d8e999", compute("", ChecksumAlgorithm.XXH64));
+        assertEquals("44bc2cf5ad770999", compute("abc", ChecksumAlgorithm.XXH64));
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+                compute("abc", ChecksumAlgorithm.SHA256));
+    }
+
+    @Test
+    public void parallelAndSequentialTreesMatchAcrossChunkBoundary() throws IOException {
+        for (int length : new int[]{0, 1, CHUNK - 1, CHUNK, CHUNK + 1, 2 * CHUNK + 12345}) {
+            File file = folder.newFile("tree-" + length + ".bin");
+            byte[] data = new byte[length];
+            new Random(length).nextBytes(data);
+            Files.write(file.toPath(), data);
+
+            for (ChecksumAlgorithm algorithm : ChecksumAlgorithm.values()) {
+                String parallel;
+                try (FileChannel channel = new FileInputStream(file).getChannel()) {
+                    parallel = Checksums.computeTree(channel, algorithm);
+                }
+                String sequential;
+                // Channels.newChannel 返回的不是 FileChannel，走顺序读取
+                try (ReadableByteChannel channel = Channels.newChannel(new FileInputStream(file))) {
+                    sequential = Checksums.computeTree(channel, algorithm);
+                }
+                assertEquals(algorithm + " " + length, parallel, sequential);
+            }
+        }
+    }
+
+    @Test
+    public void treeDiffersFromPlainChecksum() throws IOException {
+        byte[] data = new byte[CHUNK + 1];
+        assertNotEquals(Checksums.compute(channel(data), ChecksumAlgorithm.XXH64),
+                Checksums.computeTree(channel(data), ChecksumAlgorithm.XXH64));
+    }
+
+    private static String compute(String text, ChecksumAlgorithm algorithm) throws IOException {
+        return Checksums.compute(channel(text.getBytes(StandardCharsets.US_ASCII)), algorithm);
+    }
+
+    private static ReadableByteChannel channel(byte[] data) {
+        return Channels.newChannel(new ByteArrayInputStream(data));
+    }
+}
@@ -0,0 +1,70 @@
+package cn.elevendev.io.strategy;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import cn.elevendev.io.utils.ChannelUtil;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * FileStrategy.copyDelta 的测试
+ */
+public class FileStrategyDeltaCopyTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Strategy strategy = new FileStrategy();
+
+    @Test
+    public void createsMissingDestinationAndParent() throws IOException {
+        byte[] data = randomBytes(2 * ChannelUtil.DELTA_BLOCK_SIZE + 1);
+        File source = folder.newFile("source.bin");
+        Files.write(source.toPath(), data);
+        File dest = new File(folder.getRoot(), "a/b/dest.bin");
+
+        DeltaCopyResult result = strategy.copyDelta(source.getPath(), dest.getPath());
+
+        assertEquals(data.length, result.getTotalBytes());
+        assertEquals(data.length, result.getBytesWritten());
+        assertEquals(0, result.getBytesSaved());
+        assertArrayEquals(data, Files.readAllBytes(dest.toPath()));
+    }
+
+    @Test
+    public void reportsSavedBytes() throws IOException {
+        int block = ChannelUtil.DELTA_BLOCK_SIZE;
+        byte[] data = randomBytes(10 * block);
+        File source = folder.newFile("source.bin");
+        File dest = folder.newFile("dest.bin");
+        Files.write(dest.toPath(), data);
+        data[3 * block + 7] ^= 1;
+        Files.write(source.toPath(), data);
+
+        DeltaCopyResult result = strategy.copyDelta(source.getPath(), dest.getPath());
+
+        assertEquals(block, result.getBytesWritten());
+        assertEquals(9L * block, result.getBytesSaved());
+        assertArrayEquals(data, Files.readAllBytes(dest.toPath()));
+    }
+
+    @Test
+    public void missingSourceReturnsNull() {
+        File dest = new File(folder.getRoot(), "dest.bin");
+
+        assertNull(strategy.copyDelta(new File(folder.getRoot(), "missing.bin").getPath(), dest.getPath()));
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] data = new byte[length];
+        new Random(length).nextBytes(data);
+        return data;
+    }
+}
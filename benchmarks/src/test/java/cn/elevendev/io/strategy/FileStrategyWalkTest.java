@@ -0,0 +1,95 @@
+package cn.elevendev.io.strategy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * FileStrategy.walk 的测试，顺序遍历（Files.walkFileTree）与并行遍历的结果必须一致
+ */
+public class FileStrategyWalkTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Strategy strategy = new FileStrategy();
+    private String root;
+
+    @Before
+    public void createTree() throws IOException {
+        Path rootPath = folder.getRoot().toPath();
+        root = rootPath.toString();
+        Files.createDirectories(rootPath.resolve("a"));
+        Files.createDirectories(rootPath.resolve("b/c"));
+        Files.write(rootPath.resolve("a/one.txt"), new byte[1]);
+        Files.write(rootPath.resolve("b/two.txt"), new byte[2]);
+        Files.write(rootPath.resolve("b/c/three.txt"), new byte[3]);
+        // 两个链接指向同一个目录，一个链接指向根目录形成循环，一个链接的目标不存在
+        Files.createSymbolicLink(rootPath.resolve("link1"), rootPath.resolve("b"));
+        Files.createSymbolicLink(rootPath.resolve("link2"), rootPath.resolve("b"));
+        Files.createSymbolicLink(rootPath.resolve("a/up"), rootPath);
+        Files.createSymbolicLink(rootPath.resolve("broken"), rootPath.resolve("missing"));
+        Files.createSymbolicLink(rootPath.resolve("file-link"), rootPath.resolve("a/one.txt"));
+    }
+
+    @Test
+    public void parallelMatchesSequentialWithoutFollowingLinks() {
+        WalkOptions options = new WalkOptions();
+        List<String> sequential = describe(strategy.walk(root, options));
+        List<String> parallel = describe(strategy.walk(root, new WalkOptions().setParallel(true)));
+
+        assertEquals(sequential, parallel);
+        assertTrue(sequential.contains("link1 SYMBOLIC_LINK"));
+        assertFalse(sequential.contains("link1/two.txt FILE 2"));
+    }
+
+    @Test
+    public void parallelMatchesSequentialWhenFollowingLinks() {
+        List<String> sequential = describe(strategy.walk(root, new WalkOptions().setFollowSymlinks(true)));
+        List<String> parallel = describe(strategy.walk(root, new WalkOptions().setFollowSymlinks(true).setParallel(true)));
+
+        assertEquals(sequential, parallel);
+        // 链接返回目标的属性，指向同一目录的两个链接都会被遍历
+        assertTrue(sequential.contains("link1 DIRECTORY"));
+        assertTrue(sequential.contains("link1/two.txt FILE 2"));
+        assertTrue(sequential.contains("link2/c/three.txt FILE 3"));
+        assertTrue(sequential.contains("file-link FILE 1"));
+        assertTrue(sequential.contains("broken SYMBOLIC_LINK"));
+        // 指向上级目录的链接返回但不进入
+        assertTrue(sequential.contains("a/up DIRECTORY"));
+        assertFalse(sequential.contains("a/up/a DIRECTORY"));
+    }
+
+    @Test
+    public void parallelMatchesSequentialWithMaxDepth() {
+        WalkOptions sequentialOptions = new WalkOptions().setFollowSymlinks(true).setMaxDepth(2);
+        WalkOptions parallelOptions = new WalkOptions().setFollowSymlinks(true).setMaxDepth(2).setParallel(true);
+
+        assertEquals(describe(strategy.walk(root, sequentialOptions)), describe(strategy.walk(root, parallelOptions)));
+    }
+
+    /**
+     * 转换为与顺序无关的可比较形式，目录和链接不比较大小
+     */
+    private List<String> describe(List<FileEntry> entries) {
+        List<String> result = new ArrayList<>();
+        for (FileEntry entry : entries) {
+            String relative = entry.getPath().substring(root.length() + 1).replace(File.separatorChar, '/');
+            result.add(relative + " " + entry.getType() + (entry.isFile() ? " " + entry.getSize() : ""));
+        }
+        Collections.sort(result);
+        return result;
+    }
+}
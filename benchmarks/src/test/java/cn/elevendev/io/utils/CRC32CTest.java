@@ -0,0 +1,60 @@
+package cn.elevendev.io.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * CRC32C 的已知结果测试
+ */
+public class CRC32CTest {
+
+    @Test
+    public void checkValue() {
+        CRC32C crc = new CRC32C();
+        byte[] data = "123456789".getBytes(StandardCharsets.US_ASCII);
+        crc.update(data, 0, data.length);
+        assertEquals(0xE3069283L, crc.getValue());
+    }
+
+    @Test
+    public void emptyInput() {
+        assertEquals(0L, new CRC32C().getValue());
+    }
+
+    @Test
+    public void thirtyTwoZeroBytes() {
+        // RFC 3720 B.4
+        CRC32C crc = new CRC32C();
+        crc.update(new byte[32], 0, 32);
+        assertEquals(0x8A9136AAL, crc.getValue());
+    }
+
+    @Test
+    public void splitUpdatesMatchSingleUpdate() {
+        byte[] data = new byte[1000];
+        new Random(1).nextBytes(data);
+        CRC32C whole = new CRC32C();
+        whole.update(data, 0, data.length);
+
+        for (int split = 0; split <= 20; split++) {
+            CRC32C parts = new CRC32C();
+            parts.update(data, 0, split);
+            parts.update(data[split]);
+            parts.update(data, split + 1, data.length - split - 1);
+            assertEquals(whole.getValue(), parts.getValue());
+        }
+    }
+
+    @Test
+    public void resetRestoresInitialState() {
+        CRC32C crc = new CRC32C();
+        crc.update(new byte[]{1, 2, 3}, 0, 3);
+        crc.reset();
+        byte[] data = "123456789".getBytes(StandardCharsets.US_ASCII);
+        crc.update(data, 0, data.length);
+        assertEquals(0xE3069283L, crc.getValue());
+    }
+}
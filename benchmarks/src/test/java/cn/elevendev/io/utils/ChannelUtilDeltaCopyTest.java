@@ -0,0 +1,140 @@
+package cn.elevendev.io.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * ChannelUtil.deltaCopy 的测试，检查目标文件内容和写入的字节数
+ */
+public class ChannelUtilDeltaCopyTest {
+
+    private static final int BLOCK = ChannelUtil.DELTA_BLOCK_SIZE;
+    private static final int SEGMENT = 4 * 1024 * 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void missingDestinationIsFullCopy() throws IOException {
+        byte[] source = randomBytes(3 * BLOCK + 17);
+        File target = new File(folder.getRoot(), "missing.bin");
+
+        assertEquals(source.length, deltaCopy(source, target));
+        assertArrayEquals(source, Files.readAllBytes(target.toPath()));
+    }
+
+    @Test
+    public void identicalDestinationWritesNothing() throws IOException {
+        byte[] source = randomBytes(SEGMENT + 5 * BLOCK + 3);
+
+        assertEquals(0, deltaCopy(source, write("same.bin", source)));
+    }
+
+    @Test
+    public void emptySourceTruncatesDestination() throws IOException {
+        File target = write("empty.bin", randomBytes(BLOCK));
+
+        assertEquals(0, deltaCopy(new byte[0], target));
+        assertEquals(0, target.length());
+    }
+
+    @Test
+    public void shorterDestinationWritesFromLastCommonBlock() throws IOException {
+        byte[] source = randomBytes(10 * BLOCK + 100);
+        int existing = 4 * BLOCK + 10;
+        File target = write("short.bin", Arrays.copyOf(source, existing));
+
+        // 目标文件末尾不完整的块和之后的块都需要写入
+        assertEquals(source.length - 4 * BLOCK, deltaCopy(source, target));
+        assertArrayEquals(source, Files.readAllBytes(target.toPath()));
+    }
+
+    @Test
+    public void longerDestinationIsTruncated() throws IOException {
+        byte[] source = randomBytes(6 * BLOCK + 1);
+        byte[] longer = Arrays.copyOf(source, source.length + 3 * BLOCK);
+        File target = write("long.bin", longer);
+
+        assertEquals(0, deltaCopy(source, target));
+        assertArrayEquals(source, Files.readAllBytes(target.toPath()));
+    }
+
+    @Test
+    public void changesOnBlockBoundaryRewriteBothBlocks() throws IOException {
+        byte[] source = randomBytes(8 * BLOCK);
+        byte[] old = source.clone();
+        old[BLOCK - 1] ^= 1;
+        old[BLOCK] ^= 1;
+        File target = write("block.bin", old);
+
+        assertEquals(2L * BLOCK, deltaCopy(source, target));
+        assertArrayEquals(source, Files.readAllBytes(target.toPath()));
+    }
+
+    @Test
+    public void changesOnSegmentBoundaryRewriteBothBlocks() throws IOException {
+        byte[] source = randomBytes(2 * SEGMENT + BLOCK / 2);
+        byte[] old = source.clone();
+        old[SEGMENT - 1] ^= 1;
+        old[SEGMENT] ^= 1;
+        // 最后一个不完整的块
+        old[old.length - 1] ^= 1;
+        File target = write("segment.bin", old);
+
+        assertEquals(2L * BLOCK + BLOCK / 2, deltaCopy(source, target));
+        assertArrayEquals(source, Files.readAllBytes(target.toPath()));
+    }
+
+    @Test
+    public void smallBlockSizeCountsOnlyChangedBlocks() throws IOException {
+        byte[] source = randomBytes(1000);
+        byte[] old = source.clone();
+        old[0] ^= 1;
+        old[999] ^= 1;
+        File target = write("small.bin", old);
+
+        assertEquals(100 + 100, deltaCopy(source, target, 100));
+        assertArrayEquals(source, Files.readAllBytes(target.toPath()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveBlockSize() throws IOException {
+        deltaCopy(new byte[1], new File(folder.getRoot(), "invalid.bin"), 0);
+    }
+
+    private long deltaCopy(byte[] source, File target) throws IOException {
+        return deltaCopy(source, target, BLOCK);
+    }
+
+    private long deltaCopy(byte[] source, File target, int blockSize) throws IOException {
+        File sourceFile = write("source-" + System.nanoTime() + ".bin", source);
+        try (FileChannel in = new FileInputStream(sourceFile).getChannel();
+             FileChannel out = new RandomAccessFile(target, "rw").getChannel()) {
+            return ChannelUtil.deltaCopy(in, out, out, blockSize);
+        }
+    }
+
+    private File write(String name, byte[] data) throws IOException {
+        File file = new File(folder.getRoot(), name);
+        Files.write(file.toPath(), data);
+        return file;
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] data = new byte[length];
+        new Random(length).nextBytes(data);
+        return data;
+    }
+}
@@ -0,0 +1,52 @@
+package cn.elevendev.io.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * XXHash64 的已知结果测试
+ */
+public class XXHash64Test {
+
+    @Test
+    public void emptyInput() {
+        assertEquals(0xEF46DB3751D8E999L, new XXHash64().getValue());
+    }
+
+    @Test
+    public void abc() {
+        assertEquals(0x44BC2CF5AD770999L, hash("abc".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    public void splitUpdatesMatchSingleUpdate() {
+        // 覆盖不足 32 字节、正好 32 字节以及跨越多个 32 字节条带的输入
+        byte[] data = new byte[200];
+        new Random(2).nextBytes(data);
+        long whole = hash(data);
+
+        for (int split = 0; split <= 70; split++) {
+            XXHash64 parts = new XXHash64();
+            parts.update(data, 0, split);
+            parts.update(data, split, data.length - split);
+            assertEquals(whole, parts.getValue());
+        }
+    }
+
+    @Test
+    public void resetRestoresInitialState() {
+        XXHash64 hash = new XXHash64();
+        hash.update(new byte[40], 0, 40);
+        hash.reset();
+        assertEquals(0xEF46DB3751D8E999L, hash.getValue());
+    }
+
+    private static long hash(byte[] data) {
+        XXHash64 hash = new XXHash64();
+        hash.update(data, 0, data.length);
+        return hash.getValue();
+    }
+}